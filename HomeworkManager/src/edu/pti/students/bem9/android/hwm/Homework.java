@@ -3,16 +3,24 @@ package edu.pti.students.bem9.android.hwm;
 import java.sql.Date;
 import java.util.Vector;
 
+import edu.pti.students.bem9.android.hwm.util.EpochDay;
+
 /**
  * Implementation of a representation of a homework object.<br>
  * 
  * This class also contains storage for a name representation of the Homework object, 
  * due and assigned date storage, subject and "assigning class" storage, and keyword 
- * storage and processing.  
+ * storage and processing.  Dates are held as {@linkplain EpochDay epoch days}, so all
+ * date comparisons are simple integer comparisons.<br>
+ * 
+ * Every setter records which fields have actually changed since the homework was last
+ * saved or loaded (see {@link #getDirtyFields()}), so that the database only has to
+ * write those columns when the homework is updated.  Before the first change to a saved homework, its
+ * {@linkplain #getSavedValue() saved values} are kept, so that it can still be found by them until it is saved.
  *     
  * @author Bridger Maskrey (bem9@students.pti.edu)
  * 
- * @version 2.0.0
+ * @version 2.6.2
  */
 public class Homework 
 {
@@ -32,22 +40,55 @@ public class Homework
 	private final Object lock = new Object();
 	
 	
+	/** Dirty field flag for the {@linkplain #getName() name}. */
+	public static final int FIELD_NAME = 0x01;
+	
+	/** Dirty field flag for the {@linkplain #getDueDay() due date}. */
+	public static final int FIELD_DUE = 0x02;
+	
+	/** Dirty field flag for the {@linkplain #getAssignedDay() assigned date}. */
+	public static final int FIELD_ASSIGNED = 0x04;
+	
+	/** Dirty field flag for the {@linkplain #getAssigningClass() assigning class}. */
+	public static final int FIELD_CLASS = 0x08;
+	
+	/** Dirty field flag for the {@linkplain #getSubject() subject}. */
+	public static final int FIELD_SUBJECT = 0x10;
+	
+	/** Dirty field flag for the {@linkplain #getKeywords() keywords}. */
+	public static final int FIELD_KEYWORDS = 0x20;
+	
+	
 	/**
-	 * A character sequence representation of the date at which this homework is due.
+	 * Bit set of the {@code FIELD_*} flags of every field that has changed since this
+	 * homework was last {@linkplain #markClean() marked clean}.
+	 */
+	private int dirtyFields = 0;
+	
+	
+	/**
+	 * The values this homework held when it was last {@linkplain #markClean() marked clean}, kept before the
+	 * first change made to it since, or {@code null} if it has not changed or was never saved.
+	 */
+	private HomeworkValue saved = null;
+	
+	
+	/**
+	 * The {@linkplain EpochDay epoch day} on which this homework is due.
 	 * 
 	 * Stored in the SQL Database column "due".
-	 * <br><br>SQL: due DATE NOT NULL
+	 * <br><br>SQL: due INTEGER NOT NULL
 	 */
-	private CharSequence dueDate;
+	private int dueDate;
 	
 	
 	/**
-	 * A character sequence representation of the date at which this homework is assigned.
+	 * The {@linkplain EpochDay epoch day} on which this homework was assigned.
 	 * 
 	 * Stored in the SQL Database column "assigned".<br><br>
-	 * SQL: assigned DATE NOT NULL
+	 * SQL: assigned INTEGER NOT NULL
 	 */
-	private CharSequence assignedDate;
+	private int assignedDate;
 	
 	
 	/**
@@ -271,6 +312,32 @@ public class Homework
 	}
 	
 	
+	/**
+	 * Instantiates a homework object with the specified name, due date, assigned date, class name,
+	 * subject name and keywords, with both dates given as {@linkplain EpochDay epoch days}.<br>
+	 * 
+	 * This constructor skips all date parsing and is the one used when restoring homework
+	 * from the database.
+	 * 
+	 * @param name A char sequence representing the name of this homework object.
+	 * @param due The epoch day on which the homework is due.
+	 * @param assigned The epoch day on which the homework was assigned.
+	 * @param classname A char sequence representing the name of the class that assigned this homework object.
+	 * @param subject A char sequence representing the subject name of this homework.
+	 * @param keywords A list of char sequences that are used to further identify this homework object.
+	 */
+	public Homework(CharSequence name, int due, int assigned, CharSequence classname, 
+			CharSequence subject, CharSequence ... keywords) 
+	{
+		this(name);
+		this.dueDate = due;
+		this.assignedDate = assigned;
+		this.assigningClass = classname;
+		this.subject = subject;
+		this.addKeyword(keywords);
+	}
+	
+	
 	/**
 	 * Manually sets the "assigned" date field to a date represented by the specified
 	 * char sequence.  Note that SQL date formatting conventions must be followed
@@ -281,7 +348,7 @@ public class Homework
 	 */
 	public void setAssignedDate(CharSequence assign) 
 	{ 
-		this.assignedDate = assign;
+		this.setAssignedDay(EpochDay.parse(assign));
 	}
 	
 	
@@ -295,59 +362,109 @@ public class Homework
 	 */
 	public void setDueDate(CharSequence due) 
 	{ 
-		this.dueDate = due; 
+		this.setDueDay(EpochDay.parse(due)); 
 	}
 	
 	
 	/**
-	 * Manually sets the "assigned" date field to the specified date.  Calls the function
-	 * {@link #setAssignedDate(CharSequence)} after converting the given date to a
-	 * string.  This helps prevent date parsing errors by ensuring SQL compliant formatting
-	 * of the date string.
+	 * Manually sets the "assigned" date field to the specified date.  The date is converted
+	 * straight to an {@linkplain EpochDay epoch day}, so no date string is parsed.
 	 * 
 	 * @param assign A {@linkplain java.sql.Date} object representing the assigned date of the homework.
 	 */
 	public void setAssignedDate(Date date) 
 	{ 
-		this.setAssignedDate(date.toString());
+		this.setAssignedDay(EpochDay.fromDate(date));
 	}
 	
 	
 	/**
-	 * Manually sets the "due" date field to the specified date.  Calls the function
-	 * {@link #setDueDate(CharSequence)} after converting the given date to a
-	 * string.  This helps prevent date parsing errors by ensuring SQL compliant formatting
-	 * of the date string.
+	 * Manually sets the "due" date field to the specified date.  The date is converted
+	 * straight to an {@linkplain EpochDay epoch day}, so no date string is parsed.
 	 * 
 	 * @param assign  A {@linkplain java.sql.Date} object representing the due date of the homework.
 	 */
 	public void setDueDate(Date date) 
 	{ 
-		this.setDueDate(date.toString()); 
+		this.setDueDay(EpochDay.fromDate(date)); 
+	}
+	
+	
+	/**
+	 * Manually sets the "assigned" date field to the specified {@linkplain EpochDay epoch day}.
+	 * 
+	 * @param assign The epoch day on which the homework was assigned.
+	 */
+	public void setAssignedDay(int assign) 
+	{ 
+		if(this.assignedDate != assign) 
+		{
+			this.keepSaved();
+			this.assignedDate = assign;
+			this.dirtyFields |= FIELD_ASSIGNED;
+		}
+	}
+	
+	
+	/**
+	 * Manually sets the "due" date field to the specified {@linkplain EpochDay epoch day}.
+	 * 
+	 * @param due The epoch day on which the homework is due.
+	 */
+	public void setDueDay(int due) 
+	{ 
+		if(this.dueDate != due) 
+		{
+			this.keepSaved();
+			this.dueDate = due;
+			this.dirtyFields |= FIELD_DUE;
+		}
 	}
 
 	
 	/**
 	 * Allows access to this homework's due date field as a {@linkplain java.sql.Date} object.
+	 * Prefer {@link #getDueDay()} where a {@code Date} object is not strictly needed.
 	 * 
-	 * @return A {@code java.sql.Date} object representing the parsed value of this homework's
-	 *     due date.
+	 * @return A new {@code java.sql.Date} object representing this homework's due date.
 	 */
 	public Date getDueDate() 
 	{ 
-		return Date.valueOf(this.dueDate.toString()); 
+		return EpochDay.toDate(this.dueDate); 
 	}
 	
 	
 	/**
 	 * Allows access to this homework's assigned date field as a {@linkplain java.sql.Date} object.
+	 * Prefer {@link #getAssignedDay()} where a {@code Date} object is not strictly needed.
 	 * 
-	 * @return A {@code java.sql.Date} object representing the parsed value of this homework's
-	 *     assigned date.
+	 * @return A new {@code java.sql.Date} object representing this homework's assigned date.
 	 */
 	public Date getAssignedDate() 
 	{ 
-		return Date.valueOf(this.assignedDate.toString());
+		return EpochDay.toDate(this.assignedDate);
+	}
+	
+	
+	/**
+	 * Allows access to this homework's due date as an {@linkplain EpochDay epoch day}.
+	 * 
+	 * @return The epoch day on which this homework is due.
+	 */
+	public int getDueDay() 
+	{ 
+		return this.dueDate; 
+	}
+	
+	
+	/**
+	 * Allows access to this homework's assigned date as an {@linkplain EpochDay epoch day}.
+	 * 
+	 * @return The epoch day on which this homework was assigned.
+	 */
+	public int getAssignedDay() 
+	{ 
+		return this.assignedDate;
 	}
 	
 	
@@ -380,7 +497,12 @@ public class Homework
 	 */
 	public void setAssigningClass(CharSequence className) 
 	{ 
-		this.assigningClass = className;
+		if(!sameText(this.assigningClass, className)) 
+		{
+			this.keepSaved();
+			this.assigningClass = className;
+			this.dirtyFields |= FIELD_CLASS;
+		}
 	}
 	
 	
@@ -391,7 +513,12 @@ public class Homework
 	 */
 	public void setSubject(CharSequence subjectName) 
 	{ 
-		this.subject = subjectName;
+		if(!sameText(this.subject, subjectName)) 
+		{
+			this.keepSaved();
+			this.subject = subjectName;
+			this.dirtyFields |= FIELD_SUBJECT;
+		}
 	}
 	
 	
@@ -402,7 +529,71 @@ public class Homework
 	 */
 	public void setName(CharSequence name) 
 	{ 
-		this.name = name;
+		if(!sameText(this.name, name)) 
+		{
+			this.keepSaved();
+			this.name = name;
+			this.dirtyFields |= FIELD_NAME;
+		}
+	}
+	
+	
+	/**
+	 * Gets the fields that have changed since this homework was last {@linkplain #markClean() marked clean}.
+	 * Setters only mark a field as changed if the new value actually differs from the old one.
+	 * 
+	 * @return A bit set of the {@code FIELD_*} flags of every changed field, or 0 if nothing changed.
+	 */
+	public int getDirtyFields() 
+	{
+		return this.dirtyFields;
+	}
+	
+	
+	/**
+	 * Checks if any field has changed since this homework was last {@linkplain #markClean() marked clean}.
+	 * 
+	 * @return True if at least one field has changed, false if not.
+	 */
+	public boolean isDirty() 
+	{
+		return this.dirtyFields != 0;
+	}
+	
+	
+	/**
+	 * Marks every field of this homework as unchanged.  This should be called once the
+	 * homework matches what is stored in the database, i.e. after it was loaded or saved.
+	 */
+	public void markClean() 
+	{
+		this.dirtyFields = 0;
+		this.saved = null;
+	}
+	
+	
+	/**
+	 * Gets the values this homework held when it was last {@linkplain #markClean() marked clean}, i.e. the values
+	 * that are still stored in the database until it is saved again.
+	 * 
+	 * @return The saved values, or {@code null} if the homework has not changed since, or was never saved.
+	 */
+	public HomeworkValue getSavedValue() 
+	{
+		return this.dirtyFields != 0 ? this.saved : null;
+	}
+	
+	
+	/**
+	 * Keeps the current values of a saved homework as its {@linkplain #getSavedValue() saved values}, if they
+	 * have not been kept since it was last marked clean.  This must be called before a field is changed.
+	 */
+	private void keepSaved() 
+	{
+		if(this.saved == null && this.dirtyFields == 0 && this.UID >= 0) 
+		{
+			this.saved = HomeworkValue.of(this);
+		}
 	}
 	
 	
@@ -451,72 +642,49 @@ public class Homework
 	
 	
 	/**
-	 * Searches this homework's identifying fields for any identifiers containing the specified
-	 * sequence of characters.  If one is found, the function will return true. Otherwise,
-	 * the function returns false.
-	 *     
-	 * @param keyfragm The sequence to look for in the identifying fields.
+	 * Adds the specified keyword to the keywords list. Keywords are trimmed and lowercased,
+	 * and blank keywords are ignored. This function synchronizes across threads.
 	 * 
-	 * @return True if the sequence can be located, false if not.
+	 * @param keys The keywords to add.
 	 */
-	public boolean _keywordSearch(CharSequence keyfragm) 
+	public void addKeyword(CharSequence ... keys)
 	{
-		keyfragm = keyfragm.toString().toLowerCase();
-		String[] akeyfragm = keyfragm.toString().split("[ ,;\\.]");
-		
-		boolean contains = false;
-		
-		for(String keystring : akeyfragm)
+		synchronized(this.lock)
 		{
-			keystring = keystring.trim();
-			
-			if(keystring.isEmpty()) continue;
+			this.keepSaved();
 			
-			contains |= this.name != null && this.name.toString().toLowerCase().contains(keystring);
-			
-			contains |= this.assigningClass != null && this.assigningClass.toString().toLowerCase().contains(keystring);
-
-			contains |= this.subject != null && this.subject.toString().toLowerCase().contains(keystring);
-
-			contains |= this.dueDate != null && this.dueDate.toString().toLowerCase().contains(keystring);
-
-			contains |= this.assignedDate != null && this.assignedDate.toString().toLowerCase().contains(keystring);
-			
-			for(int i = 0; this.keywords != null && i < this.keywords.size(); i++) 
+			if(this.appendKeywords(keys)) 
 			{
-				CharSequence s = this.keywords.get(i);
-				contains |= s != null && s.toString().contains(keystring);
+				this.dirtyFields |= FIELD_KEYWORDS;
 			}
 		}
-		
-		StringBuilder debugText = new StringBuilder(this.getName() + ": " + contains + " keyphrases:");
-		
-		for(String s : akeyfragm) 
-		{ 
-			debugText.append(s).append("_"); 
-		}
-		
-		return contains;
 	}
 	
 	
 	/**
-	 * Adds the specified keyword to the keywords list. This function synchronizes across threads.
+	 * Adds keywords to the keywords list without touching the dirty fields.  The caller must
+	 * hold the {@linkplain #lock synchronization lock}.
 	 * 
 	 * @param keys The keywords to add.
+	 * 
+	 * @return True if at least one keyword was added, false if not.
 	 */
-	public void addKeyword(CharSequence ... keys)
+	private boolean appendKeywords(CharSequence ... keys) 
 	{
-		synchronized(this.lock)
+		boolean added = false;
+		
+		for(CharSequence cs : keys) 
 		{
-			for(CharSequence cs : keys) 
+			String key = cs.toString().trim().toLowerCase();
+			
+			if(!key.isEmpty() && !this.keywords.contains(key))
 			{
-				if(!this.keywords.contains(cs.toString().trim().toLowerCase()))
-				{
-					this.keywords.add(cs.toString().trim().toLowerCase());
-				}
+				this.keywords.add(key);
+				added = true;
 			}
 		}
+		
+		return added;
 	}
 	
 	
@@ -530,10 +698,34 @@ public class Homework
 	{
 		synchronized(this.lock) 
 		{
+			Vector<CharSequence> previous = new Vector<CharSequence>(this.keywords);
+			
+			this.keepSaved();
+			
 			this.keywords.clear();
+			this.appendKeywords(keys);
+			
+			if(!previous.equals(this.keywords)) 
+			{
+				this.dirtyFields |= FIELD_KEYWORDS;
+			}
 		}
+	}
+	
+	
+	/**
+	 * Compares two char sequences by their text.  Either may be {@code null}.
+	 * 
+	 * @param a The first sequence.
+	 * @param b The second sequence.
+	 * 
+	 * @return True if both are {@code null} or both hold the same characters.
+	 */
+	private static boolean sameText(CharSequence a, CharSequence b) 
+	{
+		if(a == null || b == null) return a == b;
 		
-		this.addKeyword(keys);
+		return a.toString().contentEquals(b);
 	}
 	
 	
@@ -563,7 +755,21 @@ public class Homework
 	 */
 	public boolean isDueOn(Date d) 
 	{
-		return this.getDueDate().compareTo(d) == 0;
+		return this.isDueOn(EpochDay.fromDate(d));
+	}
+	
+	
+	/**
+	 * Integer form of {@link #isDueOn(Date)} that compares directly against an
+	 * {@linkplain EpochDay epoch day}.
+	 * 
+	 * @param day The epoch day to compare against.
+	 * 
+	 * @return The same result as {@link #isDueOn(Date)} for the equivalent date.
+	 */
+	public boolean isDueOn(int day)
+	{
+		return this.dueDate == day;
 	}
 	
 	
@@ -576,7 +782,21 @@ public class Homework
 	 */
 	public boolean isDueOnBefore(Date d)
 	{
-		return this.getDueDate().compareTo(d) <= 0;
+		return this.isDueOnBefore(EpochDay.fromDate(d));
+	}
+	
+	
+	/**
+	 * Integer form of {@link #isDueOnBefore(Date)} that compares directly against an
+	 * {@linkplain EpochDay epoch day}.
+	 * 
+	 * @param day The epoch day to compare against.
+	 * 
+	 * @return The same result as {@link #isDueOnBefore(Date)} for the equivalent date.
+	 */
+	public boolean isDueOnBefore(int day)
+	{
+		return this.dueDate <= day;
 	}
 	
 	
@@ -589,7 +809,21 @@ public class Homework
 	 */
 	public boolean isDueBefore(Date d)
 	{
-		return this.getDueDate().compareTo(d) < 0;
+		return this.isDueBefore(EpochDay.fromDate(d));
+	}
+	
+	
+	/**
+	 * Integer form of {@link #isDueBefore(Date)} that compares directly against an
+	 * {@linkplain EpochDay epoch day}.
+	 * 
+	 * @param day The epoch day to compare against.
+	 * 
+	 * @return The same result as {@link #isDueBefore(Date)} for the equivalent date.
+	 */
+	public boolean isDueBefore(int day)
+	{
+		return this.dueDate < day;
 	}
 	
 	
@@ -602,7 +836,21 @@ public class Homework
 	 */
 	public boolean isDueOnAfter(Date d)
 	{
-		return this.getDueDate().compareTo(d) >= 0;
+		return this.isDueOnAfter(EpochDay.fromDate(d));
+	}
+	
+	
+	/**
+	 * Integer form of {@link #isDueOnAfter(Date)} that compares directly against an
+	 * {@linkplain EpochDay epoch day}.
+	 * 
+	 * @param day The epoch day to compare against.
+	 * 
+	 * @return The same result as {@link #isDueOnAfter(Date)} for the equivalent date.
+	 */
+	public boolean isDueOnAfter(int day)
+	{
+		return this.dueDate >= day;
 	}
 	
 	
@@ -615,6 +863,20 @@ public class Homework
 	 */
 	public boolean isDueAfter(Date d)
 	{
-		return this.getDueDate().compareTo(d) > 0;
+		return this.isDueAfter(EpochDay.fromDate(d));
+	}
+	
+	
+	/**
+	 * Integer form of {@link #isDueAfter(Date)} that compares directly against an
+	 * {@linkplain EpochDay epoch day}.
+	 * 
+	 * @param day The epoch day to compare against.
+	 * 
+	 * @return The same result as {@link #isDueAfter(Date)} for the equivalent date.
+	 */
+	public boolean isDueAfter(int day)
+	{
+		return this.dueDate > day;
 	}
 }
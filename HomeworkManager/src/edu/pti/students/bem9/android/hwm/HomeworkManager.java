@@ -1,10 +1,8 @@
 package edu.pti.students.bem9.android.hwm;
 
 import java.sql.Date;
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.IllegalFormatException;
-import java.util.Iterator;
 import java.util.List;
 
 import android.content.Context;
@@ -23,12 +21,22 @@ import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.BaseAdapter;
 import android.widget.EditText;
+import android.widget.ListAdapter;
 import android.widget.ListView;
 import android.widget.Switch;
 import android.widget.Toast;
 import edu.pti.bem9.android.hwm.R;
+import edu.pti.students.bem9.android.hwm.database.HomeworkChange;
+import edu.pti.students.bem9.android.hwm.database.HomeworkCriteria;
 import edu.pti.students.bem9.android.hwm.database.HomeworkDataSource;
+import edu.pti.students.bem9.android.hwm.database.HomeworkListIndex;
+import edu.pti.students.bem9.android.hwm.database.HomeworkRepository;
+import edu.pti.students.bem9.android.hwm.database.HomeworkSearchIndex;
+import edu.pti.students.bem9.android.hwm.database.HomeworkSort;
+import edu.pti.students.bem9.android.hwm.database.IHomeworkCallback;
+import edu.pti.students.bem9.android.hwm.database.IHomeworkObserver;
 import edu.pti.students.bem9.android.hwm.fragment.CommonAboutDialog;
 import edu.pti.students.bem9.android.hwm.fragment.HomeworkCreateFragment;
 import edu.pti.students.bem9.android.hwm.fragment.HomeworkInformationDialog;
@@ -36,7 +44,11 @@ import edu.pti.students.bem9.android.hwm.fragment.HomeworkListFragment;
 import edu.pti.students.bem9.android.hwm.fragment.HomeworkRemovalFragment;
 import edu.pti.students.bem9.android.hwm.fragment.date.DateFragment;
 import edu.pti.students.bem9.android.hwm.fragment.date.IDateEdit;
+import edu.pti.students.bem9.android.hwm.util.DueStatusClassifier;
+import edu.pti.students.bem9.android.hwm.util.EpochDay;
 import edu.pti.students.bem9.android.hwm.util.HomeworkListAdapter;
+import edu.pti.students.bem9.android.hwm.util.HomeworkTable;
+import edu.pti.students.bem9.android.hwm.util.IDayChangeListener;
 
 /**
  * The main activity of the Homework Manager program.  Handles click events,
@@ -45,7 +57,7 @@ import edu.pti.students.bem9.android.hwm.util.HomeworkListAdapter;
  * 
  * @author Bridger Maskrey (bem9@students.pti.edu)
  * 
- * @version 2.2.0
+ * @version 2.19.0
  */
 public class HomeworkManager extends FragmentActivity implements IDateEdit
 {
@@ -86,16 +98,166 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
 	
 	
 	/**
-	 * The main instance of the database manipulator.
+	 * The main instance of the database manipulator.  All database work is run through it
+	 * on a background thread.
 	 */
-	private HomeworkDataSource dataSource;
+	private HomeworkRepository repository;
 	
 	
 	/**
-	 * A temporary list of homework that may be edited and manipulated in
-	 * place of the values stored in the database.
+	 * Keeps the {@linkplain #searchIndex search index} and the homework list up to date with every change saved 
+	 * through the {@link #repository}, and recounts the {@linkplain #refreshDueCounts() due homework} while the activity
+	 * is in the foreground.  The {@link HomeworkListAdapter} is {@linkplain HomeworkListAdapter#applyChanges(List) 
+	 * patched in place} where it can be; otherwise the list is {@linkplain #refreshHomeworkList() refreshed}, keeping its filter.  A search
+	 * is run again on the updated index when the list is refreshed, so that changed homework enters or leaves the results.
+	 * While the activity is paused, a list that can not be patched is only {@linkplain #listStale marked stale}, and is
+	 * refreshed once the activity resumes.
 	 */
-	private List<Homework> hwlist = new ArrayList<Homework>();
+	private final IHomeworkObserver listObserver = new IHomeworkObserver() 
+	{
+		@Override
+		public void onHomeworkChanged(List<HomeworkChange> changes) 
+		{
+			if(HomeworkManager.this.searchIndex != null) 
+			{
+				HomeworkManager.this.searchIndex.applyChanges(changes);
+			}
+			
+			if(HomeworkManager.this.resumed) HomeworkManager.this.refreshDueCounts();
+			
+			ListView list = (ListView) HomeworkManager.this.findViewById(R.id.fragment_main_listlayout);
+			
+			if(list == null) return;
+			
+			if(!(list.getAdapter() instanceof HomeworkListAdapter) || 
+					!((HomeworkListAdapter) list.getAdapter()).applyChanges(changes)) 
+			{
+				if(HomeworkManager.this.resumed) HomeworkManager.this.refreshHomeworkList();
+				else HomeworkManager.this.listStale = true;
+			}
+		}
+	};
+	
+	
+	/**
+	 * Tells the user if new homework could not be saved.  Saved homework needs no handling here: it is added to
+	 * the list by the {@linkplain #listObserver change feed}.
+	 */
+	private final IHomeworkCallback<Homework> creationCallback = new IHomeworkCallback<Homework>() 
+	{
+		@Override
+		public void onResult(Homework result) 
+		{
+			//The list is updated by the change feed.
+		}
+		
+		@Override
+		public void onError(Exception error) 
+		{
+			Toast.makeText(HomeworkManager.this, R.string.toast_message_hcreate_failure, Toast.LENGTH_LONG).show();
+		}
+	};
+	
+	
+	/**
+	 * Redraws the homework list when the day changes while the activity is in the foreground, so that
+	 * homework which just became due or overdue is colored and sectioned accordingly, and 
+	 * {@linkplain #refreshDueCounts() recounts} it.
+	 */
+	private final IDayChangeListener dayListener = new IDayChangeListener() 
+	{
+		@Override
+		public void onDayChanged(int today) 
+		{
+			ListView list = (ListView) HomeworkManager.this.findViewById(R.id.fragment_main_listlayout);
+			
+			if(list != null && list.getAdapter() instanceof BaseAdapter) 
+			{
+				((BaseAdapter) list.getAdapter()).notifyDataSetChanged();
+			}
+			
+			HomeworkManager.this.refreshDueCounts();
+		}
+	};
+	
+	
+	/**
+	 * The criteria the displayed homework list is temporarily filtered by, such as a search or
+	 * a due date filter.  This is {@code null} while the full list is displayed.
+	 */
+	private HomeworkCriteria listCriteria = null;
+	
+	
+	/**
+	 * The key phrase the displayed homework list is searched for, or {@code null} if it is not a search.
+	 */
+	private String listSearch = null;
+	
+	
+	/**
+	 * Whether the displayed homework list is filtered to the homework due from {@link #listDueFrom} until 
+	 * {@link #listDueTo}.
+	 */
+	private boolean listByDue = false;
+	
+	
+	/**
+	 * The first {@linkplain EpochDay epoch day} the homework list is filtered to, if it is {@linkplain #listByDue 
+	 * filtered by due date}.
+	 */
+	private int listDueFrom = 0;
+	
+	
+	/**
+	 * The first {@linkplain EpochDay epoch day} after the days the homework list is filtered to, if it is
+	 * {@linkplain #listByDue filtered by due date}.
+	 */
+	private int listDueTo = 0;
+	
+	
+	/**
+	 * The in-memory index that searches are answered from.  It is built in the background when the activity 
+	 * is created, and is {@code null} until then.
+	 */
+	private HomeworkSearchIndex searchIndex = null;
+	
+	
+	/**
+	 * Whether the activity is in the foreground, between {@link #onResume()} and {@link #onPause()}.
+	 */
+	private boolean resumed = false;
+	
+	
+	/**
+	 * Whether the displayed homework list is out of date and must be listed again when the activity resumes, 
+	 * because a change could not be applied to it, or its listing was cancelled, while the activity was paused.
+	 */
+	private boolean listStale = false;
+	
+	
+	/**
+	 * Whether a {@linkplain HomeworkRepository#queryList(HomeworkCriteria, HomeworkSort, boolean, IHomeworkCallback) 
+	 * listing} of the homework list is still running in the background.
+	 */
+	private boolean listLoading = false;
+	
+	
+	/**
+	 * The {@linkplain EpochDay epoch day} the homework list was colored for when the activity was paused.
+	 */
+	private int pausedDay = 0;
+	
+	
+	/**
+	 * The key the homework list is sorted by.
+	 */
+	private HomeworkSort listSort = HomeworkSort.DUE;
+	
+	
+	/**
+	 * Whether the homework list is sorted in ascending order.
+	 */
+	private boolean listAscending = true;
 	
 	
 	/**
@@ -192,9 +354,12 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
     
 	/**
 	 * Creates a new {@code HomeworkManager}, sets up the main content view, hooks a new 
-	 *     {@link ScreenSlidePagerAdapter} to the main pager, opens up the {@linkplain #dataSource data source},
-	 *     populates the {@linkplain #hwlist temporary homework list}, and, lastly, sets the 
-	 *     {@linkplain #context static context reference} to the initialized activity.
+	 *     {@link ScreenSlidePagerAdapter} to the main pager, opens up the {@linkplain #repository repository},
+	 *     and, lastly, sets the {@linkplain #context static context reference} to the initialized activity.
+	 *     If the activity is being recreated after a configuration change, the repository and search index of 
+	 *     the previous instance are {@linkplain #onRetainCustomNonConfigurationInstance() taken over} instead,
+	 *     so that the database is neither closed nor reopened.
+	 *     The homework list itself is loaded a page at a time once it is first displayed.
 	 *     
 	 * <br>This function is automatically called by the Android operating system when the activity starts, and should
 	 *     probably never be called manually in the application code.  To manually repopulate the temporary list,
@@ -217,35 +382,120 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
         this.pager.setPageTransformer(true, new ZoomPageTransformer());
         this.pager.setCurrentItem(PRIMARY_PAGE);
         
-        this.dataSource = new HomeworkDataSource(this);
-        this.dataSource.open();
-        this.hwlist = this.dataSource.getAllHomework();
+        Retained retained = (Retained) this.getLastCustomNonConfigurationInstance();
+        
+        if(retained != null) 
+        {
+        	this.repository = retained.repository;
+        	this.searchIndex = retained.searchIndex;
+        } else 
+        {
+        	this.repository = new HomeworkRepository(this);
+        	this.repository.open();
+        }
+        
+        this.repository.addObserver(this.listObserver);
+        
+        if(this.searchIndex == null) this.repository.querySearchIndex(new IHomeworkCallback<HomeworkSearchIndex>() 
+        {
+			@Override
+			public void onResult(HomeworkSearchIndex index) 
+			{
+				HomeworkManager.this.searchIndex = index;
+			}
+			
+			@Override
+			public void onError(Exception error) 
+			{
+				//Searches keep being answered by the database's full-text search table instead.
+				Log.w(CodeResource.TAG_DATABASE, "Unable to build the search index.", error);
+			}
+		});
         
         context = this;
     }
     
     
     /**
-     * Invoked whenever the application is resumed.
-     * Reopens the database if the database was closed.
+     * Invoked whenever the application is resumed.  Starts listening for day changes again, and 
+     * {@linkplain #refreshDueCounts() recounts} the due homework, which may have changed while paused.  The homework
+     * list keeps its rows while the activity is paused, and the change feed keeps patching them, so it is only 
+     * listed again if it has no rows yet or was {@linkplain #listStale marked stale} while paused.  Otherwise, 
+     * it is only redrawn, and only if the day changed while the activity was paused.
      */
     @Override
     protected void onResume() 
     {
     	super.onResume();
-    	this.dataSource.open();
+    	this.resumed = true;
+    	DueStatusClassifier.getInstance().addListener(this.dayListener);
+    	
+    	ListView list = (ListView) this.findViewById(R.id.fragment_main_listlayout);
+    	HomeworkListAdapter adapter = list != null && list.getAdapter() instanceof HomeworkListAdapter ? 
+    			(HomeworkListAdapter) list.getAdapter() : null;
+    	int today = DueStatusClassifier.getInstance().today();
+    	
+    	if(this.listStale || adapter == null || !adapter.hasRows()) 
+    	{
+    		this.refreshHomeworkList();
+    	} else if(today != this.pausedDay) 
+    	{
+    		this.dayListener.onDayChanged(today);
+    		return;
+    	}
+    	
+    	this.refreshDueCounts();
     }
     
     
     /**
      * Called when the application is suspended.
-     * Closes the database.
+     * Stops listening for day changes, and cancels the listing of the homework list if it is still running, 
+     * in which case the list is listed again when the activity resumes.  The rows already listed are kept, and 
+     * the database is left open, so that resuming does not have to reopen it.
      */
     @Override
     protected void onPause() 
     {
     	super.onPause();
-    	this.dataSource.close();
+    	this.resumed = false;
+    	this.pausedDay = DueStatusClassifier.getInstance().today();
+    	DueStatusClassifier.getInstance().removeListener(this.dayListener);
+    	
+    	if(this.listLoading) 
+    	{
+    		this.repository.cancelListQueries();
+    		this.listLoading = false;
+    		this.listStale = true;
+    	}
+    }
+    
+    
+    /**
+     * Hands the {@linkplain #repository repository} and {@linkplain #searchIndex search index} over to the 
+     * instance that replaces this one after a configuration change, such as a rotation.
+     * 
+     * @return The state the next instance takes over in {@link #onCreate(Bundle)}.
+     */
+    @Override
+    public Object onRetainCustomNonConfigurationInstance() 
+    {
+    	return new Retained(this.repository, this.searchIndex);
+    }
+    
+    
+    /**
+     * Called when the activity is destroyed.  Stops the database thread and releases the database
+     * once all pending work is done, unless the activity is only being recreated for a configuration change,
+     * in which case the {@linkplain #onRetainCustomNonConfigurationInstance() next instance} keeps using them.
+     */
+    @Override
+    protected void onDestroy() 
+    {
+    	super.onDestroy();
+    	this.repository.removeObserver(this.listObserver);
+    	
+    	if(!this.isChangingConfigurations()) this.repository.shutdown();
     }
     
     
@@ -324,6 +574,15 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
      *   <td>{@linkplain R.id#menu_actionbar_refresh Refresh Button}</td>
      *   <td>Forces a {@linkplain #resetHomeworkList() full homework list reset}.</td>
      * </tr>
+     * <tr>
+     *   <td>{@linkplain R.id#menu_menu_sort_due Sort Menu Items}</td>
+     *   <td>{@linkplain #sortHomeworkList(HomeworkSort, boolean) Sorts the homework list} by due date, assigned date,
+     *           name or class.</td>
+     * </tr>
+     * <tr>
+     *   <td>{@linkplain R.id#menu_menu_sort_descending Reverse Order Menu Item}</td>
+     *   <td>Toggles whether the homework list is sorted in descending order.</td>
+     * </tr>
      * </table>
      * 
      * @return True if the item's action was consumed by this function.
@@ -355,7 +614,6 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
     			this.submitHomeworkCreateData(null);
     		}
     		
-    		this.resetHomeworkList();
     		return true;
     		
     	case R.id.menu_actionbar_remove: // Remove Button
@@ -366,7 +624,6 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
     		{
     			this.batchRemoveHomework(null);
     		}
-    		this.resetHomeworkList();
     		return true;
     		
     	case R.id.menu_actionbar_display_on: // Display Homework Due On Date Button
@@ -382,6 +639,31 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
     	case R.id.menu_actionbar_refresh: // Refresh Button
     		this.resetHomeworkList();
     		return true;
+    		
+    	case R.id.menu_menu_sort_due: // Sort Menu Items
+    		item.setChecked(true);
+    		this.sortHomeworkList(HomeworkSort.DUE, this.listAscending);
+    		return true;
+    		
+    	case R.id.menu_menu_sort_assigned:
+    		item.setChecked(true);
+    		this.sortHomeworkList(HomeworkSort.ASSIGNED, this.listAscending);
+    		return true;
+    		
+    	case R.id.menu_menu_sort_name:
+    		item.setChecked(true);
+    		this.sortHomeworkList(HomeworkSort.NAME, this.listAscending);
+    		return true;
+    		
+    	case R.id.menu_menu_sort_class:
+    		item.setChecked(true);
+    		this.sortHomeworkList(HomeworkSort.CLASS, this.listAscending);
+    		return true;
+    		
+    	case R.id.menu_menu_sort_descending: // Reverse Order Menu Item
+    		item.setChecked(!item.isChecked());
+    		this.sortHomeworkList(this.listSort, !item.isChecked());
+    		return true;
     	
     	default:
     		return super.onOptionsItemSelected(item);
@@ -433,7 +715,7 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
     				
     				if(!name.isEmpty() && due != null && assign != null)
     				{
-    					this.dataSource.createHomework(name, due, assign, className, "", new String[]{""});
+    					this.repository.createHomework(name, due, assign, className, "", this.creationCallback, new String[]{""});
     				}
     			}
     		}
@@ -442,71 +724,165 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
     
     
     /**
-     * Iterates through the homework list and removes any homework that does not
-     * contain the key phrase. This removal is only temporary: all changes are made
-     * directly to the {@linkplain #hwlist temporary homework list} and do not
-     * persist between launches, refreshes, layout changes, or even concurrent searches.
-     * The homework list is reset prior to the search to ensure that all available
-     * homework objects are searched.
+     * Filters the homework list to only the homework that {@linkplain HomeworkSearchIndex#search(CharSequence) 
+     * matches the key phrase}, i.e. where every word of the key phrase starts a word of the homework. The matching 
+     * homework is found and sorted in memory by the {@linkplain #searchIndex search index}, without querying the
+     * database, and only the displayed rows are loaded.  The database's full-text search table is only a fallback:
+     * a search made before the index is built is {@linkplain HomeworkCriteria#searching(CharSequence) answered by it}
+     * instead, which matches the same homework.  This filtering is only temporary and does not persist between 
+     * launches, resets, or even concurrent searches.
+     * If the key phrase holds no searchable words, the full list is shown.
      * 
-     * @param keyphrase The key phrase to search for when iterating.
+     * @param keyphrase The key phrase to search for.
      */
     public void searchHomeworkList(String keyphrase)
     {
-    	this.resetHomeworkList();
-    	for(Iterator<Homework> iterhw = this.hwlist.iterator(); iterhw.hasNext();)
+    	HomeworkCriteria criteria = new HomeworkCriteria().searching(keyphrase);
+    	
+    	if(criteria.isEmpty()) 
     	{
-    		Homework hw = iterhw.next();
-    		if(!hw._keywordSearch(keyphrase)) iterhw.remove();
+    		this.resetHomeworkList();
+    		return;
     	}
+    	
+    	this.listSearch = keyphrase;
+    	this.listByDue = false;
+    	this.listCriteria = criteria;
     	this.refreshHomeworkList();
     }
     
     
     /**
-     * Empties the {@linkplain #hwlist temporary homework list} and {@linkplain HomeworkDataSource#getAllHomework() repopulates}
-     * it with the values contained in the database.  Afterwards, it {@linkplain #refreshHomeworkList() refreshes the homework list display}.<br>
+     * Discards the {@linkplain #listCriteria temporary list filter} so that the full list of homework contained in the 
+     * database is displayed again.  Afterwards, it {@linkplain #refreshHomeworkList() refreshes the homework list display}.<br>
      * 
-     * This method is best used after changing the contents of the homework database.  If all that was changed was the temporary homework
-     * list, use {@link #refreshHomeworkList()} instead.
+     * This method is best used after changing the contents of the homework database.  To reload the list without
+     * discarding the filter, use {@link #refreshHomeworkList()} instead.
      */
     public void resetHomeworkList() {
 		Log.i(CodeResource.TAG_DEBUG, "Resetting homework list...");
-		this.hwlist.clear();
-		this.hwlist = this.dataSource.getAllHomework();
+		this.listCriteria = null;
+		this.listSearch = null;
+		this.listByDue = false;
 		this.refreshHomeworkList();
     }
     
     
     /**
-     * Refreshes the {@link ListView} that is currently displaying the values contained in
-     * the {@link #hwlist temporary homework list}. The temporary list remains unchanged.<br>
+     * Changes the order of the homework list and {@linkplain #refreshHomeworkList() refreshes} it.  The
+     * rows are sorted by the database, and the filter remains unchanged.
      * 
-     * This method is best used after sorting or otherwise editing the temporary homework list.
+     * @param sort The key to sort the list by.
+     * @param ascending True to sort in ascending order, false to sort in descending order.
+     */
+    public void sortHomeworkList(HomeworkSort sort, boolean ascending) 
+    {
+    	Log.i(CodeResource.TAG_DEBUG, "Sorting homework list by " + sort + (ascending ? " ascending" : " descending"));
+    	this.listSort = sort;
+    	this.listAscending = ascending;
+    	this.refreshHomeworkList();
+    }
+    
+    
+    /**
+     * Reloads the {@link ListView} with the homework in the database that matches the 
+     * {@linkplain #listCriteria temporary list filter}, or all homework if there is no filter.
+     * The {@link HomeworkListAdapter} is given the {@linkplain HomeworkRepository#queryList(HomeworkCriteria, HomeworkSort, 
+     * boolean, IHomeworkCallback) rows} of the list, and loads the homework of the rows it displays.  The rows are 
+     * listed in the background and the list is updated once they arrive; a newer refresh replaces any that is 
+     * still pending.  The rows of a search, or of a {@linkplain #listByDue due date filter}, are listed by the 
+     * {@linkplain #searchIndex search index} right away instead, once it is built.  The filter remains unchanged.<br>
+     * 
+     * This method is best used after changing the sort or the filter of the homework list.
      * It is automatically called when the list is reset.
      */
     protected void refreshHomeworkList() {
 		Log.i(CodeResource.TAG_DEBUG, "Refreshing homework list...");
-    	HomeworkListAdapter adapt = null;
+    	ListAdapter adapt = null;
 		
 		ListView list = (ListView) this.findViewById(R.id.fragment_main_listlayout);
 		
-		if(list != null) adapt = (HomeworkListAdapter) list.getAdapter();
+		if(list != null) adapt = list.getAdapter();
 		else 
 		{
 			Log.e(CodeResource.TAG_DEBUG, "Unable to refresh homework list: List was null!");
 			return;
 		}
 		
-		if(adapt != null) {
-			adapt.clear();
-			adapt.addAll(this.hwlist);
+		if(adapt instanceof HomeworkListAdapter) {
+			final HomeworkListAdapter listAdapt = (HomeworkListAdapter) adapt;
+			
+			HomeworkListIndex found = null;
+			
+			if(this.searchIndex != null && this.listSearch != null) 
+			{
+				found = this.searchIndex.search(this.listSearch, this.listSort, this.listAscending);
+			} else if(this.searchIndex != null && this.listByDue) 
+			{
+				found = this.searchIndex.listDue(this.listDueFrom, this.listDueTo, this.listSort, this.listAscending);
+			}
+			
+			this.listStale = false;
+			
+			if(found != null) 
+			{
+				this.repository.cancelListQueries();
+				this.listLoading = false;
+				listAdapt.setRows(found);
+				return;
+			}
+			
+			this.listLoading = true;
+			this.repository.queryList(this.listCriteria, this.listSort, this.listAscending, new IHomeworkCallback<HomeworkListIndex>() 
+			{
+				@Override
+				public void onResult(HomeworkListIndex rows) 
+				{
+					HomeworkManager.this.listLoading = false;
+					listAdapt.setRows(rows);
+				}
+				
+				@Override
+				public void onError(Exception error) 
+				{
+					HomeworkManager.this.listLoading = false;
+					Toast.makeText(HomeworkManager.this, R.string.toast_message_hlist_failure, Toast.LENGTH_LONG).show();
+				}
+			});
 		} else {
 			Log.e(CodeResource.TAG_DEBUG, "Unable to refresh homework list: List adapter was null!");
 		}
     }
     
     
+    /**
+     * Shows how much homework is overdue, due today and upcoming as the subtitle of the action bar.  The
+     * homework is {@linkplain HomeworkRepository#countByDueStatus(int, IHomeworkCallback) counted} by the
+     * database in the background, without loading any of it.
+     */
+    protected void refreshDueCounts() 
+    {
+    	this.repository.countByDueStatus(DueStatusClassifier.getInstance().today(), new IHomeworkCallback<int[]>() 
+    	{
+			@Override
+			public void onResult(int[] counts) 
+			{
+				if(HomeworkManager.this.getActionBar() == null) return;
+				
+				HomeworkManager.this.getActionBar().setSubtitle(HomeworkManager.this.getString(
+						R.string.menu_actionbar_subtitle_due_counts, counts[HomeworkDataSource.STATUS_OVERDUE], 
+						counts[HomeworkDataSource.STATUS_DUE_TODAY], counts[HomeworkDataSource.STATUS_UPCOMING]));
+			}
+			
+			@Override
+			public void onError(Exception error) 
+			{
+				Log.w(CodeResource.TAG_DATABASE, "Unable to count the homework by due status.", error);
+			}
+		});
+    }
+    
+    
     /**
      * Handles all date-based button interaction.
      * 
@@ -588,15 +964,16 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
     
     
     /**
-     * Handles the removal of multiple assignments from the database "at once".  Matches
+     * Handles the removal of multiple assignments from the database at once.  Matches
      * all assignments to specific criteria as decided by the user on the removal menu.
-     * This is accomplished by iterating through a {@linkplain HomeworkDataSource#getAllHomework() list mirroring the contents of 
-     * the database}.<br>
+     * The choices are compiled into {@link HomeworkCriteria}, and every matching assignment is
+     * {@linkplain HomeworkDataSource#deleteWhere(HomeworkCriteria) deleted from the database}
+     * by a single statement, without loading any of them.  Keywords entered in the removal
+     * menu must match a whole keyword of an assignment exactly (ignoring case), as the removal
+     * menu's label tells the user, and the number of removed assignments is shown once they are gone.<br>
      * 
-     * If the assignment matches the deletion requirements, it is summarily
-     * {@linkplain HomeworkDataSource#deleteHomework(Homework) deleted from the database.}
-     * The {@linkplain #hwlist main temporary homework list} is {@linkplain #resetHomeworkList() reset}
-     * and the list view reset, and all fields in the remove menu are set back to their initial values.
+     * The removed assignments are taken out of the list by the {@linkplain #listObserver list observer} once they
+     * are deleted, and all fields in the remove menu are set back to their initial values.
      * 
      * @param view unused
      */
@@ -644,29 +1021,40 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
 	    	delRefDate = Date.valueOf(dateFormat);
     	}
     	
-    	//Iterate through the data source objects.
-    	for(Iterator<Homework> hwiter = this.dataSource.getAllHomework().iterator(); hwiter.hasNext();)
+    	//Build the removal criteria. Homework matching any chosen option is removed.
+    	HomeworkCriteria criteria = new HomeworkCriteria();
+    	
+    	if(delRefDate != null) 
     	{
-    		Homework hw = hwiter.next();
-    		boolean shouldDelete = false;
-    		
-    		Switch currentSwitch = deleteOn;
-    		if(currentSwitch.isChecked()) shouldDelete |= hw.isDueOn(delRefDate);
+    		int delRefDay = EpochDay.fromDate(delRefDate);
     		
-    		currentSwitch = deleteBefore;
-    		if(currentSwitch.isChecked()) shouldDelete |= hw.isDueBefore(delRefDate);
-    		
-    		currentSwitch = deleteAfter;
-    		if(currentSwitch.isChecked()) shouldDelete |= hw.isDueAfter(delRefDate);
-    		
-    		String keywords = keywordText.getText().toString();
-    		if(!keywords.isEmpty()) shouldDelete |= hw._keywordSearch(keywords);
-    		
-    		if(shouldDelete) this.dataSource.deleteHomework(hw);
+    		if(deleteOn.isChecked()) criteria.dueOn(delRefDay);
+    		if(deleteBefore.isChecked()) criteria.dueBefore(delRefDay);
+    		if(deleteAfter.isChecked()) criteria.dueAfter(delRefDay);
     	}
     	
-    	//Reset all fields and lists.
-    	this.resetHomeworkList();
+    	//Keywords are separated by semicolons, as they are when creating homework.
+    	String keywords = keywordText.getText().toString();
+    	if(!keywords.isEmpty()) criteria.withKeywords(keywords.split(";"));
+    	
+    	this.repository.deleteWhere(criteria, new IHomeworkCallback<Integer>() 
+    	{
+			@Override
+			public void onResult(Integer removed) 
+			{
+				Log.i(CodeResource.TAG_DEBUG, "Batch removal deleted " + removed + " assignments.");
+				Toast.makeText(HomeworkManager.this, HomeworkManager.this.getString(R.string.toast_message_hremove_success, removed), 
+						Toast.LENGTH_SHORT).show();
+			}
+			
+			@Override
+			public void onError(Exception error) 
+			{
+				Toast.makeText(HomeworkManager.this, R.string.toast_message_hremove_failure, Toast.LENGTH_LONG).show();
+			}
+		});
+    	
+    	//Reset all fields. The list is updated once the removal is done.
     	this.pager.setCurrentItem(PRIMARY_PAGE);
     	
     	dateEdit.setText("");
@@ -686,7 +1074,7 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
      * {@linkplain HomeworkDataSource#createHomework(String, Date, Date, String, String, String...) adds a new assignment}
      * to the database.<br>
      * 
-     * After creation, it {@linkplain #resetHomeworkList() resets the homework list} and refreshes the views. It also resets all
+     * The new assignment is added to the list by the {@linkplain #listObserver list observer} once it is saved. This also resets all
      * fields in the homework creation view to their default values and sets the {@linkplain #pager main pager} page to 0.
      * 
      * @param view unused
@@ -761,8 +1149,8 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
     	//Attempt to create the homework. On the occasion that something goes horribly wrong, warn the user and continue.
     	try 
     	{
-    		this.dataSource.createHomework(name, Date.valueOf(dueFormat), Date.valueOf(assignedFormat), className, subject, keysSplit);
-    		this.resetHomeworkList();
+    		this.repository.createHomework(name, Date.valueOf(dueFormat), Date.valueOf(assignedFormat), className, subject, 
+    				this.creationCallback, keysSplit);
     	} catch(IllegalFormatException exc) 
     	{
     		exc.printStackTrace();
@@ -779,14 +1167,46 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
     }
     
     
+    /**
+     * Gets the classes of the saved homework to suggest while new homework is entered, from the 
+     * {@linkplain HomeworkTable#countByClass() class counts} of the {@linkplain #searchIndex search index}.
+     * 
+     * @return The classes, most used first, or none until the search index is built.
+     */
+    public String[] getClassSuggestions()
+    {
+    	if(this.searchIndex == null) return new String[0];
+    	
+    	HomeworkTable table = this.searchIndex.getTable();
+    	
+    	return table.decodeByCount(table.countByClass());
+    }
+    
+    
+    /**
+     * Gets the subjects of the saved homework to suggest while new homework is entered, from the 
+     * {@linkplain HomeworkTable#countBySubject() subject counts} of the {@linkplain #searchIndex search index}.
+     * 
+     * @return The subjects, most used first, or none until the search index is built.
+     */
+    public String[] getSubjectSuggestions()
+    {
+    	if(this.searchIndex == null) return new String[0];
+    	
+    	HomeworkTable table = this.searchIndex.getTable();
+    	
+    	return table.decodeByCount(table.countBySubject());
+    }
+    
+    
     /**
      * Obtains the database manipulator.
      * 
-     * @return The {@linkplain main database manipulator}.
+     * @return The {@linkplain #repository main database manipulator}.
      */
-    public HomeworkDataSource getDataSource()
+    public HomeworkRepository getRepository()
     {
-    	return this.dataSource;
+    	return this.repository;
     }
     
     
@@ -844,16 +1264,19 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
 		{
 		case EXECUTE_DUE_ON:
 		case EXECUTE_DUE_BEFORE:
-			this.resetHomeworkList();
+			int referenceDay = EpochDay.fromDate(this.referenceDate);
 			
-			for(Iterator<Homework> hwiter = this.hwlist.iterator(); hwiter.hasNext();)
-			{
-				Homework hw = hwiter.next();
-				if(!(this.executionBit == EXECUTE_DUE_BEFORE ? hw.isDueOnBefore(this.referenceDate) : hw.isDueOn(this.referenceDate)))
-				{
-					hwiter.remove();
-				}
-			}
+			//The due dates are scanned in memory once the search index is built; the criteria only list
+			//the same homework from the database until then.
+			this.listSearch = null;
+			this.listByDue = true;
+			this.listDueFrom = this.executionBit == EXECUTE_DUE_BEFORE ? Integer.MIN_VALUE : referenceDay;
+			this.listDueTo = referenceDay + 1;
+			this.listCriteria = this.executionBit == EXECUTE_DUE_BEFORE ? 
+					new HomeworkCriteria().dueOnOrBefore(referenceDay) : 
+					new HomeworkCriteria().dueOn(referenceDay);
+			
+			this.refreshHomeworkList();
 			break;
 			
 		case EXECUTE_HCREATE_DUE:
@@ -875,15 +1298,49 @@ public class HomeworkManager extends FragmentActivity implements IDateEdit
 			break;
 		}
 		
-		this.refreshHomeworkList();
 		this.referenceDate = null;
 	}
     
 	
 	
+	/**
+	 * The state a {@code HomeworkManager} hands over to the instance that replaces it after a configuration change.
+	 * 
+	 * @author Bridger Maskrey (bem9@students.pti.edu)
+	 * 
+	 * @version 1.0.0
+	 */
+    private static final class Retained 
+    {
+    	/**
+    	 * The open repository.
+    	 */
+    	private final HomeworkRepository repository;
+    	
+    	
+    	/**
+    	 * The search index, or {@code null} if it was not built yet.
+    	 */
+    	private final HomeworkSearchIndex searchIndex;
+    	
+    	
+    	/**
+    	 * Constructs a new {@code Retained}.
+    	 * 
+    	 * @param repository The open repository.
+    	 * @param searchIndex The search index, or {@code null} if it was not built yet.
+    	 */
+    	private Retained(HomeworkRepository repository, HomeworkSearchIndex searchIndex) 
+    	{
+    		this.repository = repository;
+    		this.searchIndex = searchIndex;
+    	}
+    }
+    
+    
 	/**
 	 * Controls the functionality of the {@linkplain HomeworkManager#pager main view pager}.
-	 * Also updates the {@linkplain HomeworkManager#hwlist homework list} when the view pager finishes
+	 * Also updates the {@linkplain HomeworkManager#refreshHomeworkList() homework list} when the view pager finishes
 	 * updating its state. This also is fired initially on app launch for an initial population of the
 	 * list.
 	 * 
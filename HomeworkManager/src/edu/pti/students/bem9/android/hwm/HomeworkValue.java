@@ -0,0 +1,546 @@
+package edu.pti.students.bem9.android.hwm;
+
+import java.util.Arrays;
+
+import edu.pti.students.bem9.android.hwm.util.EpochDay;
+
+/**
+ * Compact, immutable representation of a homework, for holding large numbers of homework in memory
+ * (e.g. to search through them).<br>
+ *
+ * Unlike {@link Homework}, a {@code HomeworkValue} has no lock, no dirty field tracking and no
+ * keyword {@link java.util.Vector Vector}: it holds the UID as a {@code long}, both dates as
+ * {@linkplain EpochDay epoch days}, its text fields as {@code String}s and its keywords as one
+ * exactly sized {@code String} array.  Since nothing about it can change, it can be read from any
+ * thread without synchronization.  Edits are made by {@linkplain #buildUpon() building} a new value.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.3.0
+ */
+public final class HomeworkValue
+{
+	/**
+	 * The keywords of a value without keywords.  It is shared, since it can not be changed.
+	 */
+	private static final String[] _noKeywords = new String[0];
+
+
+	/**
+	 * The UID of the homework, or -1 if it has not been saved.
+	 */
+	private final long uid;
+
+
+	/**
+	 * The {@linkplain EpochDay epoch day} on which the homework is due.
+	 */
+	private final int dueDay;
+
+
+	/**
+	 * The {@linkplain EpochDay epoch day} on which the homework was assigned.
+	 */
+	private final int assignedDay;
+
+
+	/**
+	 * The name of the homework.
+	 */
+	private final String name;
+
+
+	/**
+	 * The class that assigned the homework. Can be null.
+	 */
+	private final String assigningClass;
+
+
+	/**
+	 * The subject of the homework. Can be null.
+	 */
+	private final String subject;
+
+
+	/**
+	 * The trimmed, lower case keywords of the homework, without duplicates.  The array is never
+	 * handed out, so it can not be changed.
+	 */
+	private final String[] keywords;
+
+
+	/**
+	 * Creates a new {@code HomeworkValue} from a builder.
+	 *
+	 * @param builder The builder holding the values.
+	 */
+	private HomeworkValue(Builder builder)
+	{
+		this.uid = builder.uid;
+		this.dueDay = builder.dueDay;
+		this.assignedDay = builder.assignedDay;
+		this.name = builder.name;
+		this.assigningClass = builder.assigningClass;
+		this.subject = builder.subject;
+		this.keywords = builder.keywordCount == 0 ? _noKeywords : Arrays.copyOf(builder.keywords, builder.keywordCount);
+	}
+
+
+	/**
+	 * Creates a {@code HomeworkValue} holding the current values of a {@link Homework}, including its UID.
+	 *
+	 * @param hw The homework to copy.
+	 *
+	 * @return A new {@code HomeworkValue}.
+	 */
+	public static HomeworkValue of(Homework hw)
+	{
+		Builder builder = new Builder(textOf(hw.getName()), hw.getDueDay(), hw.getAssignedDay())
+				.setUID(hw.getUID())
+				.setAssigningClass(textOf(hw.getAssigningClass()))
+				.setSubject(textOf(hw.getSubject()));
+
+		for(CharSequence keyword : hw.getKeywords().toArray(new CharSequence[0]))
+		{
+			builder.addKeyword(keyword);
+		}
+
+		return builder.build();
+	}
+
+
+	/**
+	 * Creates a new, clean {@link Homework} holding the values of this one, for code that edits or
+	 * saves homework.
+	 *
+	 * @return A new {@code Homework} with this value's UID.
+	 */
+	public Homework toHomework()
+	{
+		Homework hw = new Homework(this.name, this.dueDay, this.assignedDay, this.assigningClass, this.subject, this.keywords);
+		hw.setUID(this.uid);
+		hw.markClean();
+
+		return hw;
+	}
+
+
+	/**
+	 * Creates a builder holding the values of this one, to make an edited copy of it.
+	 *
+	 * @return A new {@code Builder}.
+	 */
+	public Builder buildUpon()
+	{
+		Builder builder = new Builder(this.name, this.dueDay, this.assignedDay)
+				.setUID(this.uid)
+				.setAssigningClass(this.assigningClass)
+				.setSubject(this.subject);
+
+		builder.keywords = this.keywords.length == 0 ? new String[4] : this.keywords.clone();
+		builder.keywordCount = this.keywords.length;
+
+		return builder;
+	}
+
+
+	/**
+	 * Gets the UID of the homework.
+	 *
+	 * @return The UID, or -1 if the homework has not been saved.
+	 */
+	public long getUID()
+	{
+		return this.uid;
+	}
+
+
+	/**
+	 * Gets the due date of the homework.
+	 *
+	 * @return The {@linkplain EpochDay epoch day} on which the homework is due.
+	 */
+	public int getDueDay()
+	{
+		return this.dueDay;
+	}
+
+
+	/**
+	 * Gets the assigned date of the homework.
+	 *
+	 * @return The {@linkplain EpochDay epoch day} on which the homework was assigned.
+	 */
+	public int getAssignedDay()
+	{
+		return this.assignedDay;
+	}
+
+
+	/**
+	 * Gets the name of the homework.
+	 *
+	 * @return The name.
+	 */
+	public String getName()
+	{
+		return this.name;
+	}
+
+
+	/**
+	 * Gets the class that assigned the homework.
+	 *
+	 * @return The class, or {@code null} if there is none.
+	 */
+	public String getAssigningClass()
+	{
+		return this.assigningClass;
+	}
+
+
+	/**
+	 * Gets the subject of the homework.
+	 *
+	 * @return The subject, or {@code null} if there is none.
+	 */
+	public String getSubject()
+	{
+		return this.subject;
+	}
+
+
+	/**
+	 * Gets the number of keywords of the homework.
+	 *
+	 * @return The number of keywords.
+	 */
+	public int getKeywordCount()
+	{
+		return this.keywords.length;
+	}
+
+
+	/**
+	 * Gets one keyword of the homework.
+	 *
+	 * @param index The index of the keyword, from 0 to {@link #getKeywordCount()} - 1.
+	 *
+	 * @return The trimmed, lower case keyword.
+	 */
+	public String getKeyword(int index)
+	{
+		return this.keywords[index];
+	}
+
+
+	/**
+	 * Gets a copy of the keywords of the homework.
+	 *
+	 * @return A new array of the trimmed, lower case keywords.
+	 */
+	public String[] getKeywords()
+	{
+		return this.keywords.clone();
+	}
+
+
+	/**
+	 * Checks if another value holds the same UID and values as this one.
+	 *
+	 * @param compare Another object to compare this {@code HomeworkValue} to.
+	 *
+	 * @return True if the other object is a {@code HomeworkValue} equal to this one in every field.
+	 */
+	@Override
+	public boolean equals(Object compare)
+	{
+		if(compare == this) return true;
+		if(!(compare instanceof HomeworkValue)) return false;
+
+		HomeworkValue other = (HomeworkValue) compare;
+
+		return this.uid == other.uid && this.dueDay == other.dueDay && this.assignedDay == other.assignedDay &&
+				this.name.equals(other.name) && sameText(this.assigningClass, other.assigningClass) &&
+				sameText(this.subject, other.subject) && Arrays.equals(this.keywords, other.keywords);
+	}
+
+
+	/**
+	 * Computes a hash code from the UID and the dates, which is consistent with {@link #equals(Object)}.
+	 *
+	 * @return The hash code.
+	 */
+	@Override
+	public int hashCode()
+	{
+		return ((int) (this.uid ^ (this.uid >>> 32)) * 31 + this.dueDay) * 31 + this.assignedDay;
+	}
+
+
+	/**
+	 * Describes this value for logging.
+	 *
+	 * @return The UID, name and due date of the homework.
+	 */
+	@Override
+	public String toString()
+	{
+		return this.uid + ": " + this.name + " (due " + EpochDay.toString(this.dueDay) + ")";
+	}
+
+
+	/**
+	 * Compares two strings.  Either may be {@code null}.
+	 *
+	 * @param a The first string.
+	 * @param b The second string.
+	 *
+	 * @return True if both are {@code null} or both hold the same characters.
+	 */
+	private static boolean sameText(String a, String b)
+	{
+		return a == null ? b == null : a.equals(b);
+	}
+
+
+	/**
+	 * Converts a char sequence to a string.
+	 *
+	 * @param text The char sequence. May be {@code null}.
+	 *
+	 * @return The string, or {@code null} if the char sequence is {@code null}.
+	 */
+	private static String textOf(CharSequence text)
+	{
+		return text == null ? null : text.toString();
+	}
+
+
+	/**
+	 * Collects the values of a new {@link HomeworkValue}.  A builder is not thread-safe, and may
+	 * build any number of values.
+	 *
+	 * @author Bridger Maskrey (bem9@students.pti.edu)
+	 *
+	 * @version 1.0.0
+	 */
+	public static final class Builder
+	{
+		/**
+		 * The UID of the homework.
+		 */
+		private long uid = -1;
+
+
+		/**
+		 * The epoch day on which the homework is due.
+		 */
+		private int dueDay;
+
+
+		/**
+		 * The epoch day on which the homework was assigned.
+		 */
+		private int assignedDay;
+
+
+		/**
+		 * The name of the homework.
+		 */
+		private String name;
+
+
+		/**
+		 * The class that assigned the homework.
+		 */
+		private String assigningClass = null;
+
+
+		/**
+		 * The subject of the homework.
+		 */
+		private String subject = null;
+
+
+		/**
+		 * The keywords added so far, in the first {@link #keywordCount} slots.
+		 */
+		private String[] keywords = new String[4];
+
+
+		/**
+		 * The number of keywords added so far.
+		 */
+		private int keywordCount = 0;
+
+
+		/**
+		 * Creates a new {@code Builder} for unsaved homework without class, subject or keywords.
+		 *
+		 * @param name The name of the homework.
+		 * @param dueDay The {@linkplain EpochDay epoch day} on which the homework is due.
+		 * @param assignedDay The {@linkplain EpochDay epoch day} on which the homework was assigned.
+		 */
+		public Builder(String name, int dueDay, int assignedDay)
+		{
+			this.setName(name);
+			this.dueDay = dueDay;
+			this.assignedDay = assignedDay;
+		}
+
+
+		/**
+		 * Sets the UID of the homework.
+		 *
+		 * @param uid The UID, or -1 if the homework has not been saved.
+		 *
+		 * @return This {@code Builder}.
+		 */
+		public Builder setUID(long uid)
+		{
+			this.uid = uid;
+			return this;
+		}
+
+
+		/**
+		 * Sets the name of the homework.
+		 *
+		 * @param name The name.
+		 *
+		 * @return This {@code Builder}.
+		 *
+		 * @throws IllegalArgumentException Thrown if the name is {@code null}.
+		 */
+		public Builder setName(String name)
+		{
+			if(name == null) throw new IllegalArgumentException("Homework must have a name.");
+
+			this.name = name;
+			return this;
+		}
+
+
+		/**
+		 * Sets the due date of the homework.
+		 *
+		 * @param dueDay The {@linkplain EpochDay epoch day} on which the homework is due.
+		 *
+		 * @return This {@code Builder}.
+		 */
+		public Builder setDueDay(int dueDay)
+		{
+			this.dueDay = dueDay;
+			return this;
+		}
+
+
+		/**
+		 * Sets the assigned date of the homework.
+		 *
+		 * @param assignedDay The {@linkplain EpochDay epoch day} on which the homework was assigned.
+		 *
+		 * @return This {@code Builder}.
+		 */
+		public Builder setAssignedDay(int assignedDay)
+		{
+			this.assignedDay = assignedDay;
+			return this;
+		}
+
+
+		/**
+		 * Sets the class that assigned the homework.
+		 *
+		 * @param assigningClass The class, or {@code null} for none.
+		 *
+		 * @return This {@code Builder}.
+		 */
+		public Builder setAssigningClass(String assigningClass)
+		{
+			this.assigningClass = assigningClass;
+			return this;
+		}
+
+
+		/**
+		 * Sets the subject of the homework.
+		 *
+		 * @param subject The subject, or {@code null} for none.
+		 *
+		 * @return This {@code Builder}.
+		 */
+		public Builder setSubject(String subject)
+		{
+			this.subject = subject;
+			return this;
+		}
+
+
+		/**
+		 * Adds a keyword to the homework.  Keywords are trimmed and lowercased, just as
+		 * {@link Homework#addKeyword(CharSequence...)} does, and blank or repeated keywords are ignored.
+		 *
+		 * @param keyword The keyword to add.
+		 *
+		 * @return This {@code Builder}.
+		 */
+		public Builder addKeyword(CharSequence keyword)
+		{
+			String key = keyword.toString().trim().toLowerCase();
+
+			return key.isEmpty() ? this : this.addNormalizedKeyword(key);
+		}
+
+
+		/**
+		 * Adds a keyword that is already trimmed and lower case, such as one read from the database, without
+		 * normalizing it again.  The instance supplied is kept, so interned keywords stay shared.  Repeated
+		 * keywords are ignored.
+		 *
+		 * @param keyword The normalized keyword.
+		 *
+		 * @return This {@code Builder}.
+		 */
+		public Builder addNormalizedKeyword(String keyword)
+		{
+			for(int i = 0; i < this.keywordCount; i++)
+			{
+				if(this.keywords[i].equals(keyword)) return this;
+			}
+
+			if(this.keywordCount == this.keywords.length)
+			{
+				this.keywords = Arrays.copyOf(this.keywords, this.keywords.length * 2);
+			}
+
+			this.keywords[this.keywordCount++] = keyword;
+			return this;
+		}
+
+
+		/**
+		 * Removes every keyword from the homework.
+		 *
+		 * @return This {@code Builder}.
+		 */
+		public Builder clearKeywords()
+		{
+			Arrays.fill(this.keywords, 0, this.keywordCount, null);
+			this.keywordCount = 0;
+			return this;
+		}
+
+
+		/**
+		 * Builds a new value from the values set so far.
+		 *
+		 * @return A new {@code HomeworkValue}.
+		 */
+		public HomeworkValue build()
+		{
+			return new HomeworkValue(this);
+		}
+	}
+}
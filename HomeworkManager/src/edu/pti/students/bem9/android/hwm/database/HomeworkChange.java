@@ -0,0 +1,183 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import edu.pti.students.bem9.android.hwm.Homework;
+import edu.pti.students.bem9.android.hwm.HomeworkValue;
+
+/**
+ * A single change to the saved homework, as reported to every {@link IHomeworkObserver} by the
+ * {@link HomeworkDataSource} that made it.  Each change names the {@linkplain Homework#getUID() UID}
+ * of the homework it affects, so a displayed list can be patched in place instead of reloaded.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.1.0
+ */
+public final class HomeworkChange
+{
+	/**
+	 * The kinds of change.
+	 *
+	 * @author Bridger Maskrey (bem9@students.pti.edu)
+	 *
+	 * @version 1.0.0
+	 */
+	public enum Type
+	{
+		/**
+		 * A new homework was saved.
+		 */
+		INSERT,
+
+		/**
+		 * Fields of a saved homework were changed.
+		 */
+		UPDATE,
+
+		/**
+		 * A saved homework was removed.
+		 */
+		DELETE
+	}
+
+
+	/**
+	 * The {@code FIELD_} flags of every field of a {@link Homework}, which are all changed by an insert or removal.
+	 */
+	static final int _ALL_FIELDS = Homework.FIELD_NAME | Homework.FIELD_DUE | Homework.FIELD_ASSIGNED |
+			Homework.FIELD_CLASS | Homework.FIELD_SUBJECT | Homework.FIELD_KEYWORDS;
+
+
+	/**
+	 * The kind of this change.
+	 */
+	private final Type type;
+
+
+	/**
+	 * The UID of the affected homework.
+	 */
+	private final long uid;
+
+
+	/**
+	 * The affected homework, or {@code null} if it is not known.
+	 */
+	private final Homework homework;
+
+
+	/**
+	 * The values of the homework before an update, or {@code null} if they are not known.
+	 */
+	private final HomeworkValue previous;
+
+
+	/**
+	 * The {@code FIELD_} flags of the fields that were changed.
+	 */
+	private final int fields;
+
+
+	/**
+	 * Creates a new {@code HomeworkChange}.
+	 *
+	 * @param type The kind of change.
+	 * @param uid The UID of the affected homework.
+	 * @param homework The affected homework, or {@code null} if it is not known.
+	 * @param fields The {@code FIELD_} flags of the changed fields.
+	 */
+	HomeworkChange(Type type, long uid, Homework homework, int fields)
+	{
+		this(type, uid, homework, null, fields);
+	}
+
+
+	/**
+	 * Creates a new {@code HomeworkChange} that knows the values of the homework before the change.
+	 *
+	 * @param type The kind of change.
+	 * @param uid The UID of the affected homework.
+	 * @param homework The affected homework, or {@code null} if it is not known.
+	 * @param previous The values of the homework before the change, or {@code null} if they are not known.
+	 * @param fields The {@code FIELD_} flags of the changed fields.
+	 */
+	HomeworkChange(Type type, long uid, Homework homework, HomeworkValue previous, int fields)
+	{
+		this.type = type;
+		this.uid = uid;
+		this.homework = homework;
+		this.previous = previous;
+		this.fields = fields;
+	}
+
+
+	/**
+	 * Gets the kind of this change.
+	 *
+	 * @return The type of the change.
+	 */
+	public Type getType()
+	{
+		return this.type;
+	}
+
+
+	/**
+	 * Gets the UID of the homework this change affects.
+	 *
+	 * @return The UID of the affected homework.
+	 */
+	public long getUID()
+	{
+		return this.uid;
+	}
+
+
+	/**
+	 * Gets the affected homework, holding its values after the change.  For inserts and updates this is
+	 * the saved homework.  For removals it is the removed homework: the one passed to
+	 * {@link HomeworkDataSource#deleteHomework(Homework)}, or, for homework removed by
+	 * {@linkplain HomeworkDataSource#deleteWhere(HomeworkCriteria) criteria}, the cached homework with
+	 * its UID if there is one, and otherwise the homework as it was loaded just before it was removed.
+	 *
+	 * @return The affected homework.
+	 */
+	public Homework getHomework()
+	{
+		return this.homework;
+	}
+
+
+	/**
+	 * Gets the values the homework held before an update, as they were stored in the database, so that a
+	 * displayed list can find the row of the homework by its old sort key.
+	 *
+	 * @return The previous values, or {@code null} if they are not known or this change is not an update.
+	 */
+	public HomeworkValue getPrevious()
+	{
+		return this.previous;
+	}
+
+
+	/**
+	 * Gets the fields that were changed.  Inserts and removals change every field.
+	 *
+	 * @return A bit set of the {@code FIELD_} flags of {@link Homework} for every changed field.
+	 */
+	public int getFields()
+	{
+		return this.fields;
+	}
+
+
+	/**
+	 * Describes this change for logging.
+	 *
+	 * @return The type and UID of the change.
+	 */
+	@Override
+	public String toString()
+	{
+		return this.type + " " + this.uid;
+	}
+}
@@ -0,0 +1,260 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_DUE;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_ID;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_KEYWORD;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_KEYWORD_HOMEWORK;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._KEYWORD_TABLE_NAME;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._SEARCH_TABLE_NAME;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A set of conditions that select {@link edu.pti.students.bem9.android.hwm.Homework Homework}
+ * rows in the database, compiled into an SQL {@code WHERE} clause with bound arguments.  A row
+ * matches the criteria if it matches <i>any</i> one of the conditions, which mirrors the way the
+ * removal view combines its switches and keywords.  Criteria with no conditions match nothing.<br>
+ *
+ * Conditions are added by chaining calls, e.g.
+ * {@code new HomeworkCriteria().dueBefore(today).withKeywords("essay")}.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.7.1
+ */
+public class HomeworkCriteria
+{
+	/**
+	 * Condition matching homework whose {@linkplain HomeworkSQLiteHelper#_SEARCH_TABLE_NAME search table}
+	 * row matches the bound full-text query.
+	 */
+	private static final String _SEARCH_MATCH = _COL_ID + " IN (SELECT docid FROM " + _SEARCH_TABLE_NAME +
+			" WHERE " + _SEARCH_TABLE_NAME + " MATCH ?)";
+
+
+	/**
+	 * Start of the condition matching homework with any of a list of exact keywords.  The
+	 * placeholders and closing parentheses are appended by {@link #withKeywords(CharSequence...)}.
+	 */
+	private static final String _KEYWORD_IN = _COL_ID + " IN (SELECT " + _COL_KEYWORD_HOMEWORK +
+			" FROM " + _KEYWORD_TABLE_NAME + " WHERE " + _COL_KEYWORD + " IN (";
+
+
+	/**
+	 * The conditions, each one a complete SQL expression.
+	 */
+	private final List<String> conditions = new ArrayList<String>();
+
+
+	/**
+	 * The arguments bound to the {@code ?} placeholders of the conditions, in order.
+	 */
+	private final List<String> args = new ArrayList<String>();
+
+
+	/**
+	 * Instantiates a new {@code HomeworkCriteria} with no conditions.
+	 */
+	public HomeworkCriteria() { }
+
+
+	/**
+	 * Adds a condition matching homework that is due on the given day.
+	 *
+	 * @param day The {@linkplain edu.pti.students.bem9.android.hwm.util.EpochDay epoch day} to compare against.
+	 *
+	 * @return This {@code HomeworkCriteria}.
+	 */
+	public HomeworkCriteria dueOn(int day)
+	{
+		return this.addCondition(_COL_DUE + " = ?", String.valueOf(day));
+	}
+
+
+	/**
+	 * Adds a condition matching homework that is due before the given day.
+	 *
+	 * @param day The {@linkplain edu.pti.students.bem9.android.hwm.util.EpochDay epoch day} to compare against.
+	 *
+	 * @return This {@code HomeworkCriteria}.
+	 */
+	public HomeworkCriteria dueBefore(int day)
+	{
+		return this.addCondition(_COL_DUE + " < ?", String.valueOf(day));
+	}
+
+
+	/**
+	 * Adds a condition matching homework that is due on or before the given day.
+	 *
+	 * @param day The {@linkplain edu.pti.students.bem9.android.hwm.util.EpochDay epoch day} to compare against.
+	 *
+	 * @return This {@code HomeworkCriteria}.
+	 */
+	public HomeworkCriteria dueOnOrBefore(int day)
+	{
+		return this.addCondition(_COL_DUE + " <= ?", String.valueOf(day));
+	}
+
+
+	/**
+	 * Adds a condition matching homework that is due after the given day.
+	 *
+	 * @param day The {@linkplain edu.pti.students.bem9.android.hwm.util.EpochDay epoch day} to compare against.
+	 *
+	 * @return This {@code HomeworkCriteria}.
+	 */
+	public HomeworkCriteria dueAfter(int day)
+	{
+		return this.addCondition(_COL_DUE + " > ?", String.valueOf(day));
+	}
+
+
+	/**
+	 * Adds a condition matching homework with a given due status relative to a day, classified exactly as
+	 * {@link edu.pti.students.bem9.android.hwm.util.DueStatusClassifier DueStatusClassifier} classifies it.
+	 *
+	 * @param status {@link HomeworkDataSource#STATUS_OVERDUE}, {@link HomeworkDataSource#STATUS_DUE_TODAY}
+	 *     or {@link HomeworkDataSource#STATUS_UPCOMING}.
+	 * @param day The {@linkplain edu.pti.students.bem9.android.hwm.util.EpochDay epoch day} to treat as today.
+	 *
+	 * @return This {@code HomeworkCriteria}.
+	 *
+	 * @throws IllegalArgumentException Thrown if the status is not one of the {@code STATUS_} constants.
+	 */
+	public HomeworkCriteria withDueStatus(int status, int day)
+	{
+		switch(status)
+		{
+		case HomeworkDataSource.STATUS_OVERDUE:
+			return this.dueBefore(day);
+
+		case HomeworkDataSource.STATUS_DUE_TODAY:
+			return this.dueOn(day);
+
+		case HomeworkDataSource.STATUS_UPCOMING:
+			return this.dueAfter(day);
+
+		default:
+			throw new IllegalArgumentException("Unknown due status: " + status);
+		}
+	}
+
+
+	/**
+	 * Adds a condition matching homework where, for every search term, some word of the name, class, subject,
+	 * dates or keywords starts with the term, ignoring the case of ASCII letters, so each term typed narrows
+	 * the search.  The search is answered by the full-text {@linkplain HomeworkSQLiteHelper#_SEARCH_TABLE_NAME
+	 * search table}, so it does not slow down as more homework is saved.  Terms are separated by any character
+	 * other than a letter or digit, and are {@linkplain HomeworkTokens#foldCase(String) folded} as the
+	 * search table folds them, which also keeps words such as {@code OR} from being read as query operators.
+	 *
+	 * @param query The search terms, as typed by the user.
+	 *
+	 * @return This {@code HomeworkCriteria}.
+	 */
+	public HomeworkCriteria searching(CharSequence query)
+	{
+		StringBuilder match = new StringBuilder();
+
+		for(String term : HomeworkTokens.split(query.toString()))
+		{
+			if(match.length() > 0) match.append(' ');
+			match.append(term).append('*');
+		}
+
+		if(match.length() > 0) this.addCondition(_SEARCH_MATCH, match.toString());
+
+		return this;
+	}
+
+
+	/**
+	 * Adds a condition matching homework tagged with any of the given keywords.  Keywords
+	 * must match a whole keyword exactly (ignoring case and surrounding whitespace), so the
+	 * lookup is answered by the keyword index.  Blank keywords are ignored.
+	 *
+	 * @param keywords The keywords to look for.
+	 *
+	 * @return This {@code HomeworkCriteria}.
+	 */
+	public HomeworkCriteria withKeywords(CharSequence... keywords)
+	{
+		StringBuilder condition = new StringBuilder(_KEYWORD_IN);
+		int count = 0;
+
+		for(CharSequence keyword : keywords)
+		{
+			String normalized = keyword.toString().trim().toLowerCase();
+
+			if(normalized.isEmpty()) continue;
+
+			condition.append(count++ > 0 ? ", ?" : "?");
+			this.args.add(normalized);
+		}
+
+		if(count > 0) this.conditions.add(condition.append("))").toString());
+
+		return this;
+	}
+
+
+	/**
+	 * Checks if these criteria have no conditions, and so match nothing.
+	 *
+	 * @return True if no condition has been added.
+	 */
+	public boolean isEmpty()
+	{
+		return this.conditions.isEmpty();
+	}
+
+
+	/**
+	 * Builds the SQL {@code WHERE} clause (without the {@code WHERE} keyword) for these criteria.
+	 *
+	 * @return The selection, or {@code "0"} if there are no conditions.
+	 */
+	String getSelection()
+	{
+		if(this.isEmpty()) return "0";
+
+		StringBuilder selection = new StringBuilder();
+
+		for(int i = 0; i < this.conditions.size(); i++)
+		{
+			if(i > 0) selection.append(" OR ");
+			selection.append('(').append(this.conditions.get(i)).append(')');
+		}
+
+		return selection.toString();
+	}
+
+
+	/**
+	 * Gets the arguments to bind to the {@linkplain #getSelection() selection}.
+	 *
+	 * @return The selection arguments, in placeholder order.
+	 */
+	String[] getSelectionArgs()
+	{
+		return this.args.toArray(new String[this.args.size()]);
+	}
+
+
+	/**
+	 * Adds a single condition with a single bound argument.
+	 *
+	 * @param condition The SQL expression of the condition.
+	 * @param arg The argument to bind to the expression's placeholder.
+	 *
+	 * @return This {@code HomeworkCriteria}.
+	 */
+	private HomeworkCriteria addCondition(String condition, String arg)
+	{
+		this.conditions.add(condition);
+		this.args.add(arg);
+		return this;
+	}
+}
@@ -4,75 +4,192 @@ import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._C
 import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_CLASS;
 import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_DUE;
 import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_ID;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_KEYWORD;
 import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_KEYWORDS;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_KEYWORD_HOMEWORK;
 import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_NAME;
 import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_SUBJECT;
 import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._DELIM;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._KEYWORD_TABLE_NAME;
 import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._TABLE_NAME;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._VIEW_NAME;
 
 import java.sql.Date;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
+import android.util.LruCache;
 import edu.pti.students.bem9.android.hwm.CodeResource;
 import edu.pti.students.bem9.android.hwm.Homework;
+import edu.pti.students.bem9.android.hwm.HomeworkValue;
+import edu.pti.students.bem9.android.hwm.util.EpochDay;
+import edu.pti.students.bem9.android.hwm.util.StringDictionary;
 
 /**
  * Datasource class used to allow access to the SQL database.  Sets up all
  * of the database properties, handles opening and closing the database,
  * and supplies multiple methods for adding {@link Homework} objects to the
  * database, removing saved {@code Homework} objects from the database, and
- * creating new instances of {@code Homework} from the database.
+ * creating new instances of {@code Homework} from the database.<br>
+ * 
+ * Every change is reported to the registered {@linkplain #addObserver(IHomeworkObserver) observers} 
+ * as a list of {@link HomeworkChange}s once it has been saved.  A data source is not thread-safe: the
+ * {@link HomeworkRepository} that owns it runs all of its work on a single background thread.
  * 
  * @author Bridger Maskrey (bem9@students.pti.edu)
  * @author Based off of work by Lars Vogel.
  * 
- * @version 1.0.2
+ * @version 1.19.0
  */
 public class HomeworkDataSource {
 
+	/**
+	 * Index of the number of overdue homework in the array returned by {@link #countByDueStatus(int)}.
+	 */
+	public static final int STATUS_OVERDUE = 0;
+	
+	
+	/**
+	 * Index of the number of homework due today in the array returned by {@link #countByDueStatus(int)}.
+	 */
+	public static final int STATUS_DUE_TODAY = 1;
+	
+	
+	/**
+	 * Index of the number of upcoming homework in the array returned by {@link #countByDueStatus(int)}.
+	 */
+	public static final int STATUS_UPCOMING = 2;
+	
+	
 	/** 
-	 * The SQL database to access. 
+	 * The SQL database to access.  This is the {@linkplain HomeworkDatabase shared connection}, 
+	 * held while this data source is open.
 	 */
 	private SQLiteDatabase database = null;
 	
 	
 	/** 
-	 * The database helper to use to create and control the database. 
+	 * The context the {@linkplain HomeworkDatabase shared connection} is acquired with. 
+	 */
+	private final Context context;
+	
+	
+	/**
+	 * The maximum number of {@link Homework} objects held by the {@link #cache identity cache}.
+	 */
+	private static final int _cacheSize = 64;
+	
+	
+	/**
+	 * Identity cache of recently used {@link Homework} objects, keyed by UID.  {@link #getHWFromID(long)}
+	 * answers from it without touching the database, and returns the same object for the same UID 
+	 * while it is cached.  Every change made through this data source is written through to it: saved 
+	 * homework is cached, and removed homework is evicted.
+	 */
+	private final LruCache<Long, Homework> cache = new LruCache<Long, Homework>(_cacheSize);
+	
+	
+	/**
+	 * The observers told about every change made through this data source.  Observers may be
+	 * added and removed from any thread.
 	 */
-	private HomeworkSQLiteHelper dbHelper;
+	private final List<IHomeworkObserver> observers = new CopyOnWriteArrayList<IHomeworkObserver>();
 	
 	
 	/**
-	 * A list of all columns of the database. 
+	 * The maximum number of UIDs looked up by a single query of {@link #getHomework(long...)}.  This
+	 * keeps every query well below SQLite's limit of 999 bound parameters.
+	 */
+	private static final int _idsPerQuery = 500;
+	
+	
+	/**
+	 * A list of all columns of the {@linkplain HomeworkSQLiteHelper#_VIEW_NAME homework view}, which
+	 * all homework is read from. 
 	 */
 	private String[] cols = {_COL_ID, _COL_DUE, _COL_ASSIGNED, _COL_CLASS,
 			_COL_SUBJECT, _COL_NAME, _COL_KEYWORDS};
 	
 	
 	/**
-	 * Creates a new {@code HomeworkDatasource}.  This also instantiates a new
-	 * {@link HomeworkSQLiteHelper} to use as the main database control.  The
-	 * value of context is passed to the database helper.
+	 * SQL of the compiled statement used to insert one homework row.
+	 */
+	private static final String _SQL_INSERT = "INSERT INTO " + _TABLE_NAME + " (" + _COL_DUE + ", " + 
+			_COL_ASSIGNED + ", " + _COL_CLASS + ", " + _COL_SUBJECT + ", " + _COL_NAME + ") VALUES (?, ?, ?, ?, ?)";
+	
+	
+	/**
+	 * SQL of the compiled statement used to insert one keyword row.
+	 */
+	private static final String _SQL_INSERT_KEYWORD = "INSERT INTO " + _KEYWORD_TABLE_NAME + " (" + 
+			_COL_KEYWORD_HOMEWORK + ", " + _COL_KEYWORD + ") VALUES (?, ?)";
+	
+	
+	/**
+	 * SQL of the query used to look up one homework by its UID.  It reads the same columns as {@link #cols}.
+	 */
+	private static final String _SQL_SELECT_ID = "SELECT " + _COL_ID + ", " + _COL_DUE + ", " + _COL_ASSIGNED + ", " + 
+			_COL_CLASS + ", " + _COL_SUBJECT + ", " + _COL_NAME + ", " + _COL_KEYWORDS + " FROM " + _VIEW_NAME + 
+			" WHERE " + _COL_ID + " = ?";
+	
+	
+	/**
+	 * SQL of the compiled statement used to remove one homework row by its UID.
+	 */
+	private static final String _SQL_DELETE = "DELETE FROM " + _TABLE_NAME + " WHERE " + _COL_ID + " = ?";
+	
+	
+	/**
+	 * SQL of the compiled statement used to remove every keyword row of one homework.
+	 */
+	private static final String _SQL_DELETE_KEYWORDS = "DELETE FROM " + _KEYWORD_TABLE_NAME + " WHERE " + 
+			_COL_KEYWORD_HOMEWORK + " = ?";
+	
+	
+	/**
+	 * SQL of the query counting homework by {@linkplain #countByDueStatus(int) due status}.  The status is 
+	 * computed from the due day alone, so the query is answered from the due date index.
+	 */
+	private static final String _SQL_COUNT_STATUS = "SELECT CASE WHEN " + _COL_DUE + " < ? THEN " + STATUS_OVERDUE + 
+			" WHEN " + _COL_DUE + " = ? THEN " + STATUS_DUE_TODAY + " ELSE " + STATUS_UPCOMING + " END AS status, COUNT(*) FROM " + 
+			_TABLE_NAME + " GROUP BY status";
+	
+	
+	/**
+	 * The registry of compiled statements.  Every statement is compiled the first time it is needed 
+	 * and reused until the database is {@linkplain #close() closed}.  Like the statements themselves, it 
+	 * may only be used by the thread this data source runs on.
+	 */
+	private HomeworkStatements statements = null;
+	
+	
+	/**
+	 * Creates a new {@code HomeworkDatasource}.  The database itself is not touched until
+	 * the data source is {@linkplain #open() opened}.
 	 * 
-	 * @param context The current context, used in creating the SQLiteHelper.
+	 * @param context The current context, used to acquire the {@linkplain HomeworkDatabase shared connection}.
 	 */
 	public HomeworkDataSource(Context context) 
 	{
 		Log.i(CodeResource.TAG_DATABASE, "Initializing database...");
-		this.dbHelper = new HomeworkSQLiteHelper(context);
+		this.context = context.getApplicationContext();
 	}
 	
 	
 	/**
-	 * Opens the database for writing.  This simply gets the writable database from
-	 * the {@link #dbHelper}.
+	 * Opens the database for writing.  This acquires the {@linkplain HomeworkDatabase shared connection},
+	 * which is only actually opened if no other data source holds it.
 	 * 
 	 * @throws SQLException Thrown if the database fails to open.
 	 */
@@ -81,7 +198,8 @@ public class HomeworkDataSource {
 		if(!this.isOpen()) 
 		{
 			Log.i(CodeResource.TAG_DATABASE, "Opening database for writing!");
-			this.database = this.dbHelper.getWritableDatabase();
+			this.database = HomeworkDatabase.acquire(this.context);
+			this.statements = new HomeworkStatements(this.database);
 		} else
 		{
 			Log.w(CodeResource.TAG_DATABASE, "Warning: The database is already open!");
@@ -90,12 +208,22 @@ public class HomeworkDataSource {
 	
 	
 	/**
-	 * Closes any open databases.
+	 * Closes this data source and releases its hold on the {@linkplain HomeworkDatabase shared connection}.
+	 * The connection itself is only closed once no other data source holds it.
 	 */
 	public void close() 
 	{
+		if(!this.isOpen()) return;
+		
 		Log.i(CodeResource.TAG_DATABASE, "Closing database.");
-		this.dbHelper.close();
+		
+		this.statements.close();
+		this.statements = null;
+		
+		Log.d(CodeResource.TAG_DATABASE, "Homework cache hits: " + this.cache.hitCount() + ", misses: " + this.cache.missCount());
+		this.cache.evictAll();
+		
+		HomeworkDatabase.release();
 		this.database = null;
 	}
 	
@@ -113,8 +241,9 @@ public class HomeworkDataSource {
 	
 	/**
 	 * Creates a new {@link Homework} from the supplied fields.  This function first adds all values to the
-	 * SQL database, automatically incrementing the UID column.  A new {@code Homework} object is then read from the
-	 * current cursor position by use of the function {@link #getHWFromID(long)}.
+	 * SQL database, automatically incrementing the UID column.  Both dates are stored as 
+	 * {@linkplain EpochDay epoch days}.  The returned {@code Homework} is built from the supplied
+	 * values and the generated UID, so the new row is never read back from the database.
 	 * 
 	 * @param name A {@link String} representing the name of the {@code Homework} to create.
 	 * @param due A {@link java.sql.Date Date} representing the due date of the {@code Homework} to create.
@@ -125,48 +254,91 @@ public class HomeworkDataSource {
 	 * 				   Keywords are stored as a concatenated string, and individual keywords are delimited with
 	 * 				   the delimiter stored as {@link HomeworkSQLiteHelper#_DELIM}.
 	 * 
-	 * @return A new homework, created from the database with an autoincremented UID.
+	 * @return A new homework, holding the autoincremented UID of its row.
 	 */
 	public Homework createHomework(String name, Date due, Date assign,
 			String classname, String subject, String ... keywords) 
 	{
-			
-		ContentValues cv = new ContentValues();
-		cv.put(_COL_DUE, due.toString());
-		cv.put(_COL_ASSIGNED, assign.toString());
-		cv.put(_COL_CLASS, classname);
-		cv.put(_COL_SUBJECT, subject);
-		cv.put(_COL_NAME, name);
-		
-		StringBuilder keywordsConcat = new StringBuilder();
+		Homework homework = new Homework(name, EpochDay.fromDate(due), EpochDay.fromDate(assign), 
+				classname, subject, keywords);
 		
-		for(int i = 0; i < keywords.length; i++) 
+		this.database.beginTransaction();
+		try 
 		{
-			if(i > 0) keywordsConcat.append(_DELIM); //delimit with form feeds
-			keywordsConcat.append(keywords[i]);
-		}
-		
-		if(!keywordsConcat.toString().equals("")) 
+			this.insertHomework(homework);
+			this.database.setTransactionSuccessful();
+		} finally 
 		{
-			cv.put(_COL_KEYWORDS, keywordsConcat.toString());
+			this.database.endTransaction();
 		}
 		
-		long id = this.database.insert(_TABLE_NAME, null, cv);
-		
-		Homework homework = this.getHWFromID(id);
+		this.cache.put(homework.getUID(), homework);
 		
 		Log.d(CodeResource.TAG_DATABASE, "Created new homework object " + homework.getName()
 				+ " with ID " + homework.getUID());
+		
+		this.notifyObservers(Collections.singletonList(new HomeworkChange(HomeworkChange.Type.INSERT, 
+				homework.getUID(), homework, HomeworkChange._ALL_FIELDS)));
 				
 		return homework;
 	}
 	
+	
 	/**
-	 * Edits an existing {@link Homework} item with the values from the given field.  This function
-	 * first removes the {@code Homework} from the database, then adds a new {@code Homework} with
-	 * the values specified (essentially this function simply combines the functionality of
-	 * {@link #createHomework(String, Date, Date, String, String, String...)} and
-	 * {@link #deleteHomework(Homework)}.
+	 * Saves a batch of new {@link Homework} objects to the database.  Every supplied {@code Homework}
+	 * is treated as a draft: whatever its current UID, it is inserted as a new row and its 
+	 * {@linkplain Homework#setUID(long) UID} is set to the generated one.  All rows are written in
+	 * a single transaction through one reused compiled statement, so the whole batch costs a 
+	 * single commit, and no row is read back.  If any insert fails, none of the batch is saved.  Like
+	 * a single {@linkplain #createHomework(String, Date, Date, String, String, String...) created homework},
+	 * every saved {@code Homework} becomes the {@linkplain #cache cached} object for its new UID.
+	 * 
+	 * @param drafts The unsaved {@code Homework} objects to add to the database.
+	 * 
+	 * @return A list of the saved {@code Homework} objects, in the order they were supplied, each 
+	 *     holding its new UID.
+	 * 
+	 * @throws SQLException Thrown if any of the rows could not be inserted.
+	 */
+	public List<Homework> createHomework(Collection<? extends Homework> drafts) throws SQLException 
+	{
+		List<Homework> created = new ArrayList<Homework>(drafts.size());
+		
+		this.database.beginTransaction();
+		try 
+		{
+			for(Homework draft : drafts) 
+			{
+				this.insertHomework(draft);
+				created.add(draft);
+			}
+			
+			this.database.setTransactionSuccessful();
+		} finally 
+		{
+			this.database.endTransaction();
+		}
+		
+		Log.i(CodeResource.TAG_DATABASE, "Created " + created.size() + " homework objects in one batch.");
+		
+		List<HomeworkChange> changes = new ArrayList<HomeworkChange>(created.size());
+		
+		for(Homework homework : created) 
+		{
+			this.cache.put(homework.getUID(), homework);
+			changes.add(new HomeworkChange(HomeworkChange.Type.INSERT, homework.getUID(), homework, HomeworkChange._ALL_FIELDS));
+		}
+		
+		this.notifyObservers(changes);
+		
+		return created;
+	}
+	
+	/**
+	 * Edits an existing {@link Homework} item with the values from the given field.  The values
+	 * are applied to the {@code Homework} through its setters, and the row is then 
+	 * {@linkplain #updateHomework(Homework) updated in place}, so the UID never changes and only
+	 * the values that actually differ are written.
 	 * 
 	 * @param hw The homework to edit in the database.
 	 * @param name The new name of the edited homework.
@@ -176,61 +348,319 @@ public class HomeworkDataSource {
 	 * @param subject The new subject of the edited homework.
 	 * @param keywords The new keywords for the edited homework.
 	 * 
-	 * @return The edited homework object, as re-retrieved from the database.
+	 * @return The edited homework object.
 	 */
 	public Homework editHomework(Homework hw, String name, Date due, Date assign,
 			String classname, String subject, String ... keywords) 
 	{
-		Log.i(CodeResource.TAG_DATABASE, "Editing homework with ID " + hw.getUID());
-		this.deleteHomework(hw);
+		hw.setName(name);
+		hw.setDueDate(due);
+		hw.setAssignedDate(assign);
+		hw.setAssigningClass(classname);
+		hw.setSubject(subject);
+		hw.replaceKeywords(keywords);
+		
+		this.updateHomework(hw);
 		
-		return this.createHomework(name, due, assign, classname, subject, keywords);
+		return hw;
 	}
 	
 	
 	/**
-	 * Returns a new {@link Homework} object with all values retrieved from the database
-	 * where the ID column's value is equal to the supplied ID number via the use of the function
-	 * {@link #retrieveHomework(Cursor)}.
+	 * Writes the changed fields of a {@link Homework} to its existing row with a single {@code UPDATE}.
+	 * Only the columns of the {@linkplain Homework#getDirtyFields() dirty fields} are written, and
+	 * nothing is written at all if no field has changed.  The update is compiled once for each combination
+	 * of changed columns and reused through the {@linkplain #statements statement registry}.  Afterwards the {@code Homework} is
+	 * {@linkplain Homework#markClean() marked clean} and becomes the {@linkplain #cache cached} object for its UID.
+	 * The change reported to the observers carries the homework's {@linkplain Homework#getSavedValue() saved values} 
+	 * from before the update, so that a displayed list can find its row by the old sort key.
+	 * 
+	 * @param hw The homework to update. Its UID selects the row to update.
+	 * 
+	 * @return True if a row was updated, false if nothing had changed or no row has the homework's UID.
+	 */
+	public boolean updateHomework(Homework hw) 
+	{
+		int dirty = hw.getDirtyFields();
+		
+		if(dirty == 0) 
+		{
+			Log.d(CodeResource.TAG_DATABASE, "Homework with ID " + hw.getUID() + " has no changes to save.");
+			return false;
+		}
+		
+		StringBuilder sql = new StringBuilder();
+		
+		if((dirty & Homework.FIELD_NAME) != 0) appendSet(sql, _COL_NAME);
+		if((dirty & Homework.FIELD_DUE) != 0) appendSet(sql, _COL_DUE);
+		if((dirty & Homework.FIELD_ASSIGNED) != 0) appendSet(sql, _COL_ASSIGNED);
+		if((dirty & Homework.FIELD_CLASS) != 0) appendSet(sql, _COL_CLASS);
+		if((dirty & Homework.FIELD_SUBJECT) != 0) appendSet(sql, _COL_SUBJECT);
+		
+		boolean updated;
+		HomeworkValue previous = hw.getSavedValue();
+		
+		//Evict first, so that a failed update can not leave unsaved values in the cache.
+		this.cache.remove(hw.getUID());
+		
+		this.database.beginTransaction();
+		try 
+		{
+			if(sql.length() == 0) 
+			{
+				updated = true;
+			} else 
+			{
+				sql.insert(0, "UPDATE " + _TABLE_NAME + " SET ").append(" WHERE ").append(_COL_ID).append(" = ?");
+				
+				SQLiteStatement statement = this.statements.get(sql.toString());
+				int index = 1;
+				
+				if((dirty & Homework.FIELD_NAME) != 0) bindText(statement, index++, hw.getName());
+				if((dirty & Homework.FIELD_DUE) != 0) statement.bindLong(index++, hw.getDueDay());
+				if((dirty & Homework.FIELD_ASSIGNED) != 0) statement.bindLong(index++, hw.getAssignedDay());
+				if((dirty & Homework.FIELD_CLASS) != 0) bindText(statement, index++, hw.getAssigningClass());
+				if((dirty & Homework.FIELD_SUBJECT) != 0) bindText(statement, index++, hw.getSubject());
+				statement.bindLong(index, hw.getUID());
+				
+				updated = statement.executeUpdateDelete() > 0;
+			}
+			
+			if(updated && (dirty & Homework.FIELD_KEYWORDS) != 0) 
+			{
+				SQLiteStatement statement = this.statements.get(_SQL_DELETE_KEYWORDS);
+				statement.bindLong(1, hw.getUID());
+				statement.executeUpdateDelete();
+				
+				this.insertKeywords(hw);
+			}
+			
+			this.database.setTransactionSuccessful();
+		} finally 
+		{
+			this.database.endTransaction();
+		}
+		
+		hw.markClean();
+		if(updated) this.cache.put(hw.getUID(), hw);
+		
+		Log.i(CodeResource.TAG_DATABASE, "Updated fields " + Integer.toHexString(dirty) + " of homework with ID " + hw.getUID());
+		
+		if(updated) 
+		{
+			this.notifyObservers(Collections.singletonList(new HomeworkChange(HomeworkChange.Type.UPDATE, hw.getUID(), hw, 
+					previous, dirty)));
+		}
+		
+		return updated;
+	}
+	
+	
+	/**
+	 * Returns the {@link Homework} object whose UID is equal to the supplied ID number.  If it is in the
+	 * {@linkplain #cache identity cache}, the cached object is returned without querying the database.
+	 * Otherwise, it is created from the values within the database via the use of the function
+	 * {@link #retrieveHomework(Cursor, StringDictionary)} and cached.
 	 * 
 	 * @param id The UID of the homework one wishes to retrieve.
 	 * 
-	 * @return A new {@code Homework} object created from the values within the database where
-	 *     the ID column is equal to the supplied ID. If the database finds that there is no
-	 * 	   name stored for the homework at that position then this will return {@code null}.
+	 * @return The {@code Homework} object with the supplied ID. If the database has no homework with
+	 * 	   that ID, or finds that there is no name stored for it, then this will return {@code null}.
 	 */
 	public Homework getHWFromID(long id) 
 	{
+		Homework homework = this.cache.get(id);
 		
-		Cursor cursor = this.database.query(_TABLE_NAME, this.cols, _COL_ID + " = " + id, null, 
-				null, null, null);
+		if(homework != null) return homework;
 		
-		cursor.moveToFirst();
+		Cursor cursor = this.database.rawQuery(_SQL_SELECT_ID, new String[] { String.valueOf(id) });
 		
-		Homework homework = this.retrieveHomework(cursor);
+		if(cursor.moveToFirst()) 
+		{
+			homework = this.retrieveHomework(cursor, null);
+		}
 		
 		cursor.close();
+		
+		if(homework != null) this.cache.put(id, homework);
 
 		return homework;
 		
 	}
 	
 	
+	/**
+	 * Gets the {@link Homework} objects with each of the supplied UIDs.  Homework in the {@linkplain #cache identity cache}
+	 * is returned from it, and all of the rest is loaded with {@code IN} queries of up to {@link #_idsPerQuery}
+	 * UIDs each, instead of one query per UID.  Loaded homework is cached, just as by {@link #getHWFromID(long)}.
+	 * 
+	 * @param uids The UIDs of the homework to get. A UID may be repeated.
+	 * 
+	 * @return A list holding, at the position of each requested UID, the homework with that UID, or 
+	 *     {@code null} if the database has no homework with it.
+	 */
+	public List<Homework> getHomework(long... uids) 
+	{
+		Map<Long, Homework> found = new HashMap<Long, Homework>();
+		List<String> missing = new ArrayList<String>();
+		
+		for(long uid : uids) 
+		{
+			if(found.containsKey(uid)) continue;
+			
+			Homework homework = this.cache.get(uid);
+			found.put(uid, homework);
+			
+			if(homework == null) missing.add(String.valueOf(uid));
+		}
+		
+		for(int start = 0; start < missing.size(); start += _idsPerQuery) 
+		{
+			List<String> chunk = missing.subList(start, Math.min(start + _idsPerQuery, missing.size()));
+			StringBuilder selection = new StringBuilder(_COL_ID).append(" IN (");
+			
+			for(int i = 0; i < chunk.size(); i++) 
+			{
+				selection.append(i > 0 ? ", ?" : "?");
+			}
+			
+			selection.append(')');
+			
+			for(Homework homework : this.queryHomework(selection.toString(), chunk.toArray(new String[chunk.size()]), null, null)) 
+			{
+				found.put(homework.getUID(), homework);
+				this.cache.put(homework.getUID(), homework);
+			}
+		}
+		
+		List<Homework> hwlist = new ArrayList<Homework>(uids.length);
+		
+		for(long uid : uids) 
+		{
+			hwlist.add(found.get(uid));
+		}
+		
+		Log.d(CodeResource.TAG_DATABASE, "Got " + uids.length + " homework by UID, " + missing.size() + " from the database.");
+		
+		return hwlist;
+	}
+	
+	
+	/**
+	 * Registers an observer to be told about every change made through this data source.  It is
+	 * called on the thread that made the change.
+	 * 
+	 * @param observer The observer to add.
+	 */
+	public void addObserver(IHomeworkObserver observer) 
+	{
+		this.observers.add(observer);
+	}
+	
+	
+	/**
+	 * Unregisters an observer added by {@link #addObserver(IHomeworkObserver)}.
+	 * 
+	 * @param observer The observer to remove.
+	 */
+	public void removeObserver(IHomeworkObserver observer) 
+	{
+		this.observers.remove(observer);
+	}
+	
+	
+	/**
+	 * Gets the number of {@link #getHWFromID(long)} calls answered from the {@linkplain #cache identity cache}.
+	 * 
+	 * @return The number of cache hits since the data source was created.
+	 */
+	public int getCacheHitCount() 
+	{
+		return this.cache.hitCount();
+	}
+	
+	
+	/**
+	 * Gets the number of {@link #getHWFromID(long)} calls that had to query the database.
+	 * 
+	 * @return The number of cache misses since the data source was created.
+	 */
+	public int getCacheMissCount() 
+	{
+		return this.cache.missCount();
+	}
+	
+	
 	/**
 	 * Removes a {@link Homework} object from the database.
 	 * 
 	 * @param hw The {@code Homework} object you wish to remove.
 	 *           If you have only the ID, retrieve the {@code Homework}
 	 *           from the database first by using the {@link #getHWFromID(long)}
-	 *           function.
+	 *           function.  Its keywords are removed along with it.
 	 */
 	public void deleteHomework(Homework hw) 
 	{
 		
 		long uid = hw.getUID();
 		
-		this.database.delete(_TABLE_NAME, _COL_ID + " = " + uid, null);
+		SQLiteStatement statement = this.statements.get(_SQL_DELETE);
+		statement.bindLong(1, uid);
+		statement.executeUpdateDelete();
+		
+		this.cache.remove(uid);
 		Log.i(CodeResource.TAG_DATABASE, "Deleted homework with ID " + uid);
+		
+		this.notifyObservers(Collections.singletonList(new HomeworkChange(HomeworkChange.Type.DELETE, uid, hw, 
+				HomeworkChange._ALL_FIELDS)));
+	}
+	
+	
+	/**
+	 * Removes every {@link Homework} matching the supplied criteria from the database with a single
+	 * {@code DELETE} statement, run inside a transaction.  The matching homework is loaded first, in the
+	 * same transaction, so that every removal is reported to the observers along with the removed homework;
+	 * a displayed list can then find each removed row by its sort key.
+	 * 
+	 * @param criteria The criteria selecting the homework to remove. Empty criteria remove nothing.
+	 * 
+	 * @return The number of homework rows that were removed.
+	 */
+	public int deleteWhere(HomeworkCriteria criteria) 
+	{
+		if(criteria.isEmpty()) return 0;
+		
+		int rows;
+		List<HomeworkChange> changes = new ArrayList<HomeworkChange>();
+		
+		this.database.beginTransaction();
+		try 
+		{
+			for(Homework hw : this.queryHomework(criteria.getSelection(), criteria.getSelectionArgs(), null, null)) 
+			{
+				Homework cached = this.cache.get(hw.getUID());
+				
+				changes.add(new HomeworkChange(HomeworkChange.Type.DELETE, hw.getUID(), cached != null ? cached : hw, 
+						HomeworkChange._ALL_FIELDS));
+			}
+			
+			rows = this.database.delete(_TABLE_NAME, criteria.getSelection(), criteria.getSelectionArgs());
+			this.database.setTransactionSuccessful();
+		} finally 
+		{
+			this.database.endTransaction();
+		}
+		
+		for(HomeworkChange change : changes) 
+		{
+			this.cache.remove(change.getUID());
+		}
+		
+		Log.i(CodeResource.TAG_DATABASE, "Deleted " + rows + " homework matching " + criteria.getSelection());
+		
+		if(!changes.isEmpty()) this.notifyObservers(changes);
+		
+		return rows;
 	}
 	
 
@@ -244,13 +674,156 @@ public class HomeworkDataSource {
 		
 		Log.i(CodeResource.TAG_DATABASE, "Restoring from database.");
 		
+		return this.queryHomework(null, null, null, null);
+	}
+	
+	
+	/**
+	 * Counts the saved homework that is overdue, due today and upcoming, relative to the supplied day, 
+	 * with a single query and without loading any of them.
+	 * 
+	 * @param today The {@linkplain EpochDay epoch day} to treat as today.
+	 * 
+	 * @return An array holding the number of homework of each status, at the indexes {@link #STATUS_OVERDUE}, 
+	 *     {@link #STATUS_DUE_TODAY} and {@link #STATUS_UPCOMING}.
+	 */
+	public int[] countByDueStatus(int today) 
+	{
+		int[] counts = new int[3];
+		String day = String.valueOf(today);
+		Cursor cursor = this.database.rawQuery(_SQL_COUNT_STATUS, new String[] { day, day });
+		
+		while(cursor.moveToNext()) 
+		{
+			counts[cursor.getInt(0)] = cursor.getInt(1);
+		}
+		
+		cursor.close();
+		
+		return counts;
+	}
+	
+	
+	/**
+	 * Gets a list of every {@link Homework} stored in the database that matches the supplied criteria.
+	 * The criteria are evaluated by the database, so only matching rows are loaded.  Keyword lookups
+	 * through {@link HomeworkCriteria#withKeywords(CharSequence...)} use the keyword table's index.
+	 * 
+	 * @param criteria The criteria selecting the homework to return.
+	 * 
+	 * @return An {@link ArrayList} (sliced as a {@link List}) of all matching {@code Homework} objects.
+	 */
+	public List<Homework> getHomework(HomeworkCriteria criteria) 
+	{
+		if(criteria.isEmpty()) return new ArrayList<Homework>();
+		
+		return this.queryHomework(criteria.getSelection(), criteria.getSelectionArgs(), null, null);
+	}
+	
+	
+	/**
+	 * Gets a sorted list of every {@link Homework} stored in the database that matches the supplied criteria.
+	 * 
+	 * @param criteria The criteria selecting the homework to return.
+	 * @param sort The key to sort the list by.
+	 * @param ascending True to sort in ascending order, false to sort in descending order.
+	 * 
+	 * @return An {@link ArrayList} (sliced as a {@link List}) of all matching {@code Homework} objects.
+	 */
+	public List<Homework> getHomework(HomeworkCriteria criteria, HomeworkSort sort, boolean ascending) 
+	{
+		if(criteria.isEmpty()) return new ArrayList<Homework>();
+		
+		return this.queryHomework(criteria.getSelection(), criteria.getSelectionArgs(), sort.getOrderBy(ascending), null);
+	}
+	
+	
+	/**
+	 * Loads the sorted homework that matches the supplied criteria as compact {@link HomeworkValue}s,
+	 * without creating any {@link Homework} objects or filling the {@linkplain #cache identity cache}.
+	 * This is meant for holding large numbers of homework in memory, e.g. to search through them, so every
+	 * distinct class, subject and keyword is {@linkplain StringDictionary#intern(String) interned} for the load
+	 * and held only once, however many values share it.
+	 * 
+	 * @param criteria The criteria selecting the homework, or {@code null} to load all homework.
+	 * @param sort The key to sort the list by.
+	 * @param ascending True to sort in ascending order, false to sort in descending order.
+	 * 
+	 * @return A list of the matching homework.
+	 */
+	public List<HomeworkValue> getHomeworkValues(HomeworkCriteria criteria, HomeworkSort sort, boolean ascending) 
+	{
+		String selection = criteria != null ? criteria.getSelection() : null;
+		String[] selectionArgs = criteria != null ? criteria.getSelectionArgs() : null;
+		
+		Cursor cursor = this.database.query(_VIEW_NAME, this.cols, selection, selectionArgs, null, null, sort.getOrderBy(ascending));
+		List<HomeworkValue> values = new ArrayList<HomeworkValue>(cursor.getCount());
+		StringDictionary strings = new StringDictionary();
+		
+		while(cursor.moveToNext()) 
+		{
+			HomeworkValue value = this.retrieveValue(cursor, strings);
+			
+			if(value != null) values.add(value);
+		}
+		
+		cursor.close();
+		
+		return values;
+	}
+	
+	
+	/**
+	 * Lists the rows of the sorted homework that matches the supplied criteria, reading only the UID and
+	 * the sort key of each row, without creating any {@link Homework} objects.  The homework of the rows
+	 * can then be {@linkplain #getHomework(long...) loaded by UID} as it is displayed.
+	 * 
+	 * @param criteria The criteria selecting the homework, or {@code null} to list all homework.
+	 * @param sort The key to sort the rows by.
+	 * @param ascending True to sort in ascending order, false to sort in descending order.
+	 * 
+	 * @return The rows of the list, {@linkplain HomeworkListIndex#isComplete() complete} if no criteria were given.
+	 */
+	public HomeworkListIndex getListIndex(HomeworkCriteria criteria, HomeworkSort sort, boolean ascending) 
+	{
+		String selection = criteria != null ? criteria.getSelection() : null;
+		String[] selectionArgs = criteria != null ? criteria.getSelectionArgs() : null;
+		
+		Cursor cursor = this.database.query(_VIEW_NAME, new String[] { _COL_ID, sort.getExpression() }, selection, 
+				selectionArgs, null, null, sort.getOrderBy(ascending));
+		
+		try 
+		{
+			return HomeworkListIndex.read(cursor, sort, ascending, criteria == null);
+		} finally 
+		{
+			cursor.close();
+		}
+	}
+	
+	
+	/**
+	 * Loads every {@link Homework} from the {@linkplain HomeworkSQLiteHelper#_VIEW_NAME homework view}
+	 * that matches an SQL selection.
+	 * 
+	 * @param selection The {@code WHERE} clause, or {@code null} to load every homework.
+	 * @param selectionArgs The arguments bound to the selection's placeholders.
+	 * @param orderBy The {@code ORDER BY} clause, or {@code null} to leave the rows unsorted.
+	 * @param limit The {@code LIMIT} clause, or {@code null} to load every matching row.
+	 * 
+	 * @return A list of the matching {@code Homework} objects.  Equal classes, subjects and keywords share
+	 *     one {@linkplain StringDictionary#intern(String) interned} string.
+	 */
+	private List<Homework> queryHomework(String selection, String[] selectionArgs, String orderBy, String limit) 
+	{
 		List<Homework> hwlist = new ArrayList<Homework>();
+		StringDictionary strings = new StringDictionary();
 		
-		Cursor cursor = this.database.query(_TABLE_NAME, this.cols, null, null, null, null, null);
+		Cursor cursor = this.database.query(_VIEW_NAME, this.cols, selection, selectionArgs, null, null, orderBy, limit);
 		
 		cursor.moveToFirst();
 		while(!cursor.isAfterLast()) {
-			Homework hw = this.retrieveHomework(cursor);
+			Homework hw = this.retrieveHomework(cursor, strings);
 			Log.d(CodeResource.TAG_DATABASE, "Found homework " + hw.getName() + " with ID " + hw.getUID());
 			hwlist.add(hw);
 			cursor.moveToNext();
@@ -262,23 +835,129 @@ public class HomeworkDataSource {
 	}
 	
 	
+	/**
+	 * Tells every registered observer about a list of saved changes.
+	 * 
+	 * @param changes The changes, in the order they were made.
+	 */
+	private void notifyObservers(List<HomeworkChange> changes) 
+	{
+		for(IHomeworkObserver observer : this.observers) 
+		{
+			observer.onHomeworkChanged(changes);
+		}
+	}
+	
+	
+	/**
+	 * Inserts a single {@link Homework} as a new row using the {@linkplain #_SQL_INSERT compiled insert statement}
+	 * and stores the generated UID in it.  Its keywords are then {@linkplain #insertKeywords(Homework) inserted}.
+	 * The caller must hold a transaction so the homework and its keywords are saved together.
+	 * 
+	 * @param hw The {@code Homework} to insert.
+	 * 
+	 * @throws SQLException Thrown if the row could not be inserted.
+	 */
+	private void insertHomework(Homework hw) throws SQLException 
+	{
+		SQLiteStatement statement = this.statements.get(_SQL_INSERT);
+		statement.bindLong(1, hw.getDueDay());
+		statement.bindLong(2, hw.getAssignedDay());
+		bindText(statement, 3, hw.getAssigningClass());
+		bindText(statement, 4, hw.getSubject());
+		bindText(statement, 5, hw.getName());
+		
+		long id = statement.executeInsert();
+		
+		if(id == -1) 
+		{
+			throw new SQLException("Unable to insert homework " + hw.getName());
+		}
+		
+		hw.setUID(id);
+		this.insertKeywords(hw);
+		hw.markClean();
+	}
+	
+	
+	/**
+	 * Inserts one {@linkplain HomeworkSQLiteHelper#_KEYWORD_TABLE_NAME keyword row} for every keyword of a 
+	 * saved {@link Homework}, using the {@linkplain #_SQL_INSERT_KEYWORD compiled keyword insert statement}.
+	 * 
+	 * @param hw The homework whose keywords to insert. Its UID must already be set.
+	 * 
+	 * @throws SQLException Thrown if a keyword could not be inserted.
+	 */
+	private void insertKeywords(Homework hw) throws SQLException 
+	{
+		SQLiteStatement statement = this.statements.get(_SQL_INSERT_KEYWORD);
+		
+		for(int i = 0; i < hw.getKeywords().size(); i++) 
+		{
+			statement.bindLong(1, hw.getUID());
+			statement.bindString(2, hw.getKeywords().get(i).toString());
+			
+			if(statement.executeInsert() == -1) 
+			{
+				throw new SQLException("Unable to insert keyword for homework " + hw.getName());
+			}
+		}
+	}
+	
+	
+	/**
+	 * Appends the assignment of a bound parameter to a column to the {@code SET} clause of an update.
+	 * 
+	 * @param set The {@code SET} clause built so far, without the {@code SET} keyword.
+	 * @param column The column to assign.
+	 */
+	private static void appendSet(StringBuilder set, String column) 
+	{
+		if(set.length() > 0) set.append(", ");
+		set.append(column).append(" = ?");
+	}
+	
+	
+	/**
+	 * Binds a piece of text to a compiled statement, binding {@code NULL} if the text is {@code null}.
+	 * 
+	 * @param statement The statement to bind to.
+	 * @param index The 1-based index of the parameter to bind.
+	 * @param text The text to bind.
+	 */
+	private static void bindText(SQLiteStatement statement, int index, CharSequence text) 
+	{
+		if(text == null) 
+		{
+			statement.bindNull(index);
+		} else 
+		{
+			statement.bindString(index, text.toString());
+		}
+	}
+	
+	
 	/**
 	 * Obtains all information from the database pertaining to the {@link Homework}
-	 * object stored at the current position of the supplied cursor.  The string stored
+	 * object stored at the current position of the supplied cursor, which must be reading
+	 * the {@linkplain HomeworkSQLiteHelper#_VIEW_NAME homework view}.  Dates are read
+	 * directly as {@linkplain EpochDay epoch days} and are never parsed.  The string stored
 	 * at the sixth position (the keywords string) is split by the character specified
 	 * by {@link HomeworkSQLiteHelper#_DELIM}. It then creates and returns the {@code Homework}
 	 * object.
 	 * 
 	 * @param cursor The cursor to use to obtain the information stored in the database.
+	 * @param strings The dictionary the class, subject and keywords of a load of many homework are
+	 *     {@linkplain StringDictionary#intern(String) interned} in, or {@code null} to keep the strings read.
 	 * 
 	 * @return A new {@code Homework} object created with the information stored at the cursor's
 	 * 		   position.
 	 */
-	private Homework retrieveHomework(Cursor cursor) 
+	private Homework retrieveHomework(Cursor cursor, StringDictionary strings) 
 	{
 		long id = cursor.getLong(0);
-		Date due = Date.valueOf(cursor.getString(1));
-		Date assign = Date.valueOf(cursor.getString(2));
+		int due = cursor.getInt(1);
+		int assign = cursor.getInt(2);
 		String classname = cursor.getString(3);
 		String subject = cursor.getString(4);
 		String name = cursor.getString(5);
@@ -289,11 +968,61 @@ public class HomeworkDataSource {
 			keywords = keywordsConcat.split("" + _DELIM);
 		}
 		
+		if(strings != null) 
+		{
+			classname = strings.intern(classname);
+			subject = strings.intern(subject);
+			
+			for(int i = 0; i < keywords.length; i++) 
+			{
+				keywords[i] = strings.intern(keywords[i]);
+			}
+		}
+		
 		if(name.equals("")) return null;
 		
 		Homework _return = new Homework(name, due, assign, classname, subject, keywords);
 		_return.setUID(id);
+		_return.markClean();
 		
 		return _return;
 	}
+	
+	
+	/**
+	 * Reads the homework at the current position of the supplied cursor as a {@link HomeworkValue}, in
+	 * the same way as {@link #retrieveHomework(Cursor, StringDictionary)}.  The keywords are split straight
+	 * into the value's builder, and are not normalized again, since they are stored normalized.
+	 * 
+	 * @param cursor The cursor to read, which must be reading the {@linkplain #cols homework columns}.
+	 * @param strings The dictionary the class, subject and keywords are {@linkplain StringDictionary#intern(String) interned} in.
+	 * 
+	 * @return A new {@code HomeworkValue}, or {@code null} if there is no name stored for the homework.
+	 */
+	private HomeworkValue retrieveValue(Cursor cursor, StringDictionary strings) 
+	{
+		String name = cursor.getString(5);
+		
+		if(name.equals("")) return null;
+		
+		HomeworkValue.Builder builder = new HomeworkValue.Builder(name, cursor.getInt(1), cursor.getInt(2))
+				.setUID(cursor.getLong(0))
+				.setAssigningClass(strings.intern(cursor.getString(3)))
+				.setSubject(strings.intern(cursor.getString(4)));
+		
+		String keywordsConcat = cursor.getString(6);
+		
+		for(int start = 0; keywordsConcat != null && start < keywordsConcat.length(); ) 
+		{
+			int end = keywordsConcat.indexOf(_DELIM, start);
+			
+			if(end < 0) end = keywordsConcat.length();
+			
+			if(end > start) builder.addNormalizedKeyword(strings.intern(keywordsConcat.substring(start, end)));
+			
+			start = end + 1;
+		}
+		
+		return builder.build();
+	}
 }
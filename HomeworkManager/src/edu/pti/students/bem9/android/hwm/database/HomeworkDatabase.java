@@ -0,0 +1,114 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import android.content.Context;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+import edu.pti.students.bem9.android.hwm.CodeResource;
+
+/**
+ * Application-wide holder of the one connection to the homework database.  Every
+ * {@link HomeworkDataSource} {@linkplain #acquire(Context) acquires} the connection when it is opened and
+ * {@linkplain #release() releases} it when it is closed.  The connection is opened by the first
+ * acquisition and stays open, together with its page cache, until the last one is released, no matter
+ * how often activities are paused and resumed in between.<br>
+ *
+ * The connection uses write-ahead logging, so reads on other threads are not blocked while a write is
+ * in progress.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.0.0
+ */
+public final class HomeworkDatabase
+{
+	/**
+	 * The helper that opens and upgrades the database, or {@code null} if the connection is not open.
+	 */
+	private static HomeworkSQLiteHelper helper = null;
+
+
+	/**
+	 * The open connection, or {@code null} if it is not open.
+	 */
+	private static SQLiteDatabase database = null;
+
+
+	/**
+	 * The number of acquisitions that have not been released yet.
+	 */
+	private static int references = 0;
+
+
+	/**
+	 * This class only holds static state and can not be instantiated.
+	 */
+	private HomeworkDatabase() { }
+
+
+	/**
+	 * Acquires the shared connection, opening it (and creating or upgrading the database) if it is
+	 * not open yet.  Every call must be matched by a call to {@link #release()}.
+	 *
+	 * @param context Any context of the application.  Only its application context is kept.
+	 *
+	 * @return The open, writable database.
+	 *
+	 * @throws SQLException Thrown if the database fails to open.
+	 */
+	public static synchronized SQLiteDatabase acquire(Context context) throws SQLException
+	{
+		if(database == null)
+		{
+			Log.i(CodeResource.TAG_DATABASE, "Opening shared database connection.");
+
+			helper = new HomeworkSQLiteHelper(context.getApplicationContext());
+
+			try
+			{
+				database = helper.getWritableDatabase();
+			} catch(SQLException exc)
+			{
+				helper.close();
+				helper = null;
+				throw exc;
+			}
+
+			if(!database.enableWriteAheadLogging())
+			{
+				Log.w(CodeResource.TAG_DATABASE, "Write-ahead logging could not be enabled.");
+			}
+		}
+
+		references++;
+		Log.d(CodeResource.TAG_DATABASE, "Database connection acquired, " + references + " reference(s).");
+
+		return database;
+	}
+
+
+	/**
+	 * Releases one acquisition of the shared connection.  The connection is closed when the last
+	 * acquisition is released.
+	 */
+	public static synchronized void release()
+	{
+		if(references == 0)
+		{
+			Log.w(CodeResource.TAG_DATABASE, "Warning: The database connection was released more often than it was acquired!");
+			return;
+		}
+
+		references--;
+		Log.d(CodeResource.TAG_DATABASE, "Database connection released, " + references + " reference(s).");
+
+		if(references == 0)
+		{
+			Log.i(CodeResource.TAG_DATABASE, "Closing shared database connection.");
+
+			helper.close();
+			helper = null;
+			database = null;
+		}
+	}
+}
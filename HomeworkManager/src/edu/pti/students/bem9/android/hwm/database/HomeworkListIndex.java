@@ -0,0 +1,447 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import android.database.Cursor;
+import edu.pti.students.bem9.android.hwm.Homework;
+import edu.pti.students.bem9.android.hwm.HomeworkValue;
+import edu.pti.students.bem9.android.hwm.util.StringDictionary;
+
+/**
+ * The rows of a sorted homework list, held as the {@linkplain Homework#getUID() UID} and the
+ * {@linkplain HomeworkSort sort key} of every row in list order, without loading any {@link Homework}.
+ * A list of thousands of homework takes only a few bytes per row, so the whole list can be held in memory
+ * while only the visible rows are loaded.<br>
+ *
+ * Because every row keeps its sort key, homework can be {@linkplain #insert(Homework) inserted} at its
+ * sorted position and {@linkplain #indexOf(Homework) found} again by a binary search, so a displayed list
+ * is kept up to date with every change without being listed again.  An index is not thread-safe: once it
+ * is handed out, it must only be used by one thread, such as the UI thread that displays it.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.3.2
+ */
+public final class HomeworkListIndex
+{
+	/**
+	 * The key the list is sorted by.
+	 */
+	private final HomeworkSort sort;
+
+
+	/**
+	 * Whether the list is sorted in ascending order.
+	 */
+	private final boolean ascending;
+
+
+	/**
+	 * Whether the list holds all saved homework, rather than the homework matching some criteria.
+	 */
+	private final boolean complete;
+
+
+	/**
+	 * The UID of every row, of which the first {@link #size} are used.
+	 */
+	private long[] uids;
+
+
+	/**
+	 * The sort key of every row for sorts {@linkplain HomeworkSort#isByDay() by a day}, or {@code null}.
+	 */
+	private int[] days;
+
+
+	/**
+	 * The sort key of every row for sorts by a text, or {@code null}.
+	 */
+	private String[] texts;
+
+
+	/**
+	 * The number of rows.
+	 */
+	private int size = 0;
+
+
+	/**
+	 * Creates a new, empty {@code HomeworkListIndex}.
+	 *
+	 * @param sort The key the list is sorted by.
+	 * @param ascending True if the list is sorted in ascending order, false if it is descending.
+	 * @param complete True if the list holds all saved homework.
+	 * @param capacity The number of rows to make room for.
+	 */
+	HomeworkListIndex(HomeworkSort sort, boolean ascending, boolean complete, int capacity)
+	{
+		this.sort = sort;
+		this.ascending = ascending;
+		this.complete = complete;
+		this.uids = new long[Math.max(capacity, 8)];
+
+		if(sort.isByDay()) this.days = new int[this.uids.length];
+		else this.texts = new String[this.uids.length];
+	}
+
+
+	/**
+	 * Reads the rows of a sorted list from a cursor holding the UID of every row in its first column and the
+	 * {@linkplain HomeworkSort#getExpression() sort key} in its second, in list order.  Equal text keys share
+	 * one {@linkplain StringDictionary#intern(String) interned} string.
+	 *
+	 * @param cursor The cursor.  It is not closed.
+	 * @param sort The key the list is sorted by.
+	 * @param ascending True if the list is sorted in ascending order, false if it is descending.
+	 * @param complete True if the list holds all saved homework.
+	 *
+	 * @return The rows of the list.
+	 */
+	static HomeworkListIndex read(Cursor cursor, HomeworkSort sort, boolean ascending, boolean complete)
+	{
+		HomeworkListIndex rows = new HomeworkListIndex(sort, ascending, complete, cursor.getCount());
+		StringDictionary strings = sort.isByDay() ? null : new StringDictionary();
+
+		while(cursor.moveToNext())
+		{
+			int at = rows.size++;
+
+			rows.uids[at] = cursor.getLong(0);
+
+			if(strings == null) rows.days[at] = cursor.getInt(1);
+			else rows.texts[at] = strings.intern(cursor.getString(1));
+		}
+
+		return rows;
+	}
+
+
+	/**
+	 * Lists homework that is already held in memory, e.g. the results of a
+	 * {@linkplain HomeworkSearchIndex search}, sorted the same way
+	 * the database would sort it, without reading anything from the database.  The list is not
+	 * {@linkplain #isComplete() complete}.
+	 *
+	 * @param values The homework to list, in any order. The list is not changed.
+	 * @param sort The key to sort the list by.
+	 * @param ascending True to sort in ascending order, false to sort in descending order.
+	 *
+	 * @return The rows of the list.
+	 */
+	public static HomeworkListIndex of(List<HomeworkValue> values, final HomeworkSort sort, final boolean ascending)
+	{
+		List<HomeworkValue> sorted = new ArrayList<HomeworkValue>(values);
+		HomeworkListIndex rows = new HomeworkListIndex(sort, ascending, false, sorted.size());
+
+		Collections.sort(sorted, new Comparator<HomeworkValue>()
+		{
+			@Override
+			public int compare(HomeworkValue lhs, HomeworkValue rhs)
+			{
+				return sort.compare(lhs, rhs, ascending);
+			}
+		});
+
+		for(HomeworkValue value : sorted)
+		{
+			int at = rows.size++;
+
+			rows.uids[at] = value.getUID();
+
+			if(rows.days != null) rows.days[at] = sort.dayOf(value);
+			else rows.texts[at] = sort.textOf(value);
+		}
+
+		return rows;
+	}
+
+
+	/**
+	 * Gets the key the list is sorted by.
+	 *
+	 * @return The sort key.
+	 */
+	public HomeworkSort getSort()
+	{
+		return this.sort;
+	}
+
+
+	/**
+	 * Checks if the list is sorted in ascending order.
+	 *
+	 * @return True if the list is ascending, false if it is descending.
+	 */
+	public boolean isAscending()
+	{
+		return this.ascending;
+	}
+
+
+	/**
+	 * Checks if the list holds all saved homework.  Only then does every saved homework belong in the list;
+	 * a list of the homework matching some criteria can not tell whether a changed homework still matches them.
+	 *
+	 * @return True if the list holds all saved homework, false if it is filtered.
+	 */
+	public boolean isComplete()
+	{
+		return this.complete;
+	}
+
+
+	/**
+	 * Gets the number of rows.
+	 *
+	 * @return The number of rows.
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+
+	/**
+	 * Gets the UID of the homework in a row.
+	 *
+	 * @param position The position of the row.
+	 *
+	 * @return The UID.
+	 */
+	public long getUID(int position)
+	{
+		return this.uids[position];
+	}
+
+
+	/**
+	 * Gets the sort key of a row of a list sorted by {@link HomeworkSort#DUE} or {@link HomeworkSort#ASSIGNED}.
+	 *
+	 * @param position The position of the row.
+	 *
+	 * @return The {@linkplain edu.pti.students.bem9.android.hwm.util.EpochDay epoch day} the row is sorted by.
+	 */
+	public int getDay(int position)
+	{
+		return this.days[position];
+	}
+
+
+	/**
+	 * Gets the sort key of a row of a list sorted by {@link HomeworkSort#NAME} or {@link HomeworkSort#CLASS}.
+	 *
+	 * @param position The position of the row.
+	 *
+	 * @return The text the row is sorted by.
+	 */
+	public String getText(int position)
+	{
+		return this.texts[position];
+	}
+
+
+	/**
+	 * Checks if another list holds the same homework in the same order and the same sort, so that it
+	 * would be displayed, and sectioned, exactly like this one.
+	 *
+	 * @param other The other list.
+	 *
+	 * @return True if both lists have the same sort and the same UIDs in the same order.
+	 */
+	public boolean hasSameRows(HomeworkListIndex other)
+	{
+		if(other.sort != this.sort || other.ascending != this.ascending || other.size != this.size) return false;
+
+		for(int i = 0; i < this.size; i++)
+		{
+			if(other.uids[i] != this.uids[i]) return false;
+		}
+
+		return true;
+	}
+
+
+	/**
+	 * Finds the row of a homework by its UID alone, looking at every row.
+	 *
+	 * @param uid The UID.
+	 *
+	 * @return The position of the row, or -1 if the list does not hold the homework.
+	 */
+	public int indexOf(long uid)
+	{
+		for(int i = 0; i < this.size; i++)
+		{
+			if(this.uids[i] == uid) return i;
+		}
+
+		return -1;
+	}
+
+
+	/**
+	 * Finds the row of a homework by a binary search on its sort key.  If the homework was changed since it
+	 * was listed, so that its sort key no longer matches its row, the row is found by its UID instead.
+	 *
+	 * @param hw The homework.
+	 *
+	 * @return The position of the row, or -1 if the list does not hold the homework.
+	 */
+	public int indexOf(Homework hw)
+	{
+		int at = this.search(hw);
+
+		return at >= 0 ? at : this.indexOf(hw.getUID());
+	}
+
+
+	/**
+	 * Finds the row of a homework by a binary search on the sort key of its values, e.g. the
+	 * {@linkplain Homework#getSavedValue() saved values} of a homework that has since been changed.
+	 *
+	 * @param value The values of the homework, including its UID.
+	 *
+	 * @return The position of the row, or -1 if the list holds no row with the UID and sort key of the values.
+	 */
+	public int indexOf(HomeworkValue value)
+	{
+		int at = this.days != null ? this.search(this.sort.dayOf(value), null, value.getUID()) :
+				this.search(0, this.sort.textOf(value), value.getUID());
+
+		return at >= 0 ? at : -1;
+	}
+
+
+	/**
+	 * Adds a row for a homework at its sorted position.  The list must not hold the homework yet.
+	 *
+	 * @param hw The homework.
+	 *
+	 * @return The position of the new row.
+	 */
+	public int insert(Homework hw)
+	{
+		int at = this.search(hw);
+
+		if(at < 0) at = -at - 1;
+
+		if(this.size == this.uids.length)
+		{
+			this.uids = Arrays.copyOf(this.uids, this.size * 2);
+
+			if(this.days != null) this.days = Arrays.copyOf(this.days, this.uids.length);
+			else this.texts = Arrays.copyOf(this.texts, this.uids.length);
+		}
+
+		System.arraycopy(this.uids, at, this.uids, at + 1, this.size - at);
+		this.uids[at] = hw.getUID();
+
+		if(this.days != null)
+		{
+			System.arraycopy(this.days, at, this.days, at + 1, this.size - at);
+			this.days[at] = this.sort.dayOf(hw);
+		} else
+		{
+			System.arraycopy(this.texts, at, this.texts, at + 1, this.size - at);
+			this.texts[at] = this.sort.textOf(hw);
+		}
+
+		this.size++;
+
+		return at;
+	}
+
+
+	/**
+	 * Removes a row.
+	 *
+	 * @param position The position of the row.
+	 */
+	public void remove(int position)
+	{
+		int after = this.size - position - 1;
+
+		System.arraycopy(this.uids, position + 1, this.uids, position, after);
+
+		if(this.days != null)
+		{
+			System.arraycopy(this.days, position + 1, this.days, position, after);
+		} else
+		{
+			System.arraycopy(this.texts, position + 1, this.texts, position, after);
+			this.texts[this.size - 1] = null;
+		}
+
+		this.size--;
+	}
+
+
+	/**
+	 * Searches the rows for the sort key and UID of a homework.
+	 *
+	 * @param hw The homework.
+	 *
+	 * @return The position of its row if it is found, or {@code -(insertion point) - 1} otherwise, as
+	 *     {@link Arrays#binarySearch(long[], long)} returns.
+	 */
+	private int search(Homework hw)
+	{
+		return this.days != null ? this.search(this.sort.dayOf(hw), null, hw.getUID()) :
+				this.search(0, this.sort.textOf(hw), hw.getUID());
+	}
+
+
+	/**
+	 * Searches the rows for a sort key and UID.
+	 *
+	 * @param day The sort key, if the list is sorted by a day.
+	 * @param text The sort key, if the list is sorted by a text.
+	 * @param uid The UID.
+	 *
+	 * @return The position of the row if it is found, or {@code -(insertion point) - 1} otherwise.
+	 */
+	private int search(int day, String text, long uid)
+	{
+		int low = 0;
+		int high = this.size - 1;
+
+		while(low <= high)
+		{
+			int mid = (low + high) >>> 1;
+			int result = this.compareRow(mid, day, text, uid);
+
+			if(result < 0) low = mid + 1;
+			else if(result > 0) high = mid - 1;
+			else return mid;
+		}
+
+		return -(low + 1);
+	}
+
+
+	/**
+	 * Compares a row to a sort key and UID in list order, as {@link HomeworkSort#compare(Homework, Homework, boolean)} does.
+	 *
+	 * @param position The position of the row.
+	 * @param day The sort key, if the list is sorted by a day.
+	 * @param text The sort key, if the list is sorted by a text.
+	 * @param uid The UID.
+	 *
+	 * @return A negative number if the row comes first, a positive number if the key comes first, or 0 if
+	 *     the row holds the UID and sort key.
+	 */
+	private int compareRow(int position, int day, String text, long uid)
+	{
+		int result = this.days != null ? HomeworkSort.compareInts(this.days[position], day) :
+				HomeworkSort.compareNoCase(this.texts[position], text);
+
+		if(result == 0) result = this.uids[position] < uid ? -1 : (this.uids[position] > uid ? 1 : 0);
+
+		return this.ascending ? result : -result;
+	}
+}
@@ -0,0 +1,56 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * A single numbered step in the evolution of the homework database schema.
+ * Each migration moves the database from the version directly below
+ * {@linkplain #getVersion() its version} up to its version.  All of the steps
+ * of one upgrade run inside the single transaction that
+ * {@link android.database.sqlite.SQLiteOpenHelper} opens for it.  If a step
+ * throws, the whole upgrade is rolled back and the stored database version
+ * is left untouched, so no saved homework is lost.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.0.1
+ */
+public abstract class HomeworkMigration
+{
+	/**
+	 * The database version this migration upgrades to.
+	 */
+	private final int version;
+
+
+	/**
+	 * Creates a new {@code HomeworkMigration} that upgrades the database to the
+	 * supplied version.
+	 *
+	 * @param version The version of the schema after this migration has run.
+	 */
+	protected HomeworkMigration(int version)
+	{
+		this.version = version;
+	}
+
+
+	/**
+	 * Gets the version the database is at after this migration has been applied.
+	 *
+	 * @return The target version of this migration.
+	 */
+	public int getVersion()
+	{
+		return this.version;
+	}
+
+
+	/**
+	 * Applies this migration to the database.  The caller handles the transaction,
+	 * so implementations should only execute the statements needed for the upgrade.
+	 *
+	 * @param database The database to upgrade.
+	 */
+	public abstract void migrate(SQLiteDatabase database);
+}
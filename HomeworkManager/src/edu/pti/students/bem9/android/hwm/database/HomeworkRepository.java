@@ -0,0 +1,537 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import edu.pti.students.bem9.android.hwm.CodeResource;
+import edu.pti.students.bem9.android.hwm.Homework;
+import edu.pti.students.bem9.android.hwm.HomeworkValue;
+
+/**
+ * Runs all work on a {@link HomeworkDataSource} on a single background thread, so that the
+ * UI thread never waits on the database.  Results are handed back to the UI thread through an
+ * {@link IHomeworkCallback}.  If the work fails, the callback receives the error instead.<br>
+ *
+ * Work runs in the order it is submitted.  A query submitted after a change is therefore
+ * always answered with the change applied, and callers do not need to wait for a change to
+ * finish before reloading the list.<br>
+ *
+ * Queries for the homework list (such as {@link #queryList(HomeworkCriteria, HomeworkSort, boolean, IHomeworkCallback)})
+ * replace each other: when a new list query is submitted, any earlier one that has not started is skipped,
+ * and the result of any that is still running is discarded instead of delivered.  Changes to the database
+ * are never cancelled.<br>
+ *
+ * Every change the data source makes is passed on to the repository's {@linkplain #addObserver(IHomeworkObserver) observers}
+ * on the main thread.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 2.1.0
+ */
+public class HomeworkRepository
+{
+	/**
+	 * The data source all work is run against.
+	 */
+	private final HomeworkDataSource dataSource;
+
+
+	/**
+	 * The background thread all work runs on.
+	 */
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory()
+	{
+		/**
+		 * Creates the background thread, running at background priority.
+		 *
+		 * @param r The work of the thread.
+		 */
+		@Override
+		public Thread newThread(final Runnable r)
+		{
+			return new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+					r.run();
+				}
+			}, "Homework Database");
+		}
+	});
+
+
+	/**
+	 * Handler that delivers results on the main thread.
+	 */
+	private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+
+	/**
+	 * The generation of the newest list query.  Each list query takes the next generation when
+	 * it is submitted, and only the query holding the current generation may deliver its result.
+	 */
+	private final AtomicInteger listGeneration = new AtomicInteger();
+
+
+	/**
+	 * The observers told about every change.  This is only used on the main thread.
+	 */
+	private final List<IHomeworkObserver> observers = new ArrayList<IHomeworkObserver>();
+
+
+	/**
+	 * Creates a new {@code HomeworkRepository} with its own {@link HomeworkDataSource}.
+	 * The database is not opened until {@link #open()} is called.
+	 *
+	 * @param context The context to open the database in.
+	 */
+	public HomeworkRepository(Context context)
+	{
+		this.dataSource = new HomeworkDataSource(context);
+		this.dataSource.addObserver(new IHomeworkObserver()
+		{
+			/**
+			 * Passes changes made on the background thread on to the main thread.
+			 *
+			 * @param changes The changes.
+			 */
+			@Override
+			public void onHomeworkChanged(final List<HomeworkChange> changes)
+			{
+				HomeworkRepository.this.mainHandler.post(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						for(IHomeworkObserver observer : new ArrayList<IHomeworkObserver>(HomeworkRepository.this.observers))
+						{
+							observer.onHomeworkChanged(changes);
+						}
+					}
+				});
+			}
+		});
+	}
+
+
+	/**
+	 * Registers an observer to be told, on the main thread, about every change made through this repository.
+	 * This must be called on the main thread.
+	 *
+	 * @param observer The observer to add.
+	 */
+	public void addObserver(IHomeworkObserver observer)
+	{
+		this.observers.add(observer);
+	}
+
+
+	/**
+	 * Unregisters an observer added by {@link #addObserver(IHomeworkObserver)}.  This must be called on the main thread.
+	 *
+	 * @param observer The observer to remove.
+	 */
+	public void removeObserver(IHomeworkObserver observer)
+	{
+		this.observers.remove(observer);
+	}
+
+
+	/**
+	 * Opens the database in the background.  If the database must be created or upgraded,
+	 * that happens here as well.  The repository holds the {@linkplain HomeworkDatabase shared connection}
+	 * until it is {@linkplain #close() closed}, so this only needs to be called once.
+	 */
+	public void open()
+	{
+		this.executor.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				HomeworkRepository.this.dataSource.open();
+			}
+		});
+	}
+
+
+	/**
+	 * Closes the database in the background, once all work submitted before has finished.
+	 */
+	public void close()
+	{
+		this.executor.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				HomeworkRepository.this.dataSource.close();
+			}
+		});
+	}
+
+
+	/**
+	 * Closes the database and stops the background thread once all submitted work has finished.
+	 * No work may be submitted afterwards.
+	 */
+	public void shutdown()
+	{
+		this.cancelListQueries();
+		this.close();
+		this.executor.shutdown();
+	}
+
+
+	/**
+	 * Cancels every list query that has not delivered its result yet.
+	 */
+	public void cancelListQueries()
+	{
+		this.listGeneration.incrementAndGet();
+	}
+
+
+	/**
+	 * Lists the rows of the sorted homework list in the background, as
+	 * {@link HomeworkDataSource#getListIndex(HomeworkCriteria, HomeworkSort, boolean)} does.  Only the UID and
+	 * sort key of each row are read; the homework itself is {@linkplain #getHomework(long[], IHomeworkCallback)
+	 * loaded by UID} as it is displayed.  This is a list query.
+	 *
+	 * @param criteria The criteria selecting the homework, or {@code null} to list all homework.
+	 * @param sort The key to sort the rows by.
+	 * @param ascending True to sort in ascending order, false to sort in descending order.
+	 * @param callback Receives the rows.
+	 */
+	public void queryList(final HomeworkCriteria criteria, final HomeworkSort sort, final boolean ascending,
+			IHomeworkCallback<HomeworkListIndex> callback)
+	{
+		this.submit(new Task<HomeworkListIndex>(callback, this.listGeneration.incrementAndGet())
+		{
+			@Override
+			HomeworkListIndex load()
+			{
+				return HomeworkRepository.this.dataSource.getListIndex(criteria, sort, ascending);
+			}
+		});
+	}
+
+
+	/**
+	 * Loads the sorted homework as compact values in the background, as
+	 * {@link HomeworkDataSource#getHomeworkValues(HomeworkCriteria, HomeworkSort, boolean)} does.
+	 * This is not a list query, so it neither replaces nor is replaced by one.
+	 *
+	 * @param criteria The criteria selecting the homework, or {@code null} to load all homework.
+	 * @param sort The key to sort the list by.
+	 * @param ascending True to sort in ascending order, false to sort in descending order.
+	 * @param callback Receives the values.
+	 */
+	public void queryValues(final HomeworkCriteria criteria, final HomeworkSort sort, final boolean ascending,
+			IHomeworkCallback<List<HomeworkValue>> callback)
+	{
+		this.submit(new Task<List<HomeworkValue>>(callback, -1)
+		{
+			@Override
+			List<HomeworkValue> load()
+			{
+				return HomeworkRepository.this.dataSource.getHomeworkValues(criteria, sort, ascending);
+			}
+		});
+	}
+
+
+	/**
+	 * Builds a {@link HomeworkSearchIndex} of all saved homework in the background, from its
+	 * {@linkplain HomeworkDataSource#getHomeworkValues(HomeworkCriteria, HomeworkSort, boolean) values}.  This is
+	 * not a list query.  The index holds every change saved before it is delivered, and every later change is
+	 * delivered to the observers after it, so applying those keeps the index up to date.
+	 *
+	 * @param callback Receives the index.
+	 */
+	public void querySearchIndex(IHomeworkCallback<HomeworkSearchIndex> callback)
+	{
+		this.submit(new Task<HomeworkSearchIndex>(callback, -1)
+		{
+			@Override
+			HomeworkSearchIndex load()
+			{
+				return HomeworkSearchIndex.build(HomeworkRepository.this.dataSource.getHomeworkValues(null, HomeworkSort.DUE, true));
+			}
+		});
+	}
+
+
+	/**
+	 * Counts the overdue, due today and upcoming homework in the background, as
+	 * {@link HomeworkDataSource#countByDueStatus(int)} does.
+	 *
+	 * @param today The epoch day to treat as today.
+	 * @param callback Receives the counts, at the {@code STATUS_} indexes of {@link HomeworkDataSource}.
+	 */
+	public void countByDueStatus(final int today, IHomeworkCallback<int[]> callback)
+	{
+		this.submit(new Task<int[]>(callback, -1)
+		{
+			@Override
+			int[] load()
+			{
+				return HomeworkRepository.this.dataSource.countByDueStatus(today);
+			}
+		});
+	}
+
+
+	/**
+	 * Loads one homework in the background, as {@link HomeworkDataSource#getHWFromID(long)} does.
+	 *
+	 * @param uid The UID of the homework to load.
+	 * @param callback Receives the homework.
+	 */
+	public void getHomework(final long uid, IHomeworkCallback<Homework> callback)
+	{
+		this.submit(new Task<Homework>(callback, -1)
+		{
+			@Override
+			Homework load()
+			{
+				return HomeworkRepository.this.dataSource.getHWFromID(uid);
+			}
+		});
+	}
+
+
+	/**
+	 * Loads many homework by UID in the background, as {@link HomeworkDataSource#getHomework(long...)} does.
+	 *
+	 * @param uids The UIDs of the homework to load.
+	 * @param callback Receives the homework, in the order of the UIDs.
+	 */
+	public void getHomework(final long[] uids, IHomeworkCallback<List<Homework>> callback)
+	{
+		this.submit(new Task<List<Homework>>(callback, -1)
+		{
+			@Override
+			List<Homework> load()
+			{
+				return HomeworkRepository.this.dataSource.getHomework(uids);
+			}
+		});
+	}
+
+
+	/**
+	 * Creates and saves a new homework in the background, as
+	 * {@link HomeworkDataSource#createHomework(String, Date, Date, String, String, String...)} does.
+	 *
+	 * @param name The name of the homework.
+	 * @param due The date the homework is due.
+	 * @param assign The date the homework was assigned.
+	 * @param classname The class the homework was assigned in.
+	 * @param subject The subject of the homework.
+	 * @param callback Receives the saved homework. May be {@code null}.
+	 * @param keywords The keywords of the homework.
+	 */
+	public void createHomework(final String name, final Date due, final Date assign, final String classname,
+			final String subject, IHomeworkCallback<Homework> callback, final String ... keywords)
+	{
+		this.submit(new Task<Homework>(callback, -1)
+		{
+			@Override
+			Homework load()
+			{
+				return HomeworkRepository.this.dataSource.createHomework(name, due, assign, classname, subject, keywords);
+			}
+		});
+	}
+
+
+	/**
+	 * Saves the changed fields of a homework in the background, as
+	 * {@link HomeworkDataSource#updateHomework(Homework)} does.  The homework must not be changed
+	 * again until the callback has been called.
+	 *
+	 * @param hw The homework to save.
+	 * @param callback Receives whether the homework was saved. May be {@code null}.
+	 */
+	public void updateHomework(final Homework hw, IHomeworkCallback<Boolean> callback)
+	{
+		this.submit(new Task<Boolean>(callback, -1)
+		{
+			@Override
+			Boolean load()
+			{
+				return HomeworkRepository.this.dataSource.updateHomework(hw);
+			}
+		});
+	}
+
+
+	/**
+	 * Removes a homework from the database in the background, as
+	 * {@link HomeworkDataSource#deleteHomework(Homework)} does.
+	 *
+	 * @param hw The homework to remove.
+	 * @param callback Receives the removed homework. May be {@code null}.
+	 */
+	public void deleteHomework(final Homework hw, IHomeworkCallback<Homework> callback)
+	{
+		this.submit(new Task<Homework>(callback, -1)
+		{
+			@Override
+			Homework load()
+			{
+				HomeworkRepository.this.dataSource.deleteHomework(hw);
+				return hw;
+			}
+		});
+	}
+
+
+	/**
+	 * Removes all matching homework from the database in the background, as
+	 * {@link HomeworkDataSource#deleteWhere(HomeworkCriteria)} does.
+	 *
+	 * @param criteria The criteria selecting the homework to remove.
+	 * @param callback Receives the number of removed homework. May be {@code null}.
+	 */
+	public void deleteWhere(final HomeworkCriteria criteria, IHomeworkCallback<Integer> callback)
+	{
+		this.submit(new Task<Integer>(callback, -1)
+		{
+			@Override
+			Integer load()
+			{
+				return HomeworkRepository.this.dataSource.deleteWhere(criteria);
+			}
+		});
+	}
+
+
+	/**
+	 * Submits a task to the background thread.
+	 *
+	 * @param task The task to run.
+	 */
+	private void submit(Task<?> task)
+	{
+		this.executor.execute(task);
+	}
+
+
+	/**
+	 * One piece of work for the background thread, and the delivery of its result to the main thread.
+	 *
+	 * @author Bridger Maskrey (bem9@students.pti.edu)
+	 *
+	 * @version 1.1.0
+	 *
+	 * @param <T> The type of the result.
+	 */
+	private abstract class Task<T> implements Runnable
+	{
+		/**
+		 * Receives the result, or {@code null} if nobody is interested in it.
+		 */
+		private final IHomeworkCallback<T> callback;
+
+
+		/**
+		 * The {@linkplain HomeworkRepository#listGeneration list generation} of this task, or -1 if
+		 * the task is not a list query and can not be replaced.
+		 */
+		private final int generation;
+
+
+		/**
+		 * Creates a new {@code Task}.
+		 *
+		 * @param callback Receives the result. May be {@code null}.
+		 * @param generation The list generation of the task, or -1 if it is not a list query.
+		 */
+		Task(IHomeworkCallback<T> callback, int generation)
+		{
+			this.callback = callback;
+			this.generation = generation;
+		}
+
+
+		/**
+		 * Does the work on the background thread.
+		 *
+		 * @return The result to deliver.
+		 */
+		abstract T load();
+
+
+		/**
+		 * Checks if a newer list query has replaced this task.
+		 *
+		 * @return True if this task is a list query and is no longer the newest one.
+		 */
+		private boolean isReplaced()
+		{
+			return this.generation != -1 && this.generation != HomeworkRepository.this.listGeneration.get();
+		}
+
+
+		/**
+		 * Does the work and posts the result to the main thread, unless the task was replaced.
+		 * If the work throws, the error is logged and delivered to the callback instead of a result.
+		 */
+		@Override
+		public void run()
+		{
+			if(this.isReplaced()) return;
+
+			T result = null;
+			RuntimeException error = null;
+
+			try
+			{
+				result = this.load();
+			} catch(RuntimeException exc)
+			{
+				Log.e(CodeResource.TAG_DATABASE, "Background database work failed.", exc);
+				error = exc;
+			}
+
+			this.deliver(result, error);
+		}
+
+
+		/**
+		 * Posts the result or the error of the work to the main thread, where it is handed to the callback
+		 * unless the task was replaced in the meantime.
+		 *
+		 * @param result The result, if the work succeeded.
+		 * @param error The exception the work failed with, or {@code null} if it succeeded.
+		 */
+		private void deliver(final T result, final RuntimeException error)
+		{
+			HomeworkRepository.this.mainHandler.post(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					if(Task.this.callback == null || Task.this.isReplaced()) return;
+
+					if(error != null) Task.this.callback.onError(error);
+					else Task.this.callback.onResult(result);
+				}
+			});
+		}
+	}
+}
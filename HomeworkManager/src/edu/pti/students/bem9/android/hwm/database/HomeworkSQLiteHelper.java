@@ -1,8 +1,14 @@
 package edu.pti.students.bem9.android.hwm.database;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
 import edu.pti.students.bem9.android.hwm.CodeResource;
 
@@ -13,8 +19,9 @@ import edu.pti.students.bem9.android.hwm.CodeResource;
  * @author Bridger Maskrey (bem9@students.pti.edu)
  * 
  * @see #_DATABASE_CREATE Database creation field.
+ * @see #_MIGRATIONS Schema migration steps.
  * 
- * @version 1.0.1
+ * @version 1.4.1
  */
 public class HomeworkSQLiteHelper extends SQLiteOpenHelper
 {
@@ -25,9 +32,18 @@ public class HomeworkSQLiteHelper extends SQLiteOpenHelper
 	
 	
 	/**
-	 * Constant version number of the database.
+	 * Constant version number of the database.  This must always equal the
+	 * {@linkplain HomeworkMigration#getVersion() version} of the last entry in
+	 * {@link #_MIGRATIONS}.
+	 */
+	private static final int _dbVer = 5;
+	
+	
+	/**
+	 * The version of the schema that {@link #_DATABASE_CREATE} builds.  Every
+	 * version above this one is reached by running {@link #_MIGRATIONS}.
 	 */
-	private static final int _dbVer = 1;
+	private static final int _dbBaseVer = 1;
 	
 	
 	/**
@@ -43,13 +59,15 @@ public class HomeworkSQLiteHelper extends SQLiteOpenHelper
 	
 	
 	/** 
-	 * Name of the due date column 
+	 * Name of the due date column.  Since version 3 dates are stored as
+	 * {@linkplain edu.pti.students.bem9.android.hwm.util.EpochDay epoch days}.
 	 */
 	protected static final String _COL_DUE = "due";
 	
 	
 	/**
-	 * Name of the assigned date column
+	 * Name of the assigned date column.  Since version 3 dates are stored as
+	 * {@linkplain edu.pti.students.bem9.android.hwm.util.EpochDay epoch days}.
 	 */
 	protected static final String _COL_ASSIGNED = "assigned";
 	
@@ -74,7 +92,9 @@ public class HomeworkSQLiteHelper extends SQLiteOpenHelper
 	
 	/**
 	 *  Name of the keywords column
-	 *  Keywords are delimited by the {@linkplain #_DELIM delimiter} character
+	 *  Keywords are delimited by the {@linkplain #_DELIM delimiter} character.  Since version 4
+	 *  the main table no longer has this column; keywords live in the {@linkplain #_KEYWORD_TABLE_NAME keyword table}
+	 *  and this column only exists in the {@linkplain #_VIEW_NAME homework view}.
 	 */
 	protected static final String _COL_KEYWORDS = "keywords";
 	
@@ -85,6 +105,94 @@ public class HomeworkSQLiteHelper extends SQLiteOpenHelper
 	protected static final char _DELIM = '\f';
 	
 	
+	/**
+	 * Name of the keyword table, which holds one row per keyword of each homework.
+	 */
+	protected static final String _KEYWORD_TABLE_NAME = "homework_keyword";
+	
+	
+	/**
+	 * Name of the keyword table's column holding the {@linkplain #_COL_ID ID} of the homework the keyword belongs to.
+	 */
+	protected static final String _COL_KEYWORD_HOMEWORK = "homework_id";
+	
+	
+	/**
+	 * Name of the keyword table's keyword column.  Keywords are stored trimmed and lowercased.
+	 */
+	protected static final String _COL_KEYWORD = "keyword";
+	
+	
+	/**
+	 * Name of the view that presents every homework row together with its keywords concatenated
+	 * into a {@linkplain #_COL_KEYWORDS keywords} column, exactly as the main table looked before
+	 * version 4.  All homework is read through this view.
+	 */
+	protected static final String _VIEW_NAME = "homework_view";
+	
+	
+	/**
+	 * Name of the index on the {@link #_COL_DUE} column.
+	 */
+	protected static final String _IDX_DUE = "homework_due_index";
+	
+	
+	/**
+	 * Name of the index on the {@link #_COL_ASSIGNED} column.
+	 */
+	protected static final String _IDX_ASSIGNED = "homework_assigned_index";
+	
+	
+	/**
+	 * Name of the index on the {@link #_COL_CLASS} column.
+	 */
+	protected static final String _IDX_CLASS = "homework_class_index";
+	
+	
+	/**
+	 * Name of the index on the {@link #_COL_SUBJECT} column.
+	 */
+	protected static final String _IDX_SUBJECT = "homework_subject_index";
+	
+	
+	/**
+	 * Name of the index on the {@link #_COL_KEYWORD_HOMEWORK} column of the keyword table.
+	 */
+	protected static final String _IDX_KEYWORD_HOMEWORK = "homework_keyword_homework_index";
+	
+	
+	/**
+	 * Name of the index on the {@link #_COL_KEYWORD} column of the keyword table.
+	 */
+	protected static final String _IDX_KEYWORD = "homework_keyword_keyword_index";
+	
+	
+	/**
+	 * Name of the trigger that removes the keywords of deleted homework.
+	 */
+	private static final String _TRIGGER_KEYWORD_DELETE = "homework_keyword_delete";
+	
+	
+	/**
+	 * Name of the FTS4 full-text search table.  It holds one row per homework, with a
+	 * {@code docid} equal to the homework's {@linkplain #_COL_ID ID}, and indexes the name,
+	 * class, subject, dates and keywords.  It is kept up to date entirely by triggers.
+	 */
+	protected static final String _SEARCH_TABLE_NAME = "homework_search";
+	
+	
+	/**
+	 * Prefix of the names of the triggers that keep the {@linkplain #_SEARCH_TABLE_NAME search table} up to date.
+	 */
+	private static final String _TRIGGER_SEARCH = "homework_search_";
+	
+	
+	/**
+	 * Name of the temporary table used while a migration rebuilds the {@linkplain #_TABLE_NAME main table}.
+	 */
+	private static final String _TABLE_REBUILD = _TABLE_NAME + "_rebuild";
+	
+	
 	/** 
 	 * Construction information for the {@link #_COL_ID} column.
 	 */
@@ -103,6 +211,13 @@ public class HomeworkSQLiteHelper extends SQLiteOpenHelper
 	private static final String _instAssigned = " DATE NOT NULL";
 	
 	
+	/** 
+	 * Construction information for the {@link #_COL_DUE} and {@link #_COL_ASSIGNED} columns
+	 * once they hold {@linkplain edu.pti.students.bem9.android.hwm.util.EpochDay epoch days}.
+	 */
+	private static final String _instEpochDay = " INTEGER NOT NULL";
+	
+	
 	/** 
 	 * Construction information for the {@link #_COL_CLASS} column.
 	 */
@@ -129,7 +244,8 @@ public class HomeworkSQLiteHelper extends SQLiteOpenHelper
 	
 	/**
 	 * SQL Database initialization statement.  Creates a new table with the following
-	 * schema:
+	 * schema (this is the version {@value #_dbBaseVer} schema; later versions are
+	 * built from it by the {@linkplain #_MIGRATIONS migrations}):
 	 * <table border="1">
 	 * <tr>
 	 *   <th colspan='7'>{@linkplain #_TABLE_NAME Table Name}</th>
@@ -165,6 +281,131 @@ public class HomeworkSQLiteHelper extends SQLiteOpenHelper
 			"(" + _COL_ID + _instId + ", " + _COL_DUE + _instDue + ", " + _COL_ASSIGNED +
 			_instAssigned + ", " + _COL_CLASS + _instClass + ", " + _COL_SUBJECT + 
 			_instSubject + ", " + _COL_NAME + _instName + ", " + _COL_KEYWORDS + _instKeywords + ");";
+	
+	
+	/**
+	 * Ordered list of every schema migration.  Entry <i>n</i> upgrades the database from
+	 * version {@code n + 1} to version {@code n + 2}.  Migrations are only ever appended;
+	 * once a version has shipped its migration must never change.
+	 * <table border="1">
+	 * <tr>
+	 *   <th>Version</th>
+	 *   <th>Change</th>
+	 * </tr>
+	 * <tr>
+	 *   <td>2</td>
+	 *   <td>Adds indexes on the {@linkplain #_COL_DUE due}, {@linkplain #_COL_ASSIGNED assigned},
+	 *       {@linkplain #_COL_CLASS class} and {@linkplain #_COL_SUBJECT subject} columns.</td>
+	 * </tr>
+	 * <tr>
+	 *   <td>3</td>
+	 *   <td>Rebuilds the main table so the {@linkplain #_COL_DUE due} and {@linkplain #_COL_ASSIGNED assigned}
+	 *       columns hold integer {@linkplain edu.pti.students.bem9.android.hwm.util.EpochDay epoch days}
+	 *       instead of {@code yyyy-MM-dd} text.</td>
+	 * </tr>
+	 * <tr>
+	 *   <td>4</td>
+	 *   <td>Moves keywords into the indexed {@linkplain #_KEYWORD_TABLE_NAME keyword table}, drops the
+	 *       {@linkplain #_COL_KEYWORDS keywords} column from the main table and adds the 
+	 *       {@linkplain #_VIEW_NAME homework view}.</td>
+	 * </tr>
+	 * <tr>
+	 *   <td>5</td>
+	 *   <td>Adds the {@linkplain #_SEARCH_TABLE_NAME full-text search table} and the triggers that
+	 *       keep it in sync with the main and keyword tables.</td>
+	 * </tr>
+	 * </table>
+	 */
+	private static final HomeworkMigration[] _MIGRATIONS = 
+	{
+		new HomeworkMigration(2) 
+		{
+			@Override
+			public void migrate(SQLiteDatabase database)
+			{
+				createIndexes(database);
+			}
+		},
+		
+		new HomeworkMigration(3)
+		{
+			@Override
+			public void migrate(SQLiteDatabase database)
+			{
+				rebuildTable(database, 
+						_COL_ID + _instId + ", " + _COL_DUE + _instEpochDay + ", " + _COL_ASSIGNED + _instEpochDay + 
+						", " + _COL_CLASS + _instClass + ", " + _COL_SUBJECT + _instSubject + ", " + _COL_NAME + 
+						_instName + ", " + _COL_KEYWORDS + _instKeywords,
+						_COL_ID + ", " + _COL_DUE + ", " + _COL_ASSIGNED + ", " + _COL_CLASS + ", " + _COL_SUBJECT + 
+						", " + _COL_NAME + ", " + _COL_KEYWORDS,
+						_COL_ID + ", " + epochDayOf(_COL_DUE) + ", " + epochDayOf(_COL_ASSIGNED) + ", " + _COL_CLASS + 
+						", " + _COL_SUBJECT + ", " + _COL_NAME + ", " + _COL_KEYWORDS);
+			}
+		},
+		
+		new HomeworkMigration(4)
+		{
+			@Override
+			public void migrate(SQLiteDatabase database)
+			{
+				String columns = _COL_ID + ", " + _COL_DUE + ", " + _COL_ASSIGNED + ", " + _COL_CLASS + ", " + 
+						_COL_SUBJECT + ", " + _COL_NAME;
+				
+				execAll(database, 
+						"CREATE TABLE " + _KEYWORD_TABLE_NAME + "(" + _COL_KEYWORD_HOMEWORK + " INTEGER NOT NULL, " + 
+								_COL_KEYWORD + " TEXT NOT NULL);",
+						"CREATE INDEX " + _IDX_KEYWORD_HOMEWORK + " ON " + _KEYWORD_TABLE_NAME + "(" + _COL_KEYWORD_HOMEWORK + ");",
+						"CREATE INDEX " + _IDX_KEYWORD + " ON " + _KEYWORD_TABLE_NAME + "(" + _COL_KEYWORD + ");");
+				
+				splitKeywords(database);
+				
+				rebuildTable(database, 
+						_COL_ID + _instId + ", " + _COL_DUE + _instEpochDay + ", " + _COL_ASSIGNED + _instEpochDay + 
+						", " + _COL_CLASS + _instClass + ", " + _COL_SUBJECT + _instSubject + ", " + _COL_NAME + _instName,
+						columns, columns);
+				
+				execAll(database, 
+						"CREATE TRIGGER " + _TRIGGER_KEYWORD_DELETE + " AFTER DELETE ON " + _TABLE_NAME + " BEGIN " +
+								"DELETE FROM " + _KEYWORD_TABLE_NAME + " WHERE " + _COL_KEYWORD_HOMEWORK + " = old." + _COL_ID + "; END;",
+						"CREATE VIEW " + _VIEW_NAME + " AS SELECT " + columns + ", (SELECT group_concat(" + _COL_KEYWORD + 
+								", '" + _DELIM + "') FROM " + _KEYWORD_TABLE_NAME + " WHERE " + _COL_KEYWORD_HOMEWORK + " = " + 
+								_TABLE_NAME + "." + _COL_ID + ") AS " + _COL_KEYWORDS + " FROM " + _TABLE_NAME + ";");
+			}
+		},
+		
+		new HomeworkMigration(5)
+		{
+			@Override
+			public void migrate(SQLiteDatabase database)
+			{
+				String columns = _COL_NAME + ", " + _COL_CLASS + ", " + _COL_SUBJECT + ", " + _COL_DUE + ", " + 
+						_COL_ASSIGNED + ", " + _COL_KEYWORDS;
+				String refreshKeywords = "UPDATE " + _SEARCH_TABLE_NAME + " SET " + _COL_KEYWORDS + " = " + 
+						keywordsOf("%1$s." + _COL_KEYWORD_HOMEWORK) + " WHERE docid = %1$s." + _COL_KEYWORD_HOMEWORK + "; END;";
+				
+				execAll(database, 
+						"CREATE VIRTUAL TABLE " + _SEARCH_TABLE_NAME + " USING fts4(" + columns + ");",
+						"INSERT INTO " + _SEARCH_TABLE_NAME + "(docid, " + columns + ") SELECT " + _COL_ID + ", " + 
+								_COL_NAME + ", " + _COL_CLASS + ", " + _COL_SUBJECT + ", " + dateOf(_COL_DUE) + ", " + 
+								dateOf(_COL_ASSIGNED) + ", " + keywordsOf(_TABLE_NAME + "." + _COL_ID) + " FROM " + _TABLE_NAME + ";",
+						"CREATE TRIGGER " + _TRIGGER_SEARCH + "insert AFTER INSERT ON " + _TABLE_NAME + " BEGIN " + 
+								"INSERT INTO " + _SEARCH_TABLE_NAME + "(docid, " + columns + ") VALUES (new." + _COL_ID + ", new." + 
+								_COL_NAME + ", new." + _COL_CLASS + ", new." + _COL_SUBJECT + ", " + dateOf("new." + _COL_DUE) + 
+								", " + dateOf("new." + _COL_ASSIGNED) + ", NULL); END;",
+						"CREATE TRIGGER " + _TRIGGER_SEARCH + "update AFTER UPDATE ON " + _TABLE_NAME + " BEGIN " + 
+								"UPDATE " + _SEARCH_TABLE_NAME + " SET " + _COL_NAME + " = new." + _COL_NAME + ", " + _COL_CLASS + 
+								" = new." + _COL_CLASS + ", " + _COL_SUBJECT + " = new." + _COL_SUBJECT + ", " + _COL_DUE + " = " + 
+								dateOf("new." + _COL_DUE) + ", " + _COL_ASSIGNED + " = " + dateOf("new." + _COL_ASSIGNED) + 
+								" WHERE docid = new." + _COL_ID + "; END;",
+						"CREATE TRIGGER " + _TRIGGER_SEARCH + "delete AFTER DELETE ON " + _TABLE_NAME + " BEGIN " + 
+								"DELETE FROM " + _SEARCH_TABLE_NAME + " WHERE docid = old." + _COL_ID + "; END;",
+						"CREATE TRIGGER " + _TRIGGER_SEARCH + "keyword_insert AFTER INSERT ON " + _KEYWORD_TABLE_NAME + 
+								" BEGIN " + String.format(refreshKeywords, "new"),
+						"CREATE TRIGGER " + _TRIGGER_SEARCH + "keyword_delete AFTER DELETE ON " + _KEYWORD_TABLE_NAME + 
+								" BEGIN " + String.format(refreshKeywords, "old"));
+			}
+		}
+	};
  
 	
 	/**
@@ -181,7 +422,9 @@ public class HomeworkSQLiteHelper extends SQLiteOpenHelper
 	
 	
 	/**
-	 * Creates a new table {@linkplain #_TABLE_NAME} using the version schema.
+	 * Creates a new table {@linkplain #_TABLE_NAME} using the base version schema, then
+	 * brings it up to the current version by running every {@linkplain #_MIGRATIONS migration}.
+	 * This way fresh installs and upgraded installs always end up with the same schema.
 	 * 
 	 * @param database The database.
 	 * 
@@ -191,18 +434,207 @@ public class HomeworkSQLiteHelper extends SQLiteOpenHelper
 	{
 		Log.d(CodeResource.TAG_DATABASE, "EXEC: " + _DATABASE_CREATE);
 		database.execSQL(_DATABASE_CREATE);
+		this.migrate(database, _dbBaseVer, _dbVer);
 	}
 
 	
 	/**
-	 * Handles upgrading of the database in case an older version exists.
+	 * Handles upgrading of the database in case an older version exists.  Every
+	 * {@linkplain #_MIGRATIONS migration} above the old version is applied in order,
+	 * so all existing homework is kept.
 	 * 
-	 * @version 1.0.0 (Does nothing but drop the old table)
+	 * @version 2.0.0 (Runs the numbered migrations instead of dropping the old table)
 	 */
 	public void onUpgrade(SQLiteDatabase database, int oldVer, int newVer) 
 	{
-		database.execSQL("DROP TABLE IF EXISTS " + _TABLE_NAME + ";");
-		this.onCreate(database);
+		Log.i(CodeResource.TAG_DATABASE, "Upgrading database from version " + oldVer + " to " + newVer);
+		this.migrate(database, oldVer, newVer);
+	}
+	
+	
+	/**
+	 * Runs every migration that upgrades the database past {@code fromVer}, up to and including
+	 * {@code toVer}.  {@link SQLiteOpenHelper} already runs {@link #onCreate(SQLiteDatabase)} and
+	 * {@link #onUpgrade(SQLiteDatabase, int, int)} in one transaction, so the steps share it: a failing
+	 * step rolls back every step before it as well, leaving the database at the version it was opened at.
+	 * 
+	 * @param database The database to migrate.
+	 * @param fromVer The version the database is currently at.
+	 * @param toVer The version to migrate the database to.
+	 * 
+	 * @throws SQLiteException Thrown if there is no migration available for one of the versions.
+	 */
+	private void migrate(SQLiteDatabase database, int fromVer, int toVer) 
+	{
+		for(int version = fromVer + 1; version <= toVer; version++) 
+		{
+			int index = version - _dbBaseVer - 1;
+			
+			if(index < 0 || index >= _MIGRATIONS.length || _MIGRATIONS[index].getVersion() != version) 
+			{
+				throw new SQLiteException("No migration available to database version " + version);
+			}
+			
+			Log.i(CodeResource.TAG_DATABASE, "Migrating database to version " + version);
+			_MIGRATIONS[index].migrate(database);
+		}
+	}
+	
+	
+	/**
+	 * Creates all of the indexes on the {@linkplain #_TABLE_NAME main table}.
+	 * 
+	 * @param database The database to create the indexes in.
+	 */
+	private static void createIndexes(SQLiteDatabase database) 
+	{
+		createIndex(database, _IDX_DUE, _COL_DUE);
+		createIndex(database, _IDX_ASSIGNED, _COL_ASSIGNED);
+		createIndex(database, _IDX_CLASS, _COL_CLASS);
+		createIndex(database, _IDX_SUBJECT, _COL_SUBJECT);
+	}
+	
+	
+	/**
+	 * Rebuilds the {@linkplain #_TABLE_NAME main table} with a new set of columns.  SQLite cannot
+	 * change the type of or drop an existing column, so the rows are copied into a new table, the
+	 * old table is dropped and the new one takes its name.  The indexes are then recreated.  This
+	 * must only be called from within a migration, so that the whole rebuild runs in the upgrade's transaction.
+	 * 
+	 * @param database The database holding the table.
+	 * @param columns The column definitions of the rebuilt table.
+	 * @param insertColumns The columns of the rebuilt table that are filled from the old table.
+	 * @param selectColumns The expressions, in the same order, that select the values for
+	 *     {@code insertColumns} out of the old table.
+	 */
+	private static void rebuildTable(SQLiteDatabase database, String columns, String insertColumns, String selectColumns) 
+	{
+		execAll(database, 
+				"CREATE TABLE " + _TABLE_REBUILD + "(" + columns + ");",
+				"INSERT INTO " + _TABLE_REBUILD + "(" + insertColumns + ") SELECT " + selectColumns + " FROM " + _TABLE_NAME + ";",
+				"DROP TABLE " + _TABLE_NAME + ";",
+				"ALTER TABLE " + _TABLE_REBUILD + " RENAME TO " + _TABLE_NAME + ";");
+		
+		createIndexes(database);
+	}
+	
+	
+	/**
+	 * Copies the keywords of every homework out of the {@linkplain #_DELIM delimited} {@linkplain #_COL_KEYWORDS keywords}
+	 * column and into the {@linkplain #_KEYWORD_TABLE_NAME keyword table}, one row per keyword.  Keywords are
+	 * trimmed, lowercased and deduplicated the same way {@link edu.pti.students.bem9.android.hwm.Homework#addKeyword(CharSequence...)}
+	 * does it.
+	 * 
+	 * @param database The database to migrate.
+	 */
+	private static void splitKeywords(SQLiteDatabase database) 
+	{
+		Cursor cursor = database.query(_TABLE_NAME, new String[] { _COL_ID, _COL_KEYWORDS }, 
+				_COL_KEYWORDS + " IS NOT NULL", null, null, null, null);
+		SQLiteStatement insert = database.compileStatement("INSERT INTO " + _KEYWORD_TABLE_NAME + 
+				" (" + _COL_KEYWORD_HOMEWORK + ", " + _COL_KEYWORD + ") VALUES (?, ?)");
+		
+		try 
+		{
+			Set<String> keywords = new LinkedHashSet<String>();
+			
+			for(cursor.moveToFirst(); !cursor.isAfterLast(); cursor.moveToNext()) 
+			{
+				keywords.clear();
+				
+				for(String keyword : cursor.getString(1).split("" + _DELIM)) 
+				{
+					keyword = keyword.trim().toLowerCase();
+					if(!keyword.isEmpty()) keywords.add(keyword);
+				}
+				
+				for(String keyword : keywords) 
+				{
+					insert.bindLong(1, cursor.getLong(0));
+					insert.bindString(2, keyword);
+					insert.executeInsert();
+				}
+			}
+		} finally 
+		{
+			insert.close();
+			cursor.close();
+		}
+	}
+	
+	
+	/**
+	 * Executes a list of SQL statements in order.
+	 * 
+	 * @param database The database to execute the statements on.
+	 * @param sql The statements to execute.
+	 */
+	private static void execAll(SQLiteDatabase database, String ... sql) 
+	{
+		for(String statement : sql) 
+		{
+			Log.d(CodeResource.TAG_DATABASE, "EXEC: " + statement);
+			database.execSQL(statement);
+		}
+	}
+	
+	
+	/**
+	 * Builds an SQL expression that converts a {@code yyyy-MM-dd} text column into an
+	 * {@linkplain edu.pti.students.bem9.android.hwm.util.EpochDay epoch day}.  The Julian day
+	 * number of 1970-01-01 is 2440587.5, so the difference is a whole number of days.
+	 * 
+	 * @param column The column holding the date text.
+	 * 
+	 * @return The conversion expression.
+	 */
+	private static String epochDayOf(String column) 
+	{
+		return "CAST(julianday(" + column + ") - 2440587.5 AS INTEGER)";
+	}
+	
+	
+	/**
+	 * Builds an SQL expression that formats an {@linkplain edu.pti.students.bem9.android.hwm.util.EpochDay epoch day}
+	 * column as {@code yyyy-MM-dd} text.
+	 * 
+	 * @param column The column holding the epoch day.
+	 * 
+	 * @return The formatting expression.
+	 */
+	private static String dateOf(String column) 
+	{
+		return "date(" + column + " * 86400, 'unixepoch')";
+	}
+	
+	
+	/**
+	 * Builds an SQL subquery that joins every keyword of a homework with spaces, the form
+	 * keywords are indexed in by the {@linkplain #_SEARCH_TABLE_NAME search table}.
+	 * 
+	 * @param id The expression holding the homework's {@linkplain #_COL_ID ID}.
+	 * 
+	 * @return The subquery, including its parentheses.
+	 */
+	private static String keywordsOf(String id) 
+	{
+		return "(SELECT group_concat(" + _COL_KEYWORD + ", ' ') FROM " + _KEYWORD_TABLE_NAME + 
+				" WHERE " + _COL_KEYWORD_HOMEWORK + " = " + id + ")";
+	}
+	
+	
+	/**
+	 * Creates an index on a single column of the {@linkplain #_TABLE_NAME main table}.
+	 * 
+	 * @param database The database to create the index in.
+	 * @param index The name of the new index.
+	 * @param column The column to index.
+	 */
+	private static void createIndex(SQLiteDatabase database, String index, String column) 
+	{
+		String sql = "CREATE INDEX IF NOT EXISTS " + index + " ON " + _TABLE_NAME + "(" + column + ");";
+		Log.d(CodeResource.TAG_DATABASE, "EXEC: " + sql);
+		database.execSQL(sql);
 	}
 
 }
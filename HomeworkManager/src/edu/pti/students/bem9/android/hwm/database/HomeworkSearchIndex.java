@@ -0,0 +1,549 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import edu.pti.students.bem9.android.hwm.Homework;
+import edu.pti.students.bem9.android.hwm.HomeworkValue;
+import edu.pti.students.bem9.android.hwm.util.EpochDay;
+import edu.pti.students.bem9.android.hwm.util.HomeworkTable;
+
+/**
+ * An inverted index of the saved homework held in memory, which answers a search as the user types it
+ * without going through the database.  Every word of the name, class, subject, dates and keywords of a
+ * homework is a token, {@linkplain HomeworkTokens split and folded to lower case} the way the database's
+ * full-text search table splits and folds them, and the index maps each token to the sorted
+ * {@linkplain Homework#getUID() UIDs} of the homework holding it.<br>
+ *
+ * {@linkplain #search(CharSequence) Searching} merges the UIDs of every token that starts with a term of the
+ * query, and intersects the UIDs of the terms, so each term typed narrows the results.  The index also holds
+ * every indexed homework as a {@link HomeworkValue}, so the results can be {@linkplain #search(CharSequence,
+ * HomeworkSort, boolean) listed in any sort} without reading them from the database.  The homework can also be
+ * {@linkplain #listDue(int, int, HomeworkSort, boolean) filtered by due date} in memory, by scanning a columnar
+ * {@link HomeworkTable} of it, which is built again the first time it is scanned after the homework changed.  The index is
+ * {@linkplain #build(List) built} once from all homework and then kept up to date by
+ * {@linkplain #applyChanges(List) applying} every change, which only touches the tokens of the changed homework.
+ * It is not thread-safe: once built, it must only be used by one thread, such as the UI thread that receives
+ * the changes.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.3.0
+ */
+public final class HomeworkSearchIndex
+{
+	/**
+	 * The UIDs of the homework holding each token, in token order so that the tokens with a prefix are adjacent.
+	 */
+	private final TreeMap<String, Postings> postings = new TreeMap<String, Postings>();
+
+
+	/**
+	 * Every indexed homework, by UID, so that its tokens can be removed again and its results can be sorted.
+	 */
+	private final Map<Long, HomeworkValue> values = new HashMap<Long, HomeworkValue>();
+
+
+	/**
+	 * A columnar snapshot of every indexed homework, which due date filters are scanned in, or {@code null} if it
+	 * must be built again because the index changed.
+	 */
+	private HomeworkTable table = null;
+
+
+	/**
+	 * The rows found by the last scan of the {@link #table}, reused by every scan.
+	 */
+	private int[] selection = null;
+
+
+	/**
+	 * Creates a new, empty {@code HomeworkSearchIndex}.
+	 */
+	private HomeworkSearchIndex() { }
+
+
+	/**
+	 * Builds the index of a list of homework.  The UIDs of each token are gathered in list order and sorted once
+	 * at the end, so the list may be in any order.
+	 *
+	 * @param values The homework to index, each with a distinct UID.
+	 *
+	 * @return The index.
+	 */
+	public static HomeworkSearchIndex build(List<HomeworkValue> values)
+	{
+		HomeworkSearchIndex index = new HomeworkSearchIndex();
+
+		for(HomeworkValue value : values)
+		{
+			index.values.put(value.getUID(), value);
+
+			for(String token : tokensOf(value))
+			{
+				index.postingsOf(token).append(value.getUID());
+			}
+		}
+
+		for(Postings uids : index.postings.values())
+		{
+			uids.sort();
+		}
+
+		return index;
+	}
+
+
+	/**
+	 * Applies changes to the saved homework to the index.  Inserted and updated homework is indexed again from
+	 * the homework the change holds, and removed homework is taken out of the index.
+	 *
+	 * @param changes The changes, in the order they were made.
+	 */
+	public void applyChanges(List<HomeworkChange> changes)
+	{
+		for(HomeworkChange change : changes)
+		{
+			Homework hw = change.getHomework();
+
+			switch(change.getType())
+			{
+			case INSERT:
+			case UPDATE:
+				if(hw != null) this.put(HomeworkValue.of(hw));
+				break;
+
+			case DELETE:
+				this.remove(change.getUID());
+				break;
+			}
+		}
+	}
+
+
+	/**
+	 * Indexes a homework, replacing whatever was indexed for its UID before.  The tokens are left alone if
+	 * they are the same as before.
+	 *
+	 * @param value The homework.
+	 */
+	public void put(HomeworkValue value)
+	{
+		String[] tokens = tokensOf(value);
+		HomeworkValue old = this.values.get(value.getUID());
+
+		if(old != null && Arrays.equals(tokens, tokensOf(old)))
+		{
+			this.values.put(value.getUID(), value);
+			this.table = null;
+			return;
+		}
+
+		this.remove(value.getUID());
+		this.values.put(value.getUID(), value);
+		this.table = null;
+
+		for(String token : tokens)
+		{
+			this.postingsOf(token).add(value.getUID());
+		}
+	}
+
+
+	/**
+	 * Takes a homework out of the index.  Tokens no other homework holds are dropped.
+	 *
+	 * @param uid The UID of the homework.
+	 */
+	public void remove(long uid)
+	{
+		HomeworkValue value = this.values.remove(uid);
+
+		if(value == null) return;
+
+		this.table = null;
+
+		for(String token : tokensOf(value))
+		{
+			Postings uids = this.postings.get(token);
+
+			if(uids != null && uids.remove(uid) && uids.size == 0) this.postings.remove(token);
+		}
+	}
+
+
+	/**
+	 * Finds the homework where, for every term of the query, some word of the name, class, subject, dates or
+	 * keywords starts with the term, ignoring the case of ASCII letters.  Terms are separated by any character other than a letter
+	 * or digit, as they are for {@link HomeworkCriteria#searching(
+	 * CharSequence) HomeworkCriteria.searching}.
+	 *
+	 * @param query The search terms, as typed by the user.
+	 *
+	 * @return The sorted UIDs of the matching homework, or {@code null} if the query holds no terms.
+	 */
+	public long[] search(CharSequence query)
+	{
+		String[] terms = tokensOf(query.toString());
+
+		if(terms.length == 0) return null;
+
+		long[][] matches = new long[terms.length][];
+
+		for(int i = 0; i < terms.length; i++)
+		{
+			matches[i] = this.prefixMatches(terms[i]);
+
+			if(matches[i].length == 0) return matches[i];
+		}
+
+		//Intersecting the smallest sets first keeps every intermediate result small.
+		Arrays.sort(matches, new Comparator<long[]>()
+		{
+			@Override
+			public int compare(long[] lhs, long[] rhs)
+			{
+				return lhs.length < rhs.length ? -1 : (lhs.length == rhs.length ? 0 : 1);
+			}
+		});
+
+		long[] result = matches[0];
+
+		for(int i = 1; i < matches.length && result.length > 0; i++)
+		{
+			result = intersect(result, matches[i]);
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * Finds the homework matching a search, as {@link #search(CharSequence)} does, and lists it in a sort.
+	 * The results are sorted in memory, so nothing is read from the database.
+	 *
+	 * @param query The search terms, as typed by the user.
+	 * @param sort The key to sort the results by.
+	 * @param ascending True to sort in ascending order, false to sort in descending order.
+	 *
+	 * @return The rows of the matching homework, or {@code null} if the query holds no terms.
+	 */
+	public HomeworkListIndex search(CharSequence query, HomeworkSort sort, boolean ascending)
+	{
+		long[] uids = this.search(query);
+
+		if(uids == null) return null;
+
+		List<HomeworkValue> found = new ArrayList<HomeworkValue>(uids.length);
+
+		for(long uid : uids)
+		{
+			found.add(this.values.get(uid));
+		}
+
+		return HomeworkListIndex.of(found, sort, ascending);
+	}
+
+
+	/**
+	 * Finds the homework due within a range of days and lists it in a sort.  The due dates are
+	 * {@linkplain HomeworkTable#scanDue(int, int, int[]) scanned} in the {@linkplain #getTable() table} of the
+	 * index, and the results are sorted in memory, so nothing is read from the database.
+	 *
+	 * @param from The first epoch day of the range.
+	 * @param to The first epoch day after the range.
+	 * @param sort The key to sort the results by.
+	 * @param ascending True to sort in ascending order, false to sort in descending order.
+	 *
+	 * @return The rows of the homework due within the range.
+	 */
+	public HomeworkListIndex listDue(int from, int to, HomeworkSort sort, boolean ascending)
+	{
+		HomeworkTable table = this.getTable();
+
+		if(this.selection == null || this.selection.length < table.size()) this.selection = table.newSelection();
+
+		int count = table.scanDue(from, to, this.selection);
+		List<HomeworkValue> found = new ArrayList<HomeworkValue>(count);
+
+		for(int i = 0; i < count; i++)
+		{
+			found.add(this.values.get(table.getUID(this.selection[i])));
+		}
+
+		return HomeworkListIndex.of(found, sort, ascending);
+	}
+
+
+	/**
+	 * Gets a columnar table of every indexed homework, building it if the index changed since it was last built.
+	 *
+	 * @return The table, in no particular row order.
+	 */
+	public HomeworkTable getTable()
+	{
+		if(this.table == null)
+		{
+			HomeworkTable.Builder builder = new HomeworkTable.Builder(this.values.size());
+
+			for(HomeworkValue value : this.values.values())
+			{
+				builder.add(value);
+			}
+
+			this.table = builder.build();
+		}
+
+		return this.table;
+	}
+
+
+	/**
+	 * Gets the number of distinct tokens in the index.
+	 *
+	 * @return The number of tokens.
+	 */
+	public int getTokenCount()
+	{
+		return this.postings.size();
+	}
+
+
+	/**
+	 * Gets the number of indexed homework.
+	 *
+	 * @return The number of homework.
+	 */
+	public int size()
+	{
+		return this.values.size();
+	}
+
+
+	/**
+	 * Merges the UIDs of every token starting with a term.
+	 *
+	 * @param term The case folded term.
+	 *
+	 * @return The sorted, distinct UIDs of the homework holding any such token.
+	 */
+	private long[] prefixMatches(String term)
+	{
+		SortedMap<String, Postings> range = this.postings.subMap(term, term + Character.MAX_VALUE);
+		int total = 0;
+		int lists = 0;
+
+		for(Postings uids : range.values())
+		{
+			total += uids.size;
+			lists++;
+		}
+
+		long[] merged = new long[total];
+		int count = 0;
+
+		for(Postings uids : range.values())
+		{
+			System.arraycopy(uids.uids, 0, merged, count, uids.size);
+			count += uids.size;
+		}
+
+		if(lists < 2) return merged;
+
+		Arrays.sort(merged);
+		count = 0;
+
+		for(int i = 0; i < merged.length; i++)
+		{
+			if(count == 0 || merged[i] != merged[count - 1]) merged[count++] = merged[i];
+		}
+
+		return count == merged.length ? merged : Arrays.copyOf(merged, count);
+	}
+
+
+	/**
+	 * Intersects two sorted sets of UIDs.
+	 *
+	 * @param lhs The smaller set.
+	 * @param rhs The other set.
+	 *
+	 * @return The sorted UIDs found in both sets.
+	 */
+	private static long[] intersect(long[] lhs, long[] rhs)
+	{
+		long[] both = new long[lhs.length];
+		int count = 0;
+
+		for(int i = 0, j = 0; i < lhs.length && j < rhs.length;)
+		{
+			if(lhs[i] < rhs[j]) i++;
+			else if(lhs[i] > rhs[j]) j++;
+			else
+			{
+				both[count++] = lhs[i];
+				i++;
+				j++;
+			}
+		}
+
+		return count == both.length ? both : Arrays.copyOf(both, count);
+	}
+
+
+	/**
+	 * Gets the UIDs of a token, adding the token if it is new.
+	 *
+	 * @param token The token.
+	 *
+	 * @return The token's UIDs.
+	 */
+	private Postings postingsOf(String token)
+	{
+		Postings uids = this.postings.get(token);
+
+		if(uids == null)
+		{
+			uids = new Postings();
+			this.postings.put(token, uids);
+		}
+
+		return uids;
+	}
+
+
+	/**
+	 * Gets the tokens of a homework.
+	 *
+	 * @param value The homework.
+	 *
+	 * @return The sorted, distinct tokens of its name, class, subject, dates and keywords.
+	 */
+	private static String[] tokensOf(HomeworkValue value)
+	{
+		TreeSet<String> tokens = new TreeSet<String>();
+
+		HomeworkTokens.tokenize(value.getName(), tokens);
+		HomeworkTokens.tokenize(value.getAssigningClass(), tokens);
+		HomeworkTokens.tokenize(value.getSubject(), tokens);
+		HomeworkTokens.tokenize(EpochDay.toString(value.getDueDay()), tokens);
+		HomeworkTokens.tokenize(EpochDay.toString(value.getAssignedDay()), tokens);
+
+		for(int i = 0; i < value.getKeywordCount(); i++)
+		{
+			HomeworkTokens.tokenize(value.getKeyword(i), tokens);
+		}
+
+		return tokens.toArray(new String[tokens.size()]);
+	}
+
+
+	/**
+	 * Gets the tokens of a text.
+	 *
+	 * @param text The text.
+	 *
+	 * @return The sorted, distinct tokens of the text.
+	 */
+	private static String[] tokensOf(String text)
+	{
+		TreeSet<String> tokens = new TreeSet<String>();
+
+		HomeworkTokens.tokenize(text, tokens);
+
+		return tokens.toArray(new String[tokens.size()]);
+	}
+
+
+	/**
+	 * The sorted UIDs of the homework holding one token.
+	 *
+	 * @author Bridger Maskrey (bem9@students.pti.edu)
+	 *
+	 * @version 1.0.0
+	 */
+	private static final class Postings
+	{
+		/**
+		 * The UIDs, of which the first {@link #size} are used.
+		 */
+		long[] uids = new long[2];
+
+
+		/**
+		 * The number of UIDs.
+		 */
+		int size;
+
+
+		/**
+		 * Appends a UID without keeping the UIDs sorted, while building.
+		 *
+		 * @param uid The UID.
+		 */
+		void append(long uid)
+		{
+			if(this.size == this.uids.length) this.uids = Arrays.copyOf(this.uids, this.size * 2);
+
+			this.uids[this.size++] = uid;
+		}
+
+
+		/**
+		 * Sorts the appended UIDs.
+		 */
+		void sort()
+		{
+			Arrays.sort(this.uids, 0, this.size);
+		}
+
+
+		/**
+		 * Adds a UID in order, if it is not there yet.  New homework has the highest UID, so it is usually
+		 * appended at the end.
+		 *
+		 * @param uid The UID.
+		 */
+		void add(long uid)
+		{
+			int at = Arrays.binarySearch(this.uids, 0, this.size, uid);
+
+			if(at >= 0) return;
+
+			at = -at - 1;
+
+			if(this.size == this.uids.length) this.uids = Arrays.copyOf(this.uids, this.size * 2);
+
+			System.arraycopy(this.uids, at, this.uids, at + 1, this.size - at);
+			this.uids[at] = uid;
+			this.size++;
+		}
+
+
+		/**
+		 * Removes a UID.
+		 *
+		 * @param uid The UID.
+		 *
+		 * @return True if the UID was there.
+		 */
+		boolean remove(long uid)
+		{
+			int at = Arrays.binarySearch(this.uids, 0, this.size, uid);
+
+			if(at < 0) return false;
+
+			System.arraycopy(this.uids, at + 1, this.uids, at, this.size - at - 1);
+			this.size--;
+
+			return true;
+		}
+	}
+}
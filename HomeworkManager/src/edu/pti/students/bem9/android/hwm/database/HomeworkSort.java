@@ -0,0 +1,273 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_ASSIGNED;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_CLASS;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_DUE;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_ID;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkSQLiteHelper._COL_NAME;
+import edu.pti.students.bem9.android.hwm.Homework;
+import edu.pti.students.bem9.android.hwm.HomeworkValue;
+
+/**
+ * The keys homework lists can be sorted by when their {@linkplain HomeworkDataSource#getListIndex(HomeworkCriteria,
+ * HomeworkSort, boolean) rows are listed}.  Rows with equal sort keys are always ordered by their
+ * {@linkplain Homework#getUID() UID}, so every homework has exactly one position in a sorted list.  The same order
+ * can be {@linkplain #compare(Homework, Homework, boolean) evaluated} on loaded homework, so a listed
+ * {@link HomeworkListIndex} can be kept sorted as homework changes.<br>
+ *
+ * {@link #DUE} and {@link #ASSIGNED} sort by an {@linkplain edu.pti.students.bem9.android.hwm.util.EpochDay epoch day};
+ * {@link #NAME} and {@link #CLASS} sort by a text, ignoring the case of ASCII letters.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.5.0
+ */
+public enum HomeworkSort
+{
+	/**
+	 * Sorts homework by its {@linkplain Homework#getDueDay() due date}.
+	 */
+	DUE(_COL_DUE, Homework.FIELD_DUE, true),
+
+	/**
+	 * Sorts homework by its {@linkplain Homework#getAssignedDay() assigned date}.
+	 */
+	ASSIGNED(_COL_ASSIGNED, Homework.FIELD_ASSIGNED, true),
+
+	/**
+	 * Sorts homework by its {@linkplain Homework#getName() name}, ignoring case.
+	 */
+	NAME(_COL_NAME + " COLLATE NOCASE", Homework.FIELD_NAME, false),
+
+	/**
+	 * Sorts homework by its {@linkplain Homework#getAssigningClass() class}, ignoring case.  Homework
+	 * without a class sorts as if its class were empty.
+	 */
+	CLASS("IFNULL(" + _COL_CLASS + ", '') COLLATE NOCASE", Homework.FIELD_CLASS, false);
+
+
+	/**
+	 * The SQL expression that is sorted on.
+	 */
+	private final String expression;
+
+
+	/**
+	 * The {@code FIELD_} flag of the {@link Homework} field that is sorted on.
+	 */
+	private final int field;
+
+
+	/**
+	 * Whether the sort key is an epoch day rather than a text.
+	 */
+	private final boolean byDay;
+
+
+	/**
+	 * Creates a new {@code HomeworkSort} on the supplied SQL expression.
+	 *
+	 * @param expression The SQL expression to sort on.
+	 * @param field The {@code FIELD_} flag of the field the expression reads.
+	 * @param byDay True if the expression is an epoch day, false if it is a text.
+	 */
+	private HomeworkSort(String expression, int field, boolean byDay)
+	{
+		this.expression = expression;
+		this.field = field;
+		this.byDay = byDay;
+	}
+
+
+	/**
+	 * Checks if changing the supplied fields of a homework can move it to a different position in this sort.
+	 *
+	 * @param fields A bit set of {@code FIELD_} flags of {@link Homework}.
+	 *
+	 * @return True if the sorted field is one of the supplied fields.
+	 */
+	public boolean isAffectedBy(int fields)
+	{
+		return (fields & this.field) != 0;
+	}
+
+
+	/**
+	 * Compares two homework in the same order the database sorts them in, ties included.
+	 *
+	 * @param a The first homework.
+	 * @param b The second homework.
+	 * @param ascending True to compare in ascending order, false to compare in descending order.
+	 *
+	 * @return A negative number if {@code a} comes first, a positive number if {@code b} comes first,
+	 *     or 0 if both have the same UID and sort key.
+	 */
+	public int compare(Homework a, Homework b, boolean ascending)
+	{
+		int result = this.byDay ? compareInts(this.dayOf(a), this.dayOf(b)) : compareNoCase(this.textOf(a), this.textOf(b));
+
+		if(result == 0) result = a.getUID() < b.getUID() ? -1 : (a.getUID() > b.getUID() ? 1 : 0);
+
+		return ascending ? result : -result;
+	}
+
+
+	/**
+	 * Compares two homework values in the same order the database sorts them in, ties included, as
+	 * {@link #compare(Homework, Homework, boolean)} compares homework.
+	 *
+	 * @param a The first homework.
+	 * @param b The second homework.
+	 * @param ascending True to compare in ascending order, false to compare in descending order.
+	 *
+	 * @return A negative number if {@code a} comes first, a positive number if {@code b} comes first,
+	 *     or 0 if both have the same UID and sort key.
+	 */
+	public int compare(HomeworkValue a, HomeworkValue b, boolean ascending)
+	{
+		int result = this.byDay ? compareInts(this.dayOf(a), this.dayOf(b)) : compareNoCase(this.textOf(a), this.textOf(b));
+
+		if(result == 0) result = a.getUID() < b.getUID() ? -1 : (a.getUID() > b.getUID() ? 1 : 0);
+
+		return ascending ? result : -result;
+	}
+
+
+	/**
+	 * Builds the SQL {@code ORDER BY} clause (without the {@code ORDER BY} keywords) for this sort.
+	 *
+	 * @param ascending True to sort in ascending order, false to sort in descending order.
+	 *
+	 * @return The order clause.
+	 */
+	String getOrderBy(boolean ascending)
+	{
+		String direction = ascending ? " ASC" : " DESC";
+
+		return this.expression + direction + ", " + _COL_ID + direction;
+	}
+
+
+	/**
+	 * Gets the SQL expression that is sorted on, so that the sort key of every row can be selected.
+	 *
+	 * @return The sort expression.
+	 */
+	String getExpression()
+	{
+		return this.expression;
+	}
+
+
+	/**
+	 * Checks if the sort key is an epoch day, read by {@link #dayOf(Homework)}, rather than a text,
+	 * read by {@link #textOf(Homework)}.
+	 *
+	 * @return True if this sort is by a day.
+	 */
+	boolean isByDay()
+	{
+		return this.byDay;
+	}
+
+
+	/**
+	 * Gets the epoch day a homework is sorted by.  The day is chosen by the {@linkplain #field sorted field}: it is the
+	 * assigned day for {@link #ASSIGNED}, and the due day for every other sort, so sorts by a text, which never sort by
+	 * a day, read the due day.
+	 *
+	 * @param hw The homework to read the day from.
+	 *
+	 * @return The sort key of the homework.
+	 */
+	int dayOf(Homework hw)
+	{
+		return this.field == Homework.FIELD_ASSIGNED ? hw.getAssignedDay() : hw.getDueDay();
+	}
+
+
+	/**
+	 * Gets the text a homework is sorted by.  The text is chosen by the {@linkplain #field sorted field}: it is the
+	 * class for {@link #CLASS}, or an empty text if there is none, and the name for every other sort, so sorts by a
+	 * day, which never sort by a text, read the name.
+	 *
+	 * @param hw The homework to read the text from.
+	 *
+	 * @return The sort key of the homework.
+	 */
+	String textOf(Homework hw)
+	{
+		CharSequence text = this.field == Homework.FIELD_CLASS ? hw.getAssigningClass() : hw.getName();
+
+		return text == null ? "" : text.toString();
+	}
+
+
+	/**
+	 * Gets the epoch day a homework value is sorted by, as {@link #dayOf(Homework)} does for homework.
+	 *
+	 * @param value The homework to read the day from.
+	 *
+	 * @return The sort key of the homework.
+	 */
+	int dayOf(HomeworkValue value)
+	{
+		return this.field == Homework.FIELD_ASSIGNED ? value.getAssignedDay() : value.getDueDay();
+	}
+
+
+	/**
+	 * Gets the text a homework value is sorted by, as {@link #textOf(Homework)} does for homework.
+	 *
+	 * @param value The homework to read the text from.
+	 *
+	 * @return The sort key of the homework.
+	 */
+	String textOf(HomeworkValue value)
+	{
+		String text = this.field == Homework.FIELD_CLASS ? value.getAssigningClass() : value.getName();
+
+		return text == null ? "" : text;
+	}
+
+
+	/**
+	 * Compares two integers.
+	 *
+	 * @param a The first integer.
+	 * @param b The second integer.
+	 *
+	 * @return -1, 0 or 1 as {@code a} is less than, equal to or greater than {@code b}.
+	 */
+	static int compareInts(int a, int b)
+	{
+		return a < b ? -1 : (a > b ? 1 : 0);
+	}
+
+
+	/**
+	 * Compares two strings as SQLite's {@code NOCASE} collation does, folding only the ASCII letters to one case.
+	 *
+	 * @param a The first string.
+	 * @param b The second string.
+	 *
+	 * @return A negative number, zero or a positive number as {@code a} sorts before, with or after {@code b}.
+	 */
+	static int compareNoCase(String a, String b)
+	{
+		int length = Math.min(a.length(), b.length());
+
+		for(int i = 0; i < length; i++)
+		{
+			char ca = a.charAt(i);
+			char cb = b.charAt(i);
+
+			if(ca >= 'A' && ca <= 'Z') ca += 'a' - 'A';
+			if(cb >= 'A' && cb <= 'Z') cb += 'a' - 'A';
+
+			if(ca != cb) return ca - cb;
+		}
+
+		return a.length() - b.length();
+	}
+}
@@ -0,0 +1,145 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+import edu.pti.students.bem9.android.hwm.CodeResource;
+
+/**
+ * Registry of the compiled statements a {@link HomeworkDataSource} runs again and again, such as the insert,
+ * update and removal of a single homework by its UID.  All values are bound to {@code ?} parameters, so the
+ * SQL of each kind of statement never changes: it is compiled the first time it is {@linkplain #get(String)
+ * requested}, and the same compiled {@link SQLiteStatement} is handed out afterwards.  Queries are not
+ * registered; they are run with the same SQL every time, so the connection's own statement cache already
+ * prepares each of them only once.  The registry counts how often each statement is reused, and logs
+ * the counts when it is closed.<br>
+ *
+ * The registry is not thread-safe, and neither are the statements it hands out.  It is confined to the thread
+ * its data source runs on, which is the {@linkplain HomeworkRepository repository's} single background thread.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.2.0
+ */
+final class HomeworkStatements
+{
+	/**
+	 * The database the statements are compiled against.
+	 */
+	private final SQLiteDatabase database;
+
+
+	/**
+	 * The registered SQL, mapped to its entry.
+	 */
+	private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+
+	/**
+	 * Creates a new, empty {@code HomeworkStatements} registry.
+	 *
+	 * @param database The open database to compile statements against.
+	 */
+	HomeworkStatements(SQLiteDatabase database)
+	{
+		this.database = database;
+	}
+
+
+	/**
+	 * Gets the compiled statement for the supplied SQL, compiling it if it has not been requested
+	 * before.  Its bindings are cleared, so every parameter must be bound again before it is executed.
+	 * The statement must not be closed by the caller.
+	 *
+	 * @param sql The SQL of the statement. All values must be {@code ?} parameters.
+	 *
+	 * @return The compiled statement.
+	 */
+	SQLiteStatement get(String sql)
+	{
+		Entry entry = this.entries.get(sql);
+
+		if(entry == null)
+		{
+			entry = new Entry(this.database.compileStatement(sql));
+			this.entries.put(sql, entry);
+		} else
+		{
+			entry.statement.clearBindings();
+		}
+
+		entry.uses++;
+
+		return entry.statement;
+	}
+
+
+	/**
+	 * Gets how often the statement of the supplied SQL has been reused since it was compiled.
+	 *
+	 * @param sql The SQL of a statement.
+	 *
+	 * @return The number of uses after the first, or 0 if the statement has never been requested.
+	 */
+	int getReuseCount(String sql)
+	{
+		Entry entry = this.entries.get(sql);
+
+		return entry == null ? 0 : entry.uses - 1;
+	}
+
+
+	/**
+	 * Closes every compiled statement and logs how often each one was reused.  The registry must not be
+	 * used afterwards.
+	 */
+	void close()
+	{
+		for(Map.Entry<String, Entry> registered : this.entries.entrySet())
+		{
+			Entry entry = registered.getValue();
+
+			Log.d(CodeResource.TAG_DATABASE, "Reused " + (entry.uses - 1) + " time(s): " + registered.getKey());
+
+			entry.statement.close();
+		}
+
+		this.entries.clear();
+	}
+
+
+	/**
+	 * The compiled statement and use count of one registered SQL string.
+	 *
+	 * @author Bridger Maskrey (bem9@students.pti.edu)
+	 *
+	 * @version 1.0.0
+	 */
+	private static final class Entry
+	{
+		/**
+		 * The compiled statement.
+		 */
+		final SQLiteStatement statement;
+
+
+		/**
+		 * The number of times the statement has been requested.
+		 */
+		int uses = 0;
+
+
+		/**
+		 * Creates a new entry for a compiled statement that has not been used yet.
+		 *
+		 * @param statement The compiled statement.
+		 */
+		Entry(SQLiteStatement statement)
+		{
+			this.statement = statement;
+		}
+	}
+}
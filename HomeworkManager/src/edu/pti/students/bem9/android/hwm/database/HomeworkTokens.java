@@ -0,0 +1,107 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Splits text into search tokens the way the {@code simple} tokenizer of the
+ * {@linkplain HomeworkSQLiteHelper#_SEARCH_TABLE_NAME full-text search table} does, so that a search
+ * answered in memory finds exactly what the same search finds in the database.  Every ASCII character
+ * other than a letter or digit separates tokens, every other character is part of one, and only the
+ * ASCII letters are {@linkplain #foldCase(String) folded} to lower case.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.0.0
+ */
+public final class HomeworkTokens
+{
+	/**
+	 * This class only contains static functions and should never be instantiated.
+	 */
+	private HomeworkTokens() { }
+
+
+	/**
+	 * Splits a text into its {@linkplain #foldCase(String) case folded} tokens, in the order they appear.
+	 *
+	 * @param text The text, or {@code null}.
+	 *
+	 * @return The tokens, which may repeat.
+	 */
+	public static List<String> split(String text)
+	{
+		List<String> tokens = new ArrayList<String>();
+
+		tokenize(text, tokens);
+
+		return tokens;
+	}
+
+
+	/**
+	 * Splits a text into {@linkplain #foldCase(String) case folded} tokens.
+	 *
+	 * @param text The text, or {@code null}.
+	 * @param tokens Receives the tokens.
+	 */
+	public static void tokenize(String text, Collection<String> tokens)
+	{
+		if(text == null) return;
+
+		text = foldCase(text);
+		int start = 0;
+
+		for(int i = 0; i <= text.length(); i++)
+		{
+			if(i < text.length() && !isSeparator(text.charAt(i))) continue;
+
+			if(i > start) tokens.add(text.substring(start, i));
+
+			start = i + 1;
+		}
+	}
+
+
+	/**
+	 * Folds a text to lower case the way the {@code simple} tokenizer of the full-text search table does:
+	 * only the ASCII letters {@code A} to {@code Z} are folded, and every other character is kept as it is.
+	 * Unlike {@link String#toLowerCase()}, this does not depend on the locale, and a search for a word with
+	 * a non-ASCII capital only matches that same capital, just as it does in the database.
+	 *
+	 * @param text The text.
+	 *
+	 * @return The folded text.
+	 */
+	public static String foldCase(String text)
+	{
+		char[] chars = null;
+
+		for(int i = 0; i < text.length(); i++)
+		{
+			char c = text.charAt(i);
+
+			if(c < 'A' || c > 'Z') continue;
+
+			if(chars == null) chars = text.toCharArray();
+
+			chars[i] = (char) (c + 'a' - 'A');
+		}
+
+		return chars == null ? text : new String(chars);
+	}
+
+
+	/**
+	 * Checks if a character separates tokens.
+	 *
+	 * @param c The character.
+	 *
+	 * @return True if it is an ASCII character other than a letter or digit.
+	 */
+	public static boolean isSeparator(char c)
+	{
+		return c < 0x80 && !(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z') && !(c >= '0' && c <= '9');
+	}
+}
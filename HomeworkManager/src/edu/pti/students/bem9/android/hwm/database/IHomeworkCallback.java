@@ -0,0 +1,31 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+/**
+ * Receives the result of work done by a {@link HomeworkRepository} on its background thread.
+ * The result is always delivered on the main (UI) thread, so implementations may update
+ * views directly.  Work that fails delivers its {@linkplain #onError(Exception) error} instead,
+ * so every piece of work is answered exactly once.
+ * 
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ * 
+ * @version 1.1.0
+ *
+ * @param <T> The type of the result.
+ */
+public interface IHomeworkCallback<T>
+{
+	/**
+	 * Called on the main thread once the work has finished.
+	 * 
+	 * @param result The result of the work.
+	 */
+	void onResult(T result);
+	
+	
+	/**
+	 * Called on the main thread instead of {@link #onResult(Object)} if the work failed.
+	 * 
+	 * @param error The exception the work failed with.
+	 */
+	void onError(Exception error);
+}
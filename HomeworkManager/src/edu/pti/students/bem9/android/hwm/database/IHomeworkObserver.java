@@ -0,0 +1,22 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import java.util.List;
+
+/**
+ * Is told about every change a {@link HomeworkDataSource} makes to the saved homework.  Observers
+ * registered on a {@link HomeworkDataSource} are called on the thread that made the change, while
+ * observers registered on a {@link HomeworkRepository} are always called on the main (UI) thread.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.0.0
+ */
+public interface IHomeworkObserver
+{
+	/**
+	 * Called once the changes of a single operation have been saved.
+	 *
+	 * @param changes The changes, in the order they were made.
+	 */
+	void onHomeworkChanged(List<HomeworkChange> changes);
+}
@@ -5,14 +5,18 @@ import android.support.v4.app.Fragment;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.ArrayAdapter;
+import android.widget.AutoCompleteTextView;
 import edu.pti.bem9.android.hwm.R;
+import edu.pti.students.bem9.android.hwm.HomeworkManager;
 
 /**
- * Creates a new view and inflates the homework creation layout.
+ * Creates a new view and inflates the homework creation layout.  The class and subject fields suggest the
+ * classes and subjects of the saved homework, most used first.
  * 
  * @author Bridger Maskrey (bem9@students.pti.edu)
  * 
- * @version 1.0.0
+ * @version 1.1.0
  */
 public class HomeworkCreateFragment extends Fragment {
 
@@ -21,9 +25,29 @@ public class HomeworkCreateFragment extends Fragment {
 	 */
     public HomeworkCreateFragment() { }
 
+    /**
+     * Gives the class or subject field the current {@linkplain HomeworkManager#getClassSuggestions() suggestions}
+     * each time it gains focus, so that they include homework saved since the fragment was created.
+     */
+    private final View.OnFocusChangeListener suggestionListener = new View.OnFocusChangeListener() 
+    {
+		@Override
+		public void onFocusChange(View v, boolean hasFocus) 
+		{
+			if(!hasFocus || !(HomeworkCreateFragment.this.getActivity() instanceof HomeworkManager)) return;
+			
+			HomeworkManager hwm = (HomeworkManager) HomeworkCreateFragment.this.getActivity();
+			String[] suggestions = v.getId() == R.id.hcreate_class_section_edit ? 
+					hwm.getClassSuggestions() : hwm.getSubjectSuggestions();
+			
+			((AutoCompleteTextView) v).setAdapter(new ArrayAdapter<String>(hwm, 
+					android.R.layout.simple_dropdown_item_1line, suggestions));
+		}
+	};
+    
     /**
      * Called when this fragment is shown.  Sets the layout of the root view
-     * to the homework creation fragment.
+     * to the homework creation fragment, and hooks up the suggestions of the class and subject fields.
      * 
      * @param inflater The inflater with which to inflate the layout.
      * @param container The main container of the fragment.
@@ -36,6 +60,9 @@ public class HomeworkCreateFragment extends Fragment {
             Bundle savedInstanceState) {
         View rootView = inflater.inflate(R.layout.hwm_layout_fragment_hcreate, container, false);
         
+        rootView.findViewById(R.id.hcreate_class_section_edit).setOnFocusChangeListener(this.suggestionListener);
+        rootView.findViewById(R.id.hcreate_subject_section_edit).setOnFocusChangeListener(this.suggestionListener);
+        
         return rootView;
     }    
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -5,6 +5,7 @@ import android.annotation.SuppressLint;
 import android.app.AlertDialog;
 import android.app.Dialog;
 import android.app.DialogFragment;
+import android.content.Context;
 import android.content.DialogInterface;
 import android.os.Bundle;
 import android.view.LayoutInflater;
@@ -14,6 +15,8 @@ import android.widget.Toast;
 import edu.pti.bem9.android.hwm.R;
 import edu.pti.students.bem9.android.hwm.Homework;
 import edu.pti.students.bem9.android.hwm.HomeworkManager;
+import edu.pti.students.bem9.android.hwm.HomeworkValue;
+import edu.pti.students.bem9.android.hwm.database.IHomeworkCallback;
 import edu.pti.students.bem9.android.hwm.fragment.date.IDateEdit;
 
 /**
@@ -37,6 +40,12 @@ public class HomeworkInformationDialog extends DialogFragment implements IDateEd
 	private long homeworkUID;
 	
 	
+	/**
+	 * The homework being displayed, or {@code null} until it has been loaded from the database.
+	 */
+	private Homework homework = null;
+	
+	
 	/**
 	 * Determines whqat type of action should be performed when a {@linkplain DateFragment date picker}
 	 * completes an action on this object.
@@ -105,7 +114,20 @@ public class HomeworkInformationDialog extends DialogFragment implements IDateEd
 	 */
 	public HomeworkInformationDialog setHomeworkUID(Homework hw) 
 	{
-		this.homeworkUID = hw.getUID();
+		return this.setHomeworkUID(hw.getUID());
+	}
+	
+	
+	/**
+	 * Sets the value of the dialog's homework UID. This is most efficiently called directly after
+	 * the constructor.
+	 * 
+	 * @param uid The {@linkplain Homework#getUID() UID} of the homework to display.
+	 * @return This instance, with the UID updated.
+	 */
+	public HomeworkInformationDialog setHomeworkUID(long uid) 
+	{
+		this.homeworkUID = uid;
 		return this;
 	}
 	
@@ -129,8 +151,22 @@ public class HomeworkInformationDialog extends DialogFragment implements IDateEd
 			}
 		}
 		
-		//Retrieve the Homework object from the database.
-		Homework homework = ((HomeworkManager) this.getActivity()).getDataSource().getHWFromID(this.homeworkUID);
+		//Retrieve the Homework object from the database in the background. The fields are filled in once it arrives.
+		this.homework = null;
+		((HomeworkManager) this.getActivity()).getRepository().getHomework(this.homeworkUID, new IHomeworkCallback<Homework>() 
+		{
+			@Override
+			public void onResult(Homework result) 
+			{
+				HomeworkInformationDialog.this.showHomework(result);
+			}
+			
+			@Override
+			public void onError(Exception error) 
+			{
+				HomeworkInformationDialog.this.showLoadFailure();
+			}
+		});
 		
 		AlertDialog.Builder adb = new AlertDialog.Builder(this.getActivity());
 		
@@ -140,11 +176,77 @@ public class HomeworkInformationDialog extends DialogFragment implements IDateEd
 		adb.setView(this.mainView);
 		
 		//Setup basic dialog
-		adb.setTitle(this.getString(R.string.hinfo_dialog_title) + " \"" + homework.getName() + "\"")
+		adb.setTitle(this.getString(R.string.hinfo_dialog_title))
 		   .setNegativeButton(android.R.string.cancel, this.cancel)
 		   .setNeutralButton(R.string.app_delete, this.delete)
 		   .setPositiveButton(R.string.app_edit, this.edit);
 		
+		return adb.create();
+	}
+	
+	
+	/**
+	 * Tells the user that the homework could not be loaded, and dismisses the dialog, which has nothing to show.
+	 */
+	private void showLoadFailure() 
+	{
+		if(!this.isAdded() || this.getDialog() == null) return;
+		
+		Toast.makeText(this.getActivity(), R.string.toast_message_hinfo_load_failure, Toast.LENGTH_LONG).show();
+		this.getDialog().dismiss();
+	}
+	
+	
+	/**
+	 * Creates a callback that tells the user if a change made from this dialog could not be saved.  The dialog
+	 * is dismissed by then, so the message is shown in the application's context.
+	 * 
+	 * @param context The context of the activity the dialog belongs to.
+	 * @param <T> The type of the result of the change.
+	 * 
+	 * @return The callback.
+	 */
+	private static <T> IHomeworkCallback<T> saveFailureCallback(Context context) 
+	{
+		final Context app = context.getApplicationContext();
+		
+		return new IHomeworkCallback<T>() 
+		{
+			@Override
+			public void onResult(T result) 
+			{
+				//The list is updated by the change feed.
+			}
+			
+			@Override
+			public void onError(Exception error) 
+			{
+				Toast.makeText(app, R.string.toast_message_hinfo_failure, Toast.LENGTH_LONG).show();
+			}
+		};
+	}
+	
+	
+	/**
+	 * Fills the dialog in with the information of the loaded homework.  If the homework no longer
+	 * exists, the dialog is dismissed.
+	 * 
+	 * @param homework The homework loaded from the database, or {@code null} if it was not found.
+	 */
+	private void showHomework(Homework homework) 
+	{
+		//The dialog may have been closed while the homework was loading.
+		if(!this.isAdded() || this.getDialog() == null) return;
+		
+		if(homework == null) 
+		{
+			this.getDialog().dismiss();
+			return;
+		}
+		
+		this.homework = homework;
+		this.getDialog().setTitle(this.getString(R.string.hinfo_dialog_title) + " \"" + homework.getName() + "\"");
+		
 		//Retrieve information fields and set the text to information gleaned from the homework
 		((EditText) this.mainView.findViewById(R.id.hinfo_name_section_edit)).setText(homework.getName());
 		((EditText) this.mainView.findViewById(R.id.hinfo_class_section_edit)).setText(homework.getAssigningClass());
@@ -166,8 +268,6 @@ public class HomeworkInformationDialog extends DialogFragment implements IDateEd
 			if(i > 0) keywords.append("; ");
 			keywords.append(homework.getKeywords().get(i));
 		}
-		
-		return adb.create();
 	}
 	
 	/**
@@ -213,8 +313,8 @@ public class HomeworkInformationDialog extends DialogFragment implements IDateEd
 			EditText assignedDate = (EditText) HomeworkInformationDialog.this.mainView.findViewById(R.id.hinfo_assigned_section_edit);
 			EditText keywords = (EditText) HomeworkInformationDialog.this.mainView.findViewById(R.id.hinfo_main_keywords_edit);
 			
-			//Retrieve the homework to edit from the datasource
-			Homework hw = hwm.getDataSource().getHWFromID(HomeworkInformationDialog.this.homeworkUID);
+			//If the homework has not loaded yet, there is nothing to edit.
+			if(HomeworkInformationDialog.this.homework == null) return;
 			
 			//Check for empty date / name
 	    	String cannotComplete = hwm.getString(R.string.toast_message_hinfo_failure) + "\n";
@@ -254,15 +354,21 @@ public class HomeworkInformationDialog extends DialogFragment implements IDateEd
 	    	//Split keywords
 			String[] keysSplit = keywords.getText().toString().split(";");
 			
-			//Execute the edit command.
-			hwm.getDataSource().editHomework(hw, name.getText().toString(), 
-					Date.valueOf(dueDateFormatter[2] + "-" + dueDateFormatter[1] + "-" + dueDateFormatter[0]),
-					Date.valueOf(assignedDateFormatter[2] + "-" + assignedDateFormatter[1] + "-" + assignedDateFormatter[0]),
-					className.getText().toString(), subject.getText().toString(), keysSplit);
+			//Apply the edits to a copy. The loaded homework is the one the data source caches and the list shows, so it
+			//must keep its saved values until the edit is written; the copy replaces it once it is.
+			//Only fields that actually change are marked for saving.
+			Homework hw = HomeworkValue.of(HomeworkInformationDialog.this.homework).toHomework();
+			hw.setName(name.getText().toString());
+			hw.setDueDate(Date.valueOf(dueDateFormatter[2] + "-" + dueDateFormatter[1] + "-" + dueDateFormatter[0]));
+			hw.setAssignedDate(Date.valueOf(assignedDateFormatter[2] + "-" + assignedDateFormatter[1] + "-" + assignedDateFormatter[0]));
+			hw.setAssigningClass(className.getText().toString());
+			hw.setSubject(subject.getText().toString());
+			hw.replaceKeywords(keysSplit);
 			
-			//Reset the list and dismiss the dialog.
-			hwm.resetHomeworkList();
+			//Write the changed columns in place, in the background.
+			hwm.getRepository().updateHomework(hw, HomeworkInformationDialog.<Boolean>saveFailureCallback(hwm));
 			
+			//Dismiss the dialog. The list is updated once the edit is saved.
 			dialog.dismiss();
 		}
 	};
@@ -283,10 +389,9 @@ public class HomeworkInformationDialog extends DialogFragment implements IDateEd
 		{
 			HomeworkManager hwm = (HomeworkManager) getActivity();
 			
-			Homework hw = hwm.getDataSource().getHWFromID(HomeworkInformationDialog.this.homeworkUID);
-			hwm.getDataSource().deleteHomework(hw);
+			Homework hw = HomeworkInformationDialog.this.homework;
+			if(hw != null) hwm.getRepository().deleteHomework(hw, HomeworkInformationDialog.<Homework>saveFailureCallback(hwm));
 			
-			hwm.resetHomeworkList();
 			dialog.dismiss();
 		}
 	};
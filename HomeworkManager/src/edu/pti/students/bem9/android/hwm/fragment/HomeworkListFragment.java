@@ -18,7 +18,7 @@ import edu.pti.students.bem9.android.hwm.util.HomeworkListAdapter;
 /**
  * A placeholder fragment containing a simple view.
  * @author Bridger Maskrey (bem9@students.pti.edu)
- * @version 1.3.0
+ * @version 1.7.1
  */
 public class HomeworkListFragment extends Fragment
 {
@@ -44,8 +44,11 @@ public class HomeworkListFragment extends Fragment
         
         //Set up the list view
         ListView mainHomeworkList = (ListView) rootView.findViewById(R.id.fragment_main_listlayout);
-        HomeworkListAdapter adapter = new HomeworkListAdapter((HomeworkManager) this.getActivity());
-        mainHomeworkList.setAdapter(adapter);
+        HomeworkManager hwm = (HomeworkManager) this.getActivity();
+        mainHomeworkList.setAdapter(new HomeworkListAdapter(hwm));
+        
+        //The adapter indexes its rows in sections, so long lists can be fast-scrolled to a date range
+        mainHomeworkList.setFastScrollEnabled(true);
         
         //Set up the list view click functions
         mainHomeworkList.setOnItemClickListener(new ListView.OnItemClickListener() 
@@ -54,19 +57,16 @@ public class HomeworkListFragment extends Fragment
         	 * Displays a new {@link HomeworkInformationDialog} when a list tiem is pressed by the
         	 * user.
         	 * 
-        	 * @param parent The parent {@link AdapterView}. This is always assumed to be an 
-        	 *     {@code AdapterView<}{@link HomeworkListAdapter}{@code >} for simplicity.
+        	 * @param parent The parent {@link AdapterView}. (unused)
         	 * @param view The {@link ListView}. (unused)
-        	 * @param position The position in the {@link ListView} of the item that was clicked.
-        	 * @param id unused
+        	 * @param position The position in the {@link ListView} of the item that was clicked. (unused)
+        	 * @param id The {@linkplain Homework#getUID() UID} of the homework that was clicked, which the
+        	 *     list adapter uses as the item ID.
         	 */
 			@Override
 			public void onItemClick(AdapterView<?> parent, View view, int position, long id) 
 			{
-				HomeworkListAdapter adapter = (HomeworkListAdapter) parent.getAdapter();
-				Homework hw = adapter.getItem(position);
-				
-				HomeworkInformationDialog dlg = new HomeworkInformationDialog().setHomeworkUID(hw);
+				HomeworkInformationDialog dlg = new HomeworkInformationDialog().setHomeworkUID(id);
 				getActivity().getFragmentManager().beginTransaction().add(dlg, CodeResource.TAG_DIALOG_INFO).commit();
 			}
 		});
@@ -92,9 +92,11 @@ public class HomeworkListFragment extends Fragment
 			
 			
 			/**
-			 * Resets the homework list to the values stored in the if the
-			 * query text is empty.  Does not automatically search as the search operation 
-			 * is too slow.
+			 * Searches as the user types, so the list narrows with every letter entered.  The search
+			 * is answered in memory by the activity's {@linkplain edu.pti.students.bem9.android.hwm.database.HomeworkSearchIndex 
+			 * search index}, which is fast enough to run on every change.  Only until that index is built is
+			 * the database's full-text search table queried instead.
+			 * If the query text is empty, the homework list is reset to the values stored in the database.
 			 * @param queryText The keyphrase to search
 			 */
 			@Override
@@ -103,9 +105,12 @@ public class HomeworkListFragment extends Fragment
 				if(queryText.isEmpty())
 				{
 					((HomeworkManager) getActivity()).resetHomeworkList();
+				} else
+				{
+					((HomeworkManager) getActivity()).searchHomeworkList(queryText);
 				}
 				
-				return false;
+				return true;
 			}
 		});
         
@@ -140,4 +145,4 @@ public class HomeworkListFragment extends Fragment
         
         return rootView;
     }    
-}
\ No newline at end of file
+}
@@ -0,0 +1,232 @@
+package edu.pti.students.bem9.android.hwm.util;
+
+import static edu.pti.students.bem9.android.hwm.database.HomeworkDataSource.STATUS_DUE_TODAY;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkDataSource.STATUS_OVERDUE;
+import static edu.pti.students.bem9.android.hwm.database.HomeworkDataSource.STATUS_UPCOMING;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import android.os.Handler;
+import android.os.Looper;
+import edu.pti.students.bem9.android.hwm.Homework;
+
+/**
+ * Decides whether homework is overdue, due today or upcoming.  Today's {@linkplain EpochDay epoch day}
+ * is worked out once and kept until local midnight, so classifying a homework is a single comparison
+ * of its due day.  The statuses are the {@code STATUS_} constants of
+ * {@link edu.pti.students.bem9.android.hwm.database.HomeworkDataSource HomeworkDataSource}, which are also
+ * used to {@linkplain edu.pti.students.bem9.android.hwm.database.HomeworkDataSource#countByDueStatus(int) count}
+ * and {@linkplain edu.pti.students.bem9.android.hwm.database.HomeworkCriteria#withDueStatus(int, int) select}
+ * homework by status in the database.<br>
+ *
+ * One classifier is shared by the whole application.  While any {@link IDayChangeListener} is registered,
+ * it is woken at local midnight to tell the listeners that the day changed.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.0.0
+ */
+public final class DueStatusClassifier
+{
+	/**
+	 * The shared classifier, or {@code null} until it is first used.
+	 */
+	private static DueStatusClassifier instance = null;
+
+
+	/**
+	 * Handler that runs the midnight refresh on the main thread.
+	 */
+	private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+
+	/**
+	 * The listeners told when the day changes.  This is only used on the main thread.
+	 */
+	private final List<IDayChangeListener> listeners = new ArrayList<IDayChangeListener>();
+
+
+	/**
+	 * Today's epoch day.
+	 */
+	private int today;
+
+
+	/**
+	 * The time, in milliseconds since the epoch, of the local midnight that ends {@link #today}.
+	 */
+	private long nextMidnight;
+
+
+	/**
+	 * The day the midnight refresh was scheduled on.  The listeners are told about a change if today differs
+	 * from it when the refresh runs, even if today was already worked out again in between.
+	 */
+	private int scheduledDay;
+
+
+	/**
+	 * Refreshes today at midnight and tells the listeners, then waits for the next midnight.
+	 */
+	private final Runnable midnight = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			DueStatusClassifier classifier = DueStatusClassifier.this;
+			int current = classifier.today();
+
+			if(current != classifier.scheduledDay)
+			{
+				for(IDayChangeListener listener : new ArrayList<IDayChangeListener>(classifier.listeners))
+				{
+					listener.onDayChanged(current);
+				}
+			}
+
+			classifier.schedule();
+		}
+	};
+
+
+	/**
+	 * Creates the classifier, working out today.
+	 */
+	private DueStatusClassifier()
+	{
+		this.refresh();
+	}
+
+
+	/**
+	 * Gets the classifier shared by the application.
+	 *
+	 * @return The shared classifier.
+	 */
+	public static synchronized DueStatusClassifier getInstance()
+	{
+		if(instance == null) instance = new DueStatusClassifier();
+
+		return instance;
+	}
+
+
+	/**
+	 * Gets today's epoch day.  It is only worked out again once local midnight has passed.
+	 *
+	 * @return Today's epoch day.
+	 */
+	public synchronized int today()
+	{
+		if(System.currentTimeMillis() >= this.nextMidnight) this.refresh();
+
+		return this.today;
+	}
+
+
+	/**
+	 * Classifies a due day relative to today.
+	 *
+	 * @param dueDay The epoch day the homework is due on.
+	 *
+	 * @return {@code STATUS_OVERDUE}, {@code STATUS_DUE_TODAY} or {@code STATUS_UPCOMING}.
+	 */
+	public int classify(int dueDay)
+	{
+		return classify(dueDay, this.today());
+	}
+
+
+	/**
+	 * Classifies a homework relative to today.
+	 *
+	 * @param hw The homework.
+	 *
+	 * @return {@code STATUS_OVERDUE}, {@code STATUS_DUE_TODAY} or {@code STATUS_UPCOMING}.
+	 */
+	public int classify(Homework hw)
+	{
+		return classify(hw.getDueDay(), this.today());
+	}
+
+
+	/**
+	 * Classifies a due day relative to a given day.
+	 *
+	 * @param dueDay The epoch day the homework is due on.
+	 * @param day The epoch day to treat as today.
+	 *
+	 * @return {@code STATUS_OVERDUE}, {@code STATUS_DUE_TODAY} or {@code STATUS_UPCOMING}.
+	 */
+	public static int classify(int dueDay, int day)
+	{
+		if(dueDay < day) return STATUS_OVERDUE;
+
+		return dueDay == day ? STATUS_DUE_TODAY : STATUS_UPCOMING;
+	}
+
+
+	/**
+	 * Registers a listener to be told when the day changes.  This must be called on the main thread.
+	 *
+	 * @param listener The listener to add.
+	 */
+	public void addListener(IDayChangeListener listener)
+	{
+		this.listeners.add(listener);
+
+		if(this.listeners.size() == 1) this.schedule();
+	}
+
+
+	/**
+	 * Unregisters a listener added by {@link #addListener(IDayChangeListener)}.  Once no listener is left,
+	 * the classifier is no longer woken at midnight.  This must be called on the main thread.
+	 *
+	 * @param listener The listener to remove.
+	 */
+	public void removeListener(IDayChangeListener listener)
+	{
+		this.listeners.remove(listener);
+
+		if(this.listeners.isEmpty()) this.mainHandler.removeCallbacks(this.midnight);
+	}
+
+
+	/**
+	 * Schedules the midnight refresh for the end of today.
+	 */
+	private void schedule()
+	{
+		this.mainHandler.removeCallbacks(this.midnight);
+		this.scheduledDay = this.today();
+
+		//Waking slightly after midnight makes sure the new day has begun.
+		long delay;
+		synchronized(this)
+		{
+			delay = Math.max(0, this.nextMidnight - System.currentTimeMillis()) + 1000;
+		}
+
+		this.mainHandler.postDelayed(this.midnight, delay);
+	}
+
+
+	/**
+	 * Works out today and the local midnight that ends it.
+	 */
+	private synchronized void refresh()
+	{
+		Calendar cal = Calendar.getInstance();
+		this.today = EpochDay.fromCalendar(cal);
+
+		cal.set(Calendar.HOUR_OF_DAY, 0);
+		cal.set(Calendar.MINUTE, 0);
+		cal.set(Calendar.SECOND, 0);
+		cal.set(Calendar.MILLISECOND, 0);
+		cal.add(Calendar.DAY_OF_MONTH, 1);
+		this.nextMidnight = cal.getTimeInMillis();
+	}
+}
@@ -0,0 +1,206 @@
+package edu.pti.students.bem9.android.hwm.util;
+
+import java.sql.Date;
+import java.util.Calendar;
+
+/**
+ * Conversion functions between calendar dates and <i>epoch days</i>, the number of days
+ * since 1970-01-01.  Epoch days are how due and assigned dates are stored in the database
+ * and carried by {@link edu.pti.students.bem9.android.hwm.Homework Homework}, so that
+ * comparing two dates is a single integer comparison and never requires parsing.<br>
+ *
+ * All conversions work on the local calendar date, so an epoch day always represents the
+ * same day the user picked regardless of the device's time zone.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.0.0
+ */
+public final class EpochDay
+{
+	/**
+	 * Number of days from 0000-03-01 to 1970-01-01 in the proleptic Gregorian calendar.
+	 */
+	private static final int _epochOffset = 719468;
+
+
+	/**
+	 * Number of days in one 400 year Gregorian era.
+	 */
+	private static final int _eraDays = 146097;
+
+
+	/**
+	 * This class only contains static functions and should never be instantiated.
+	 */
+	private EpochDay() { }
+
+
+	/**
+	 * Converts a calendar date into an epoch day.
+	 *
+	 * @param year The full year (e.g. 2014).
+	 * @param month The month of the year, starting at 1 for January.
+	 * @param day The day of the month, starting at 1.
+	 *
+	 * @return The number of days between 1970-01-01 and the given date.
+	 */
+	public static int fromCivil(int year, int month, int day)
+	{
+		year -= month <= 2 ? 1 : 0;
+		int era = (year >= 0 ? year : year - 399) / 400;
+		int yearOfEra = year - era * 400;
+		int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+		return era * _eraDays + dayOfEra - _epochOffset;
+	}
+
+
+	/**
+	 * Converts the local calendar date of the supplied date into an epoch day.
+	 *
+	 * @param date The date to convert.
+	 *
+	 * @return The epoch day of the date.
+	 */
+	public static int fromDate(java.util.Date date)
+	{
+		Calendar cal = Calendar.getInstance();
+		cal.setTime(date);
+
+		return fromCalendar(cal);
+	}
+
+
+	/**
+	 * Converts the calendar date held by the supplied calendar into an epoch day.
+	 *
+	 * @param cal The calendar to convert.
+	 *
+	 * @return The epoch day of the calendar's date.
+	 */
+	public static int fromCalendar(Calendar cal)
+	{
+		return fromCivil(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH));
+	}
+
+
+	/**
+	 * Parses a date in SQL date format (yyyy-MM-dd) into an epoch day.  Leading zeroes on
+	 * the month and day are optional.
+	 *
+	 * @param sqlDate The date string to parse.
+	 *
+	 * @return The epoch day of the date.
+	 *
+	 * @throws IllegalArgumentException Thrown if the string is not a valid SQL date.
+	 */
+	public static int parse(CharSequence sqlDate)
+	{
+		String[] split = sqlDate.toString().trim().split("-");
+
+		if(split.length != 3)
+		{
+			throw new IllegalArgumentException("Not a date in yyyy-MM-dd format: " + sqlDate);
+		}
+
+		try
+		{
+			int month = Integer.parseInt(split[1]);
+			int day = Integer.parseInt(split[2]);
+
+			if(month < 1 || month > 12 || day < 1 || day > 31)
+			{
+				throw new IllegalArgumentException("Not a date in yyyy-MM-dd format: " + sqlDate);
+			}
+
+			return fromCivil(Integer.parseInt(split[0]), month, day);
+		} catch(NumberFormatException exc)
+		{
+			throw new IllegalArgumentException("Not a date in yyyy-MM-dd format: " + sqlDate, exc);
+		}
+	}
+
+
+	/**
+	 * Gets the epoch day of the current local date.
+	 *
+	 * @return Today's epoch day.
+	 */
+	public static int today()
+	{
+		return fromCalendar(Calendar.getInstance());
+	}
+
+
+	/**
+	 * Converts an epoch day into a {@link java.sql.Date Date} at local midnight of that day.
+	 *
+	 * @param epochDay The epoch day to convert.
+	 *
+	 * @return A new {@code Date} representing the epoch day.
+	 */
+	public static Date toDate(int epochDay)
+	{
+		int[] civil = toCivil(epochDay);
+
+		Calendar cal = Calendar.getInstance();
+		cal.clear();
+		cal.set(civil[0], civil[1] - 1, civil[2]);
+
+		return new Date(cal.getTimeInMillis());
+	}
+
+
+	/**
+	 * Formats an epoch day in SQL date format (yyyy-MM-dd), exactly as {@link java.sql.Date#toString()}
+	 * would, without allocating any intermediate objects besides the result.
+	 *
+	 * @param epochDay The epoch day to format.
+	 *
+	 * @return The formatted date.
+	 */
+	public static String toString(int epochDay)
+	{
+		int[] civil = toCivil(epochDay);
+		char[] out = new char[10];
+
+		out[0] = (char) ('0' + civil[0] / 1000 % 10);
+		out[1] = (char) ('0' + civil[0] / 100 % 10);
+		out[2] = (char) ('0' + civil[0] / 10 % 10);
+		out[3] = (char) ('0' + civil[0] % 10);
+		out[4] = '-';
+		out[5] = (char) ('0' + civil[1] / 10);
+		out[6] = (char) ('0' + civil[1] % 10);
+		out[7] = '-';
+		out[8] = (char) ('0' + civil[2] / 10);
+		out[9] = (char) ('0' + civil[2] % 10);
+
+		return new String(out);
+	}
+
+
+	/**
+	 * Converts an epoch day into its calendar date.
+	 *
+	 * @param epochDay The epoch day to convert.
+	 *
+	 * @return An array of three values: the year, the month (starting at 1), and the
+	 *     day of the month.
+	 */
+	public static int[] toCivil(int epochDay)
+	{
+		int days = epochDay + _epochOffset;
+		int era = (days >= 0 ? days : days - _eraDays + 1) / _eraDays;
+		int dayOfEra = days - era * _eraDays;
+		int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / (_eraDays - 1)) / 365;
+		int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		int monthIndex = (5 * dayOfYear + 2) / 153;
+		int day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+		int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+		int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+		return new int[] { year, month, day };
+	}
+}
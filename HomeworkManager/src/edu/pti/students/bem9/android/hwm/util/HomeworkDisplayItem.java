@@ -0,0 +1,233 @@
+package edu.pti.students.bem9.android.hwm.util;
+
+import android.content.Context;
+import android.graphics.Color;
+import edu.pti.bem9.android.hwm.R;
+import edu.pti.students.bem9.android.hwm.Homework;
+import edu.pti.students.bem9.android.hwm.database.HomeworkDataSource;
+
+/**
+ * Everything a row of the homework list displays for one homework, computed ahead of time so that
+ * binding a row only sets finished text and a color.  Building an item formats the dates and joins
+ * the keywords, and may be done on any thread.  Items never change; when the homework changes, a new
+ * item is built.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.1.0
+ */
+final class HomeworkDisplayItem
+{
+	/**
+	 * The color of the name of homework that is due today.
+	 */
+	private static final int _dueColor = 0xFFDD9A23;
+
+
+	/**
+	 * The color of the name of overdue homework.
+	 */
+	private static final int _overdueColor = Color.RED;
+
+
+	/**
+	 * The name line.
+	 */
+	private final CharSequence name;
+
+
+	/**
+	 * The due date line, including its prefix.
+	 */
+	private final CharSequence dueLabel;
+
+
+	/**
+	 * The assigned date line, including its prefix.
+	 */
+	private final CharSequence assignedLabel;
+
+
+	/**
+	 * The keyword line, including its prefix.
+	 */
+	private final CharSequence keywordLine;
+
+
+	/**
+	 * The due date, as an {@linkplain EpochDay epoch day}.
+	 */
+	private final int dueDay;
+
+
+	/**
+	 * The color of the name of homework that is neither due nor overdue.
+	 */
+	private final int normalColor;
+
+
+	/**
+	 * Builds the display item of a row.
+	 *
+	 * @param name The homework's name.
+	 * @param dueDay The homework's due date, as an {@linkplain EpochDay epoch day}.
+	 * @param assignedDay The homework's assigned date, as an {@linkplain EpochDay epoch day}.
+	 * @param keywords The homework's keywords, already joined for display. May be empty.
+	 * @param labels The labels of the list.
+	 */
+	HomeworkDisplayItem(CharSequence name, int dueDay, int assignedDay, CharSequence keywords, Labels labels)
+	{
+		this.name = name;
+		this.dueDay = dueDay;
+		this.normalColor = labels.normalColor;
+		this.dueLabel = labels.duePrefix + EpochDay.toString(dueDay);
+		this.assignedLabel = labels.assignedPrefix + EpochDay.toString(assignedDay);
+		this.keywordLine = labels.keywordsPrefix + (keywords.length() == 0 ? labels.keywordsEmpty : keywords.toString());
+	}
+
+
+	/**
+	 * Builds the display item of a homework.
+	 *
+	 * @param hw The homework.
+	 * @param labels The labels of the list.
+	 *
+	 * @return The display item.
+	 */
+	static HomeworkDisplayItem of(Homework hw, Labels labels)
+	{
+		StringBuilder keywords = new StringBuilder();
+
+		for(int i = 0; i < hw.getKeywords().size(); i++)
+		{
+			if(i > 0) keywords.append(", ");
+			keywords.append(hw.getKeywords().get(i).toString().trim());
+		}
+
+		return new HomeworkDisplayItem(hw.getName(), hw.getDueDay(), hw.getAssignedDay(), keywords, labels);
+	}
+
+
+	/**
+	 * Gets the name line.
+	 *
+	 * @return The homework's name.
+	 */
+	CharSequence getName()
+	{
+		return this.name;
+	}
+
+
+	/**
+	 * Gets the due date line.
+	 *
+	 * @return The prefixed due date.
+	 */
+	CharSequence getDueLabel()
+	{
+		return this.dueLabel;
+	}
+
+
+	/**
+	 * Gets the assigned date line.
+	 *
+	 * @return The prefixed assigned date.
+	 */
+	CharSequence getAssignedLabel()
+	{
+		return this.assignedLabel;
+	}
+
+
+	/**
+	 * Gets the keyword line.
+	 *
+	 * @return The prefixed keywords, or the prefixed empty keyword label.
+	 */
+	CharSequence getKeywordLine()
+	{
+		return this.keywordLine;
+	}
+
+
+	/**
+	 * Gets the color of the name on a given day.  Homework due that day has an orange name, overdue
+	 * homework has a red name, and all other homework has the normal text color.  The status is decided
+	 * by the {@link DueStatusClassifier}.
+	 *
+	 * @param today The {@linkplain EpochDay epoch day} to treat as today.
+	 *
+	 * @return The color of the name.
+	 */
+	int getNameColor(int today)
+	{
+		switch(DueStatusClassifier.classify(this.dueDay, today))
+		{
+		case HomeworkDataSource.STATUS_DUE_TODAY:
+			return _dueColor;
+
+		case HomeworkDataSource.STATUS_OVERDUE:
+			return _overdueColor;
+
+		default:
+			return this.normalColor;
+		}
+	}
+
+
+	/**
+	 * The text and colors shared by every row of a list, read from the resources once.
+	 *
+	 * @author Bridger Maskrey (bem9@students.pti.edu)
+	 *
+	 * @version 1.0.0
+	 */
+	static final class Labels
+	{
+		/**
+		 * The prefix of the due date line.
+		 */
+		final String duePrefix;
+
+
+		/**
+		 * The prefix of the assigned date line.
+		 */
+		final String assignedPrefix;
+
+
+		/**
+		 * The prefix of the keyword line.
+		 */
+		final String keywordsPrefix;
+
+
+		/**
+		 * The keyword line text of homework without keywords.
+		 */
+		final String keywordsEmpty;
+
+
+		/**
+		 * The color of the name of homework that is neither due nor overdue.
+		 */
+		final int normalColor;
+
+
+		/**
+		 * Reads the labels from the resources.
+		 *
+		 * @param context The context to read the resources of.
+		 */
+		Labels(Context context)
+		{
+			this.duePrefix = context.getText(R.string.list_prefix_due_date).toString();
+			this.assignedPrefix = context.getText(R.string.list_prefix_assign_date).toString();
+			this.keywordsPrefix = context.getText(R.string.list_prefix_keywords).toString();
+			this.keywordsEmpty = context.getText(R.string.list_label_keywords_empty).toString();
+			this.normalColor = context.getResources().getColor(android.R.color.primary_text_dark);
+		}
+	}
+}
@@ -1,31 +1,70 @@
 package edu.pti.students.bem9.android.hwm.util;
 
-import java.sql.Date;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-import android.graphics.Color;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.BaseAdapter;
-import android.widget.TextView;
+import android.widget.SectionIndexer;
 import edu.pti.bem9.android.hwm.R;
 import edu.pti.students.bem9.android.hwm.Homework;
 import edu.pti.students.bem9.android.hwm.HomeworkManager;
+import edu.pti.students.bem9.android.hwm.database.HomeworkChange;
+import edu.pti.students.bem9.android.hwm.database.HomeworkListIndex;
+import edu.pti.students.bem9.android.hwm.database.HomeworkRepository;
+import edu.pti.students.bem9.android.hwm.database.IHomeworkCallback;
 
 /**
- * Converts an array list of homework objects into a human readable output of them
+ * Converts a sorted list of homework into a human readable output of it
  * by binding a hwm_layout_list layout to each list item and setting the fields within
- * to the different components that make up the definition of a homework object.
+ * to the different components that make up the definition of a homework object.<br>
+ * 
+ * The adapter is given the {@linkplain #setRows(HomeworkListIndex) rows} of the list, which only hold the UID
+ * and sort key of each homework, and loads the homework itself through the {@link HomeworkRepository} a page at
+ * a time, in the background, as the rows are displayed.  Rows of a page that has not arrived yet are shown as empty
+ * placeholders, and only the pages around the displayed rows are kept loaded.  Changes to the database are
+ * {@linkplain #applyChanges(List) applied} to the rows in place, without listing them again.<br>
+ * 
+ * Memory therefore grows with the displayed rows rather than with the list: only about three pages of
+ * homework stay loaded, and every other row costs only its UID and sort key.  Unlike binding rows straight
+ * from a database cursor, this reads nothing on the UI thread, and a change does not require querying the whole
+ * list again to replace the cursor.<br>
+ * 
+ * Item IDs are the homework UIDs, known for every row whether it is loaded or not, and are 
+ * {@linkplain #hasStableIds() stable}.  Everything a row displays is
+ * prepared once per loaded homework as a {@link HomeworkDisplayItem}, and a row view is only bound again if 
+ * its display item or the current day changed since it was last bound.<br>
+ * 
+ * The adapter is a {@link SectionIndexer} over the {@linkplain HomeworkSectionIndex sections} of its rows, so 
+ * the list view can fast-scroll from section to section.  The sections are built from the sort keys of the rows 
+ * when they are first asked for, and again after the rows or the current day change.
  * 
  * @author Bridger Maskrey (bem9@students.pti.edu)
- * @version 1.0.0
+ * @version 2.2.1
  */
-public class HomeworkListAdapter extends BaseAdapter 
+public class HomeworkListAdapter extends BaseAdapter implements SectionIndexer
 {
+	/**
+	 * The number of rows loaded at once.  This covers several screens of the list.
+	 */
+	private static final int _pageSize = 60;
+	
+	
+	/**
+	 * The number of rows before a displayed position that are loaded along with it, so that scrolling 
+	 * back a little does not immediately load another page.
+	 */
+	private static final int _prefetch = 20;
+	
+	
 	/**
 	 * The layout inflater to use.
 	 */
@@ -33,21 +72,59 @@ public class HomeworkListAdapter extends BaseAdapter
 	
 	
 	/**
-	 * The context of this list adapter as a {@link HomeworkManager}.
+	 * The context of this list adapter as a {@link HomeworkManager}.  Pages are loaded through its
+	 * {@linkplain HomeworkManager#getRepository() repository}.
 	 */
 	private HomeworkManager mContext;
 	
 	
 	/**
-	 * The current objects contained within this list.
+	 * The rows of the list, or {@code null} if the adapter has not been given any.
 	 */
-	private ArrayList<Homework> mObjects;
+	private HomeworkListIndex rows = null;
 	
 	
 	/**
-	 * Object used for thread synchronization.
+	 * The loaded homework of the rows around the displayed positions, by UID.  This is only used on the main thread.
 	 */
-	private final Object syncLock = new Object();
+	private final Map<Long, Homework> loaded = new HashMap<Long, Homework>();
+	
+	
+	/**
+	 * The UIDs of the homework being loaded.  This is only used on the main thread.
+	 */
+	private final Set<Long> requested = new HashSet<Long>();
+	
+	
+	/**
+	 * The labels shared by every row.
+	 */
+	private final HomeworkDisplayItem.Labels labels;
+	
+	
+	/**
+	 * The labels of the named sections.
+	 */
+	private final HomeworkSectionIndex.Labels sectionLabels;
+	
+	
+	/**
+	 * The display item of every loaded homework object.  A new item replaces the old one whenever the 
+	 * homework changes.  This is only used on the main thread.
+	 */
+	private final Map<Homework, HomeworkDisplayItem> display = new IdentityHashMap<Homework, HomeworkDisplayItem>();
+	
+	
+	/**
+	 * The {@linkplain EpochDay epoch day} rows are colored for.  It is read again whenever the data set changes.
+	 */
+	private int today = DueStatusClassifier.getInstance().today();
+	
+	
+	/**
+	 * The sections of the rows, for fast scrolling, or {@code null} if they must be built again.
+	 */
+	private HomeworkSectionIndex sections = null;
 	
 	
 	/**
@@ -60,7 +137,8 @@ public class HomeworkListAdapter extends BaseAdapter
 	{
 		this.mContext = context;
 		this.inflater = this.mContext.getLayoutInflater();
-		this.mObjects = new ArrayList<Homework>();
+		this.labels = new HomeworkDisplayItem.Labels(context);
+		this.sectionLabels = new HomeworkSectionIndex.Labels(context);
 	}
 
 	
@@ -71,7 +149,11 @@ public class HomeworkListAdapter extends BaseAdapter
      * assigned date}, and any {@linkplain Homework#getKeywords() keywords} associated with the
      * assignment.  Normally, assignments are listed with a white name, but if they are due or overdue,
      * the name field color changes.  Due assignments have an orange name, while overdue ones show
-     * a red name.
+     * a red name.<br>
+     * 
+     * The row is bound through its {@link HomeworkViewHolder} from the homework's {@linkplain #displayOf(Homework) 
+     * display item}, so binding allocates nothing.  If the converted view already shows the same item on the
+     * same day, nothing is bound at all.
      * 
      * @param position used to get the current homework item.
      * @param convertView View to convert into the view specified by this function.
@@ -95,67 +177,54 @@ public class HomeworkListAdapter extends BaseAdapter
     	
     	if(hw != null) 
     	{
-    		//Get all fields in the layout that must be changed.
-    		TextView nameField = (TextView) v.findViewById(R.id.listview_label_name);
-    		TextView dueField = (TextView) v.findViewById(R.id.listview_label_due);
-    		TextView assignedField = (TextView) v.findViewById(R.id.listview_label_assigned);
-    		TextView keywordField = (TextView) v.findViewById(R.id.listview_label_keywords);
-    		
-    		//Get the current date for due date comparison.
-    		DateFormat format = new SimpleDateFormat("yyyy-MM-dd");
-    		Date todaysDate = Date.valueOf(format.format(new java.util.Date()));
-    		
-    		//Set due comparison values.
-    		boolean isDue = hw.isDueOn(todaysDate);
-    		boolean isOverdue = hw.isDueBefore(todaysDate);
-    		
-    		//Set name, due, and assigned fields.
-    		nameField.setText(hw.getName());
-    		
-    		dueField.setText(new StringBuilder().append(v.getContext().getText(R.string.list_prefix_due_date))
-    				.append(hw.getDueDate().toString()));
-    		
-    		assignedField.setText(new StringBuilder().append(v.getContext().getText(R.string.list_prefix_assign_date))
-    				.append(hw.getAssignedDate().toString()));
-    		
-    		if(isDue) //Due assignments get an orange name
-    		{
-    			nameField.setTextColor(0xFFDD9A23);
-    		}
-    		else if(isOverdue) //Overdue assignments get a red name
-    		{
-    			nameField.setTextColor(Color.RED);
-    		}
-    		else //Non-due assignments get a white name.
-    		{
-    			nameField.setTextColor(HomeworkManager.getContext().getResources().getColor(android.R.color.primary_text_dark));
-    		}
-    		
-    		//Populate the keywords field.
-    		keywordField.setText(v.getContext().getText(R.string.list_prefix_keywords));
-    		
-    		if(hw.getKeywords().isEmpty()) 
-    		{
-    			keywordField.append(v.getContext().getText(R.string.list_label_keywords_empty));
-    		} 
-    		else
-    		{
-	    		for(int i = 0; i < hw.getKeywords().size(); i++) 
-	    		{
-	    			if(i > 0) keywordField.append(", ");
-	    			keywordField.append(hw.getKeywords().get(i).toString().trim());
-	    		}
-    		}
-    		
-    		//Schedule redraw I guess.
-    		nameField.invalidate();
-    		dueField.invalidate();
-    		assignedField.invalidate();
+    		HomeworkViewHolder.of(v).bind(this.displayOf(hw), this.today);
+    	} else 
+    	{
+    		HomeworkViewHolder.of(v).bindPlaceholder();
     	}
     	
     	return v;
     }
-
+	
+	
+	/**
+	 * Notifies the list view that the data changed, after reading the current day again so that rows
+	 * are colored by the right due status.  If the day changed, the sections are built again too.
+	 */
+	@Override
+	public void notifyDataSetChanged() 
+	{
+		int day = DueStatusClassifier.getInstance().today();
+		
+		if(day != this.today) this.sections = null;
+		
+		this.today = day;
+		super.notifyDataSetChanged();
+	}
+	
+	
+	/**
+	 * Gets the display item of a loaded homework, building it if it has not been built yet.
+	 * This must be called on the main thread.
+	 * 
+	 * @param hw The homework.
+	 * 
+	 * @return The display item of the homework.
+	 */
+	private HomeworkDisplayItem displayOf(Homework hw) 
+	{
+		HomeworkDisplayItem item = this.display.get(hw);
+		
+		if(item == null) 
+		{
+			item = HomeworkDisplayItem.of(hw, this.labels);
+			this.display.put(hw, item);
+		}
+		
+		return item;
+	}
+	
+	
 	/**
 	 * Gets the number of items currently contained in this {@code HomeworkListAdapter}.
 	 * 
@@ -164,24 +233,31 @@ public class HomeworkListAdapter extends BaseAdapter
 	@Override
 	public int getCount() 
 	{
-		return this.mObjects.size();
+		return this.rows != null ? this.rows.size() : 0;
 	}
 	
 	
 	/**
-	 * Gets an item at the specified position.
+	 * Gets an item at the specified position.  If the homework at the position is not loaded, the page
+	 * around it is requested in the background, and the list view is notified once it arrives.
 	 * 
-	 * @return The instance of {@link Homework} that is present at the given position.
+	 * @return The instance of {@link Homework} that is present at the given position, or {@code null}
+	 *     if it has not been loaded yet.
 	 */
 	@Override
 	public Homework getItem(int position) 
 	{
-		return this.mObjects.get(position);
+		Homework hw = this.loaded.get(this.rows.getUID(position));
+		
+		if(hw == null) this.loadPage(position);
+		
+		return hw;
 	}
 
 	
 	/**
-	 * Gets the ID number of an item at the specified position.
+	 * Gets the ID number of an item at the specified position.  The ID is read from the rows, so it is
+	 * known before the homework is loaded, and asking for it loads nothing.
 	 * 
 	 * @return The {@linkplain Homework#getUID() UID} of the {@link Homework} at the
 	 *     current position.
@@ -189,34 +265,316 @@ public class HomeworkListAdapter extends BaseAdapter
 	@Override
 	public long getItemId(int position) 
 	{
-		return this.getItem(position).getUID();
+		return this.rows.getUID(position);
+	}
+	
+	
+	/**
+	 * Reports that item IDs are stable: an ID always belongs to the same homework, whatever its position.
+	 * This lets the list view keep its scroll position on the same homework when the list changes.
+	 * 
+	 * @return True.
+	 */
+	@Override
+	public boolean hasStableIds() 
+	{
+		return true;
+	}
+	
+	
+	/**
+	 * Gets the labels of the sections shown while fast scrolling.
+	 * 
+	 * @return The section labels.
+	 */
+	@Override
+	public Object[] getSections()
+	{
+		return this.sectionsOf().getSections();
+	}
+	
+	
+	/**
+	 * Gets the position of the first row of a section.
+	 * 
+	 * @param section The index of the section.
+	 * 
+	 * @return The position of the section's first row.
+	 */
+	@Override
+	public int getPositionForSection(int section)
+	{
+		return this.sectionsOf().getPositionForSection(section);
 	}
 	
+	
 	/**
-	 * Adds the entire contents of the given collection to the list.
+	 * Gets the section a row belongs to.
+	 * 
+	 * @param position The position of the row.
 	 * 
-	 * @param objs Collection to push to the stack.
+	 * @return The index of the section holding the row.
 	 */
-	public void addAll(Collection<? extends Homework> objs) 
+	@Override
+	public int getSectionForPosition(int position)
 	{
-		synchronized(this.syncLock) 
+		return this.sectionsOf().getSectionForPosition(position);
+	}
+	
+	
+	/**
+	 * Gets the sections of the rows, building them if the rows or the day changed since they were last built.
+	 * 
+	 * @return The sections.
+	 */
+	private HomeworkSectionIndex sectionsOf() 
+	{
+		if(this.sections == null) 
+		{
+			this.sections = this.rows != null ? HomeworkSectionIndex.build(this.rows, this.today, this.sectionLabels) : 
+				HomeworkSectionIndex.EMPTY;
+		}
+		
+		return this.sections;
+	}
+	
+	
+	/**
+	 * Checks if the adapter has been given the rows of a list.
+	 * 
+	 * @return True if the adapter has rows, false if it has not been given any yet.
+	 */
+	public boolean hasRows() 
+	{
+		return this.rows != null;
+	}
+	
+	
+	/**
+	 * Replaces the rows of the list.  Loaded homework stays loaded, so the rows of homework that is still 
+	 * listed are not shown as placeholders again.  If the new rows list the same homework in the same order
+	 * as the displayed ones, the list view is not notified at all.  The adapter takes the rows over: from now 
+	 * on, they are only changed by {@linkplain #applyChanges(List) applying changes}.
+	 * 
+	 * @param rows The new rows.
+	 */
+	public void setRows(HomeworkListIndex rows) 
+	{
+		boolean same = this.rows != null && this.rows.hasSameRows(rows);
+		
+		this.rows = rows;
+		
+		if(same) return;
+		
+		this.sections = null;
+		this.notifyDataSetChanged();
+	}
+	
+	
+	/**
+	 * Applies changes to the saved homework to the rows in place.  Changed homework is moved to its new sorted
+	 * position only if its sort key changed, and removed homework is found by the sort key its change carries, 
+	 * so nothing is read from the database.<br>
+	 * 
+	 * If the rows are {@linkplain HomeworkListIndex#isComplete() filtered}, the adapter can not tell whether 
+	 * new or changed homework matches the filter, so only removals are applied to them.  The loaded homework
+	 * is replaced by the changed homework either way, so rows that stay listed show the changes at once.
+	 * 
+	 * @param changes The changes, in the order they were made.
+	 * 
+	 * @return True if the changes were applied, false if the rows were not changed and must be listed again.
+	 */
+	public boolean applyChanges(List<HomeworkChange> changes) 
+	{
+		if(this.rows == null) return false;
+		
+		boolean placed = true;
+		
+		for(HomeworkChange change : changes) 
+		{
+			this.forget(change.getUID());
+			
+			if(change.getType() != HomeworkChange.Type.DELETE) 
+			{
+				this.loaded.put(change.getUID(), change.getHomework());
+				placed &= this.rows.isComplete();
+			}
+		}
+		
+		if(placed) 
 		{
-			this.mObjects.addAll(objs);
+			for(HomeworkChange change : changes) 
+			{
+				this.place(change);
+			}
+			
+			this.sections = null;
 		}
 		
 		this.notifyDataSetChanged();
+		
+		return placed;
+	}
+	
+	
+	/**
+	 * Moves the row of a changed homework to where the change puts it.  Changed homework is only moved if its
+	 * sort key changed.  Every row is found by a binary search on its sort key: the row of an updated homework
+	 * by the {@linkplain HomeworkChange#getPrevious() values it held before the update}, and the row of a
+	 * removed homework by the values it was removed with.
+	 * 
+	 * @param change The change.
+	 */
+	private void place(HomeworkChange change) 
+	{
+		Homework hw = change.getHomework();
+		int position;
+		
+		switch(change.getType()) 
+		{
+		case INSERT:
+			this.rows.insert(hw);
+			break;
+			
+		case UPDATE:
+			position = change.getPrevious() != null ? this.rows.indexOf(change.getPrevious()) : this.rows.indexOf(hw);
+			
+			if(position < 0 || this.rows.getSort().isAffectedBy(change.getFields())) 
+			{
+				if(position >= 0) this.rows.remove(position);
+				this.rows.insert(hw);
+			}
+			break;
+			
+		case DELETE:
+			position = this.rows.indexOf(hw);
+			
+			if(position >= 0) this.rows.remove(position);
+			break;
+		}
 	}
 	
+	
+	/**
+	 * Releases the loaded homework with a UID, and its display item.
+	 * 
+	 * @param uid The UID.
+	 */
+	private void forget(long uid) 
+	{
+		Homework hw = this.loaded.remove(uid);
+		
+		if(hw != null) this.display.remove(hw);
+	}
+	
+	
+	/**
+	 * Requests the homework of the page of rows around a position in the background, starting {@link #_prefetch}
+	 * rows before it.  Homework that is already loaded or being loaded is not requested again.
+	 * 
+	 * @param position The position that must be loaded.
+	 */
+	private void loadPage(final int position) 
+	{
+		if(this.requested.contains(this.rows.getUID(position))) return;
+		
+		int start = Math.max(0, position - _prefetch);
+		int end = Math.min(this.rows.size(), start + _pageSize);
+		long[] page = new long[end - start];
+		int count = 0;
+		
+		for(int i = start; i < end; i++) 
+		{
+			long uid = this.rows.getUID(i);
+			
+			if(!this.loaded.containsKey(uid) && this.requested.add(uid)) page[count++] = uid;
+		}
+		
+		final long[] uids = count == page.length ? page : Arrays.copyOf(page, count);
+		
+		this.mContext.getRepository().getHomework(uids, new IHomeworkCallback<List<Homework>>() 
+		{
+			@Override
+			public void onResult(List<Homework> result) 
+			{
+				HomeworkListAdapter.this.showPage(uids, result, position);
+			}
+			
+			@Override
+			public void onError(Exception error) 
+			{
+				HomeworkListAdapter.this.forgetPage(uids);
+			}
+		});
+	}
+	
+	
 	/**
-	 * Clears all data from the list.
+	 * Keeps a loaded page, releases the homework of rows far from it, and notifies the list view.  Homework 
+	 * is loaded in the same order as changes are saved, so a loaded page is never older than the changes 
+	 * applied before it arrives.
+	 * 
+	 * @param uids The requested UIDs.
+	 * @param page The homework with each UID, or {@code null} where it was removed.
+	 * @param position The position the page was loaded for.
 	 */
-	public void clear() 
+	private void showPage(long[] uids, List<Homework> page, int position) 
 	{
-		synchronized(this.syncLock) 
+		for(int i = 0; i < uids.length; i++) 
 		{
-			this.mObjects.clear();
+			this.requested.remove(uids[i]);
+			
+			if(page.get(i) != null) this.loaded.put(uids[i], page.get(i));
 		}
 		
+		if(this.rows == null) return;
+		
+		this.release(position);
 		this.notifyDataSetChanged();
 	}
+	
+	
+	/**
+	 * Forgets that the homework of a page that failed to load is being loaded.  Its rows stay placeholders, and 
+	 * the page is requested again the next time one of them is displayed.
+	 * 
+	 * @param uids The requested UIDs.
+	 */
+	private void forgetPage(long[] uids) 
+	{
+		for(long uid : uids) 
+		{
+			this.requested.remove(uid);
+		}
+	}
+	
+	
+	/**
+	 * Releases the loaded homework of every row more than a page away from a position, once more than a few 
+	 * pages are loaded.
+	 * 
+	 * @param position The position to keep the rows around.
+	 */
+	private void release(int position) 
+	{
+		if(this.loaded.size() <= _pageSize * 3) return;
+		
+		Set<Long> keep = new HashSet<Long>();
+		
+		for(int i = Math.max(0, position - _pageSize), end = Math.min(this.rows.size(), position + _pageSize * 2); i < end; i++) 
+		{
+			keep.add(this.rows.getUID(i));
+		}
+		
+		for(Iterator<Map.Entry<Long, Homework>> it = this.loaded.entrySet().iterator(); it.hasNext();) 
+		{
+			Map.Entry<Long, Homework> entry = it.next();
+			
+			if(!keep.contains(entry.getKey())) 
+			{
+				this.display.remove(entry.getValue());
+				it.remove();
+			}
+		}
+	}
 }
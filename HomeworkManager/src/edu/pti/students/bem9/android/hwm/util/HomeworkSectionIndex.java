@@ -0,0 +1,357 @@
+package edu.pti.students.bem9.android.hwm.util;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+
+import android.content.Context;
+import edu.pti.bem9.android.hwm.R;
+import edu.pti.students.bem9.android.hwm.database.HomeworkListIndex;
+import edu.pti.students.bem9.android.hwm.database.HomeworkSort;
+
+/**
+ * The sections of a sorted homework list, as a {@link android.widget.SectionIndexer SectionIndexer} presents
+ * them to a fast-scrolling list view.  What a section is depends on the {@link HomeworkSort} of the list:
+ * <ul>
+ * <li>{@link HomeworkSort#DUE}: "Overdue", "Today", "This week", and then one section per month.</li>
+ * <li>{@link HomeworkSort#ASSIGNED}: one section per month.</li>
+ * <li>{@link HomeworkSort#NAME} and {@link HomeworkSort#CLASS}: one section per initial letter, with every
+ * other initial in a "#" section.</li>
+ * </ul>
+ * Every section covers one contiguous range of sort keys, so the sections of a sorted list are found in a
+ * single pass over its keys, in either direction, by only looking for the next key outside the current range.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.2.0
+ */
+public final class HomeworkSectionIndex
+{
+	/**
+	 * A section index with no sections, for lists that have not been indexed.
+	 */
+	public static final HomeworkSectionIndex EMPTY = new HomeworkSectionIndex(new String[0], new int[0]);
+
+
+	/**
+	 * The label of each section, in list order.
+	 */
+	private final String[] sections;
+
+
+	/**
+	 * The position of the first row of each section, in list order.
+	 */
+	private final int[] positions;
+
+
+	/**
+	 * Creates a new {@code HomeworkSectionIndex}.
+	 *
+	 * @param sections The label of each section.
+	 * @param positions The position of the first row of each section, in ascending order.
+	 */
+	private HomeworkSectionIndex(String[] sections, int[] positions)
+	{
+		this.sections = sections;
+		this.positions = positions;
+	}
+
+
+	/**
+	 * Gets the labels of the sections, in list order.
+	 *
+	 * @return The section labels. The array must not be changed.
+	 */
+	public Object[] getSections()
+	{
+		return this.sections;
+	}
+
+
+	/**
+	 * Gets the position of the first row of a section.
+	 *
+	 * @param section The index of the section.  Indexes past either end select the first or last section.
+	 *
+	 * @return The position of the section's first row, or 0 if there are no sections.
+	 */
+	public int getPositionForSection(int section)
+	{
+		if(this.positions.length == 0) return 0;
+
+		return this.positions[Math.max(0, Math.min(section, this.positions.length - 1))];
+	}
+
+
+	/**
+	 * Gets the section a row belongs to.
+	 *
+	 * @param position The position of the row.
+	 *
+	 * @return The index of the section holding the row, or 0 if there are no sections.
+	 */
+	public int getSectionForPosition(int position)
+	{
+		int at = Arrays.binarySearch(this.positions, position);
+
+		//Not a first row: it belongs to the section starting before it.
+		if(at < 0) at = -at - 2;
+
+		return Math.max(at, 0);
+	}
+
+
+	/**
+	 * Builds the sections of a sorted list in one pass over the sort keys of its rows.
+	 *
+	 * @param rows The rows of the list.
+	 * @param today The {@linkplain EpochDay epoch day} to treat as today.
+	 * @param labels The labels of the named sections.
+	 *
+	 * @return The sections of the list.
+	 */
+	public static HomeworkSectionIndex build(HomeworkListIndex rows, int today, Labels labels)
+	{
+		HomeworkSort sort = rows.getSort();
+		List<String> sections = new ArrayList<String>();
+		int[] positions = new int[16];
+
+		boolean days = sort == HomeworkSort.DUE || sort == HomeworkSort.ASSIGNED;
+		DayRanges ranges = days ? new DayRanges(sort == HomeworkSort.DUE, today, labels) : null;
+
+		//The range of keys of the current section: [start, end) for days, or its initial for text.
+		int start = 1;
+		int end = 0;
+		char initial = 0;
+
+		for(int position = 0; position < rows.size(); position++)
+		{
+			String label = null;
+
+			if(days)
+			{
+				int day = rows.getDay(position);
+
+				if(day < start || day >= end)
+				{
+					label = ranges.find(day);
+					start = ranges.start;
+					end = ranges.end;
+				}
+			} else
+			{
+				char c = initialOf(rows.getText(position));
+
+				if(position == 0 || c != initial)
+				{
+					initial = c;
+					label = String.valueOf(c);
+				}
+			}
+
+			if(label == null) continue;
+
+			if(sections.size() == positions.length) positions = Arrays.copyOf(positions, positions.length * 2);
+
+			positions[sections.size()] = position;
+			sections.add(label);
+		}
+
+		return new HomeworkSectionIndex(sections.toArray(new String[sections.size()]), Arrays.copyOf(positions, sections.size()));
+	}
+
+
+	/**
+	 * Gets the section initial of a name, folding ASCII letters to upper case as the {@code NOCASE} sort does.
+	 *
+	 * @param text The name.
+	 *
+	 * @return The upper case initial letter, or '#' if the name is empty or does not start with a letter.
+	 */
+	private static char initialOf(String text)
+	{
+		if(text == null || text.isEmpty()) return '#';
+
+		char c = text.charAt(0);
+
+		if(c >= 'a' && c <= 'z') return (char) (c - 'a' + 'A');
+		if(c >= 'A' && c <= 'Z') return c;
+
+		return '#';
+	}
+
+
+	/**
+	 * Finds the range of days of the section a day falls into.
+	 *
+	 * @author Bridger Maskrey (bem9@students.pti.edu)
+	 *
+	 * @version 1.0.0
+	 */
+	private static final class DayRanges
+	{
+		/**
+		 * Whether the days are due dates, and the "Overdue", "Today" and "This week" sections are used.
+		 */
+		private final boolean due;
+
+
+		/**
+		 * The epoch day to treat as today.
+		 */
+		private final int today;
+
+
+		/**
+		 * The first day after the current week.
+		 */
+		private final int weekEnd;
+
+
+		/**
+		 * The labels of the named sections.
+		 */
+		private final Labels labels;
+
+
+		/**
+		 * Formats the label of a month section.
+		 */
+		private final SimpleDateFormat monthFormat = new SimpleDateFormat("MMMM yyyy", Locale.getDefault());
+
+
+		/**
+		 * The first day of the range last found.
+		 */
+		int start;
+
+
+		/**
+		 * The first day after the range last found.
+		 */
+		int end;
+
+
+		/**
+		 * Creates a new {@code DayRanges}.
+		 *
+		 * @param due True if the days are due dates.
+		 * @param today The epoch day to treat as today.
+		 * @param labels The labels of the named sections.
+		 */
+		DayRanges(boolean due, int today, Labels labels)
+		{
+			this.due = due;
+			this.today = today;
+			this.labels = labels;
+
+			//1970-01-01 was a Thursday.
+			int dayOfWeek = ((today + 4) % 7 + 7) % 7 + Calendar.SUNDAY;
+			int intoWeek = (dayOfWeek - Calendar.getInstance().getFirstDayOfWeek() + 7) % 7;
+
+			this.weekEnd = today - intoWeek + 7;
+		}
+
+
+		/**
+		 * Finds the section of a day, and stores its range in {@link #start} and {@link #end}.
+		 *
+		 * @param day The epoch day.
+		 *
+		 * @return The label of the section.
+		 */
+		String find(int day)
+		{
+			if(this.due && day < this.today)
+			{
+				this.start = Integer.MIN_VALUE;
+				this.end = this.today;
+				return this.labels.overdue;
+			}
+
+			if(this.due && day == this.today)
+			{
+				this.start = this.today;
+				this.end = this.today + 1;
+				return this.labels.today;
+			}
+
+			if(this.due && day < this.weekEnd)
+			{
+				this.start = this.today + 1;
+				this.end = this.weekEnd;
+				return this.labels.thisWeek;
+			}
+
+			int[] civil = EpochDay.toCivil(day);
+			boolean december = civil[1] == 12;
+
+			this.start = EpochDay.fromCivil(civil[0], civil[1], 1);
+			this.end = EpochDay.fromCivil(december ? civil[0] + 1 : civil[0], december ? 1 : civil[1] + 1, 1);
+
+			//The rest of this month after the current week.
+			if(this.due && this.start < this.weekEnd) this.start = this.weekEnd;
+
+			return this.monthFormat.format(EpochDay.toDate(day));
+		}
+	}
+
+
+	/**
+	 * The labels of the named date sections, read from the resources once.
+	 *
+	 * @author Bridger Maskrey (bem9@students.pti.edu)
+	 *
+	 * @version 1.1.0
+	 */
+	public static final class Labels
+	{
+		/**
+		 * The label of the section of overdue homework.
+		 */
+		final String overdue;
+
+
+		/**
+		 * The label of the section of homework due today.
+		 */
+		final String today;
+
+
+		/**
+		 * The label of the section of homework due during the rest of the week.
+		 */
+		final String thisWeek;
+
+
+		/**
+		 * Reads the labels from the resources.
+		 *
+		 * @param context The context to read the resources from.
+		 */
+		public Labels(Context context)
+		{
+			this(context.getString(R.string.list_section_overdue), context.getString(R.string.list_section_today), 
+					context.getString(R.string.list_section_this_week));
+		}
+
+
+		/**
+		 * Creates labels from the given texts, e.g. for tests that have no resources.
+		 *
+		 * @param overdue The label of the section of overdue homework.
+		 * @param today The label of the section of homework due today.
+		 * @param thisWeek The label of the section of homework due during the rest of the week.
+		 */
+		Labels(String overdue, String today, String thisWeek)
+		{
+			this.overdue = overdue;
+			this.today = today;
+			this.thisWeek = thisWeek;
+		}
+	}
+}
@@ -0,0 +1,526 @@
+package edu.pti.students.bem9.android.hwm.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import edu.pti.students.bem9.android.hwm.HomeworkValue;
+
+/**
+ * Read-only snapshot of many homework, stored column by column for fast bulk filtering.  Every column is
+ * one primitive array indexed by row: the UIDs are a {@code long[]}, both dates are {@code int[]}s of
+ * {@linkplain EpochDay epoch days}, and the class and subject are {@code int[]}s of codes of the table's
+ * {@link StringDictionary}, so that equal texts are stored once and compared as ints.<br>
+ *
+ * Each {@code scan} method walks one column in a tight loop of int comparisons and writes the indexes of
+ * the matching rows, in row order, into an array supplied by the caller, so filtering allocates nothing.
+ * The UIDs of the rows found can then be read with {@link #getUID(int)}.  Facet counts, such as the number
+ * of rows of each class, are likewise counted by code, and only decoded for display.<br>
+ *
+ * A table is built by a {@link Builder} and never changes, so it can be scanned from any thread.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.1.0
+ */
+public final class HomeworkTable
+{
+	/**
+	 * The number of rows.
+	 */
+	private final int size;
+
+
+	/**
+	 * The UID of every row.
+	 */
+	private final long[] uids;
+
+
+	/**
+	 * The due date of every row.
+	 */
+	private final int[] due;
+
+
+	/**
+	 * The assigned date of every row.
+	 */
+	private final int[] assigned;
+
+
+	/**
+	 * The class code of every row, or {@link StringDictionary#NONE}.
+	 */
+	private final int[] classes;
+
+
+	/**
+	 * The subject code of every row, or {@link StringDictionary#NONE}.
+	 */
+	private final int[] subjects;
+
+
+	/**
+	 * The dictionary of the classes and subjects.
+	 */
+	private final StringDictionary dictionary;
+
+
+	/**
+	 * Creates a new {@code HomeworkTable} from the columns of a builder.
+	 *
+	 * @param builder The builder holding the rows.
+	 */
+	private HomeworkTable(Builder builder)
+	{
+		this.size = builder.size;
+		this.uids = Arrays.copyOf(builder.uids, builder.size);
+		this.due = Arrays.copyOf(builder.due, builder.size);
+		this.assigned = Arrays.copyOf(builder.assigned, builder.size);
+		this.classes = Arrays.copyOf(builder.classes, builder.size);
+		this.subjects = Arrays.copyOf(builder.subjects, builder.size);
+		this.dictionary = builder.dictionary;
+	}
+
+
+	/**
+	 * Gets the number of rows.
+	 *
+	 * @return The number of rows.
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+
+	/**
+	 * Creates an array large enough to hold the result of any scan of this table.  One array can be
+	 * reused for every scan.
+	 *
+	 * @return A new array with one slot per row.
+	 */
+	public int[] newSelection()
+	{
+		return new int[this.size];
+	}
+
+
+	/**
+	 * Gets the UID of a row.
+	 *
+	 * @param row The index of the row.
+	 *
+	 * @return The UID of the homework in the row.
+	 */
+	public long getUID(int row)
+	{
+		return this.uids[row];
+	}
+
+
+	/**
+	 * Gets the due date of a row.
+	 *
+	 * @param row The index of the row.
+	 *
+	 * @return The {@linkplain EpochDay epoch day} on which the homework in the row is due.
+	 */
+	public int getDueDay(int row)
+	{
+		return this.due[row];
+	}
+
+
+	/**
+	 * Gets the assigned date of a row.
+	 *
+	 * @param row The index of the row.
+	 *
+	 * @return The {@linkplain EpochDay epoch day} on which the homework in the row was assigned.
+	 */
+	public int getAssignedDay(int row)
+	{
+		return this.assigned[row];
+	}
+
+
+	/**
+	 * Gets the class of a row.  This decodes the text, and is meant for display.
+	 *
+	 * @param row The index of the row.
+	 *
+	 * @return The class of the homework in the row, or {@code null} if it has none.
+	 */
+	public String getAssigningClass(int row)
+	{
+		return this.dictionary.decode(this.classes[row]);
+	}
+
+
+	/**
+	 * Gets the subject of a row.  This decodes the text, and is meant for display.
+	 *
+	 * @param row The index of the row.
+	 *
+	 * @return The subject of the homework in the row, or {@code null} if it has none.
+	 */
+	public String getSubject(int row)
+	{
+		return this.dictionary.decode(this.subjects[row]);
+	}
+
+
+	/**
+	 * Gets the dictionary the classes and subjects of this table are coded by, to look up the codes to filter
+	 * by and to decode facet counts.
+	 *
+	 * @return The dictionary.  It must not be changed.
+	 */
+	public StringDictionary getDictionary()
+	{
+		return this.dictionary;
+	}
+
+
+	/**
+	 * Gets the code a class or subject is stored as in this table, for use with
+	 * {@link #scanClass(int, int[])} and {@link #scanSubject(int, int[])}.
+	 *
+	 * @param text The class or subject, or {@code null} for none.
+	 *
+	 * @return The code of the text, {@link StringDictionary#NONE} if it is {@code null}, or 
+	 *     {@link StringDictionary#NOT_FOUND} if no row holds it.
+	 */
+	public int codeOf(String text)
+	{
+		return this.dictionary.codeOf(text);
+	}
+
+
+	/**
+	 * Finds the rows due within a range of days.
+	 *
+	 * @param from The first epoch day of the range.
+	 * @param to The first epoch day after the range.
+	 * @param out Receives the indexes of the matching rows, in row order.
+	 *
+	 * @return The number of matching rows.
+	 */
+	public int scanDue(int from, int to, int[] out)
+	{
+		return scanRange(this.due, this.size, from, to, out);
+	}
+
+
+	/**
+	 * Finds the rows assigned within a range of days.
+	 *
+	 * @param from The first epoch day of the range.
+	 * @param to The first epoch day after the range.
+	 * @param out Receives the indexes of the matching rows, in row order.
+	 *
+	 * @return The number of matching rows.
+	 */
+	public int scanAssigned(int from, int to, int[] out)
+	{
+		return scanRange(this.assigned, this.size, from, to, out);
+	}
+
+
+	/**
+	 * Finds the rows of one class.
+	 *
+	 * @param code The {@linkplain #codeOf(String) code} of the class.
+	 * @param out Receives the indexes of the matching rows, in row order.
+	 *
+	 * @return The number of matching rows.
+	 */
+	public int scanClass(int code, int[] out)
+	{
+		return scanEqual(this.classes, this.size, code, out);
+	}
+
+
+	/**
+	 * Finds the rows of one subject.
+	 *
+	 * @param code The {@linkplain #codeOf(String) code} of the subject.
+	 * @param out Receives the indexes of the matching rows, in row order.
+	 *
+	 * @return The number of matching rows.
+	 */
+	public int scanSubject(int code, int[] out)
+	{
+		return scanEqual(this.subjects, this.size, code, out);
+	}
+
+
+	/**
+	 * Counts the rows of every class.
+	 *
+	 * @return An array holding, at each {@linkplain #getDictionary() dictionary} code, the number of rows
+	 *     with that class.
+	 */
+	public int[] countByClass()
+	{
+		return countCodes(this.classes, this.size, this.dictionary.size());
+	}
+
+
+	/**
+	 * Counts the rows of every subject.
+	 *
+	 * @return An array holding, at each {@linkplain #getDictionary() dictionary} code, the number of rows
+	 *     with that subject.
+	 */
+	public int[] countBySubject()
+	{
+		return countCodes(this.subjects, this.size, this.dictionary.size());
+	}
+
+
+	/**
+	 * Finds the rows whose value in an int column lies within a range.
+	 *
+	 * @param column The column.
+	 * @param size The number of rows.
+	 * @param from The smallest matching value.
+	 * @param to The first value after the range.
+	 * @param out Receives the indexes of the matching rows.
+	 *
+	 * @return The number of matching rows.
+	 */
+	private static int scanRange(int[] column, int size, int from, int to, int[] out)
+	{
+		if(to <= from) return 0;
+
+		//A value lies in the range if (value - from) < (to - from) as unsigned ints.  Flipping the sign
+		//bit of both sides turns that into one signed comparison.
+		int span = (to - from) ^ Integer.MIN_VALUE;
+		int count = 0;
+
+		for(int row = 0; row < size; row++)
+		{
+			//Write unconditionally and only advance on a match, so the loop has no branch to mispredict.
+			out[count] = row;
+			count += ((column[row] - from) ^ Integer.MIN_VALUE) < span ? 1 : 0;
+		}
+
+		return count;
+	}
+
+
+	/**
+	 * Finds the rows whose value in an int column equals a value.
+	 *
+	 * @param column The column.
+	 * @param size The number of rows.
+	 * @param value The value to match.
+	 * @param out Receives the indexes of the matching rows.
+	 *
+	 * @return The number of matching rows.
+	 */
+	private static int scanEqual(int[] column, int size, int value, int[] out)
+	{
+		int count = 0;
+
+		for(int row = 0; row < size; row++)
+		{
+			out[count] = row;
+			count += column[row] == value ? 1 : 0;
+		}
+
+		return count;
+	}
+
+
+	/**
+	 * Decodes the texts of a facet count, most common first, for display.
+	 *
+	 * @param counts A facet count of this table, such as {@link #countByClass()}.
+	 *
+	 * @return The texts counted at least once, by descending count, and texts counted as often in the order
+	 *     they were first added.
+	 */
+	public String[] decodeByCount(final int[] counts)
+	{
+		Integer[] codes = new Integer[counts.length];
+		int found = 0;
+
+		for(int code = 0; code < counts.length; code++)
+		{
+			if(counts[code] > 0) codes[found++] = code;
+		}
+
+		Arrays.sort(codes, 0, found, new Comparator<Integer>()
+		{
+			@Override
+			public int compare(Integer lhs, Integer rhs)
+			{
+				int byCount = counts[rhs] - counts[lhs];
+
+				return byCount != 0 ? byCount : lhs - rhs;
+			}
+		});
+
+		String[] texts = new String[found];
+
+		for(int i = 0; i < found; i++)
+		{
+			texts[i] = this.dictionary.decode(codes[i]);
+		}
+
+		return texts;
+	}
+
+
+	/**
+	 * Counts how often each code occurs in an int column.
+	 *
+	 * @param column The column.
+	 * @param size The number of values in the column.
+	 * @param codes The number of codes.
+	 *
+	 * @return The number of occurrences of each code.  {@link StringDictionary#NONE} is not counted.
+	 */
+	private static int[] countCodes(int[] column, int size, int codes)
+	{
+		int[] counts = new int[codes];
+
+		for(int i = 0; i < size; i++)
+		{
+			if(column[i] >= 0) counts[column[i]]++;
+		}
+
+		return counts;
+	}
+
+
+	/**
+	 * Collects the rows of a new {@link HomeworkTable}.  A builder is not thread-safe, and builds only one table.
+	 *
+	 * @author Bridger Maskrey (bem9@students.pti.edu)
+	 *
+	 * @version 1.1.0
+	 */
+	public static final class Builder
+	{
+		/**
+		 * The number of rows added so far.
+		 */
+		private int size = 0;
+
+
+		/**
+		 * The UID column.
+		 */
+		private long[] uids;
+
+
+		/**
+		 * The due date column.
+		 */
+		private int[] due;
+
+
+		/**
+		 * The assigned date column.
+		 */
+		private int[] assigned;
+
+
+		/**
+		 * The class code column.
+		 */
+		private int[] classes;
+
+
+		/**
+		 * The subject code column.
+		 */
+		private int[] subjects;
+
+
+		/**
+		 * The dictionary the classes and subjects are coded by.
+		 */
+		private final StringDictionary dictionary = new StringDictionary();
+
+
+		/**
+		 * Creates a new, empty {@code Builder}.
+		 *
+		 * @param capacity The expected number of rows.  More rows can be added.
+		 */
+		public Builder(int capacity)
+		{
+			capacity = Math.max(capacity, 16);
+
+			this.uids = new long[capacity];
+			this.due = new int[capacity];
+			this.assigned = new int[capacity];
+			this.classes = new int[capacity];
+			this.subjects = new int[capacity];
+		}
+
+
+		/**
+		 * Adds a row.
+		 *
+		 * @param uid The UID of the homework.
+		 * @param dueDay The epoch day on which the homework is due.
+		 * @param assignedDay The epoch day on which the homework was assigned.
+		 * @param assigningClass The class of the homework, or {@code null}.
+		 * @param subject The subject of the homework, or {@code null}.
+		 *
+		 * @return This {@code Builder}.
+		 */
+		public Builder add(long uid, int dueDay, int assignedDay, String assigningClass, String subject)
+		{
+			if(this.size == this.uids.length)
+			{
+				int capacity = this.size * 2;
+
+				this.uids = Arrays.copyOf(this.uids, capacity);
+				this.due = Arrays.copyOf(this.due, capacity);
+				this.assigned = Arrays.copyOf(this.assigned, capacity);
+				this.classes = Arrays.copyOf(this.classes, capacity);
+				this.subjects = Arrays.copyOf(this.subjects, capacity);
+			}
+
+			this.uids[this.size] = uid;
+			this.due[this.size] = dueDay;
+			this.assigned[this.size] = assignedDay;
+			this.classes[this.size] = this.dictionary.encode(assigningClass);
+			this.subjects[this.size] = this.dictionary.encode(subject);
+			this.size++;
+
+			return this;
+		}
+
+
+		/**
+		 * Adds the row of a homework value.
+		 *
+		 * @param value The homework.
+		 *
+		 * @return This {@code Builder}.
+		 */
+		public Builder add(HomeworkValue value)
+		{
+			return this.add(value.getUID(), value.getDueDay(), value.getAssignedDay(), value.getAssigningClass(), value.getSubject());
+		}
+
+
+		/**
+		 * Builds a table of the rows added so far.
+		 *
+		 * @return A new {@code HomeworkTable}.
+		 */
+		public HomeworkTable build()
+		{
+			return new HomeworkTable(this);
+		}
+	}
+}
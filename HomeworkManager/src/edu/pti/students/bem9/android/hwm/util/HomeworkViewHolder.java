@@ -0,0 +1,120 @@
+package edu.pti.students.bem9.android.hwm.util;
+
+import android.view.View;
+import android.widget.TextView;
+import edu.pti.bem9.android.hwm.R;
+
+/**
+ * Holds the fields of a hwm_layout_list row view, so they are only looked up once per view rather
+ * than on every bind.  The holder is stored as the view's tag, and remembers what the view was last
+ * bound to so that binding the same item again can be skipped.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.1.0
+ */
+final class HomeworkViewHolder
+{
+	/**
+	 * The name field.
+	 */
+	private final TextView name;
+
+
+	/**
+	 * The due date field.
+	 */
+	private final TextView due;
+
+
+	/**
+	 * The assigned date field.
+	 */
+	private final TextView assigned;
+
+
+	/**
+	 * The keyword field.
+	 */
+	private final TextView keywords;
+
+
+	/**
+	 * The item the view was last bound to, or {@code null} if it was never bound or shows a placeholder.
+	 */
+	private HomeworkDisplayItem item = null;
+
+
+	/**
+	 * The {@linkplain EpochDay epoch day} the view was last bound on.
+	 */
+	private int day;
+
+
+	/**
+	 * Looks up the fields of a row view and stores the new holder as its tag.
+	 *
+	 * @param v The row view.
+	 */
+	private HomeworkViewHolder(View v)
+	{
+		this.name = (TextView) v.findViewById(R.id.listview_label_name);
+		this.due = (TextView) v.findViewById(R.id.listview_label_due);
+		this.assigned = (TextView) v.findViewById(R.id.listview_label_assigned);
+		this.keywords = (TextView) v.findViewById(R.id.listview_label_keywords);
+
+		v.setTag(this);
+	}
+
+
+	/**
+	 * Gets the holder of a row view, creating it if the view does not have one yet.
+	 *
+	 * @param v The row view.
+	 *
+	 * @return The holder of the view.
+	 */
+	static HomeworkViewHolder of(View v)
+	{
+		Object tag = v.getTag();
+
+		return tag instanceof HomeworkViewHolder ? (HomeworkViewHolder) tag : new HomeworkViewHolder(v);
+	}
+
+
+	/**
+	 * Shows an item in the view.  Nothing is done if the view already shows the same item on the same day.
+	 *
+	 * @param item The item to show.
+	 * @param today The {@linkplain EpochDay epoch day} to treat as today, which decides the color of the name.
+	 */
+	void bind(HomeworkDisplayItem item, int today)
+	{
+		if(item == this.item && today == this.day) return;
+
+		this.name.setText(item.getName());
+		this.name.setTextColor(item.getNameColor(today));
+		this.due.setText(item.getDueLabel());
+		this.assigned.setText(item.getAssignedLabel());
+		this.keywords.setText(item.getKeywordLine());
+
+		this.item = item;
+		this.day = today;
+	}
+
+
+	/**
+	 * Shows an empty row in the view, for a homework that has not been loaded yet.
+	 */
+	void bindPlaceholder()
+	{
+		if(this.item == null) return;
+
+		this.name.setText(null);
+		this.due.setText(null);
+		this.assigned.setText(null);
+		this.keywords.setText(null);
+
+		this.item = null;
+	}
+}
@@ -0,0 +1,19 @@
+package edu.pti.students.bem9.android.hwm.util;
+
+/**
+ * Is told by the {@link DueStatusClassifier} when the local date changes, so that anything showing
+ * due statuses can update them.  It is always called on the main thread.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.0.0
+ */
+public interface IDayChangeListener
+{
+	/**
+	 * Called once the local date has changed.
+	 *
+	 * @param today The new {@linkplain EpochDay epoch day} of today.
+	 */
+	void onDayChanged(int today);
+}
@@ -0,0 +1,127 @@
+package edu.pti.students.bem9.android.hwm.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps each distinct string of one snapshot or load of homework, such as a class, subject or keyword, to a small
+ * int code, numbered from 0 in the order the strings are first seen.  Rows can then store, compare and
+ * count codes instead of strings, and only {@linkplain #decode(int) decode} them when they are displayed.
+ * Each distinct string is also held only once: {@link #intern(String)} hands back the instance the
+ * dictionary already holds, so that the many equal strings read while loading can be dropped at once.<br>
+ *
+ * A dictionary belongs to the snapshot or load it was built for, and codes of different dictionaries must not be
+ * mixed.  A {@link HomeworkTable} codes its classes and subjects by one, and loads of many homework only use
+ * one to intern what they read.  It is not thread-safe while it is being filled, but can be read from any thread
+ * afterwards.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.0.0
+ */
+public final class StringDictionary
+{
+	/**
+	 * The code of a {@code null} string.
+	 */
+	public static final int NONE = -1;
+
+
+	/**
+	 * The code {@link #codeOf(String)} returns for a string that is not in the dictionary.
+	 */
+	public static final int NOT_FOUND = -2;
+
+
+	/**
+	 * The distinct strings, indexed by their codes.
+	 */
+	private final List<String> strings = new ArrayList<String>();
+
+
+	/**
+	 * The code of every distinct string.
+	 */
+	private final Map<String, Integer> codes = new HashMap<String, Integer>();
+
+
+	/**
+	 * Gets the code of a string, adding the string to the dictionary if it is new.
+	 *
+	 * @param text The string, or {@code null}.
+	 *
+	 * @return The code of the string, or {@link #NONE} if it is {@code null}.
+	 */
+	public int encode(String text)
+	{
+		if(text == null) return NONE;
+
+		Integer code = this.codes.get(text);
+
+		if(code == null)
+		{
+			code = this.strings.size();
+			this.strings.add(text);
+			this.codes.put(text, code);
+		}
+
+		return code;
+	}
+
+
+	/**
+	 * Gets the instance of a string that the dictionary holds, adding the string if it is new.
+	 *
+	 * @param text The string, or {@code null}.
+	 *
+	 * @return The dictionary's equal string, or {@code null} if the string is {@code null}.
+	 */
+	public String intern(String text)
+	{
+		return text == null ? null : this.strings.get(this.encode(text));
+	}
+
+
+	/**
+	 * Gets the code of a string without adding it, e.g. to filter by it.
+	 *
+	 * @param text The string, or {@code null}.
+	 *
+	 * @return The code of the string, {@link #NONE} if it is {@code null}, or {@link #NOT_FOUND} if it is
+	 *     not in the dictionary.
+	 */
+	public int codeOf(String text)
+	{
+		if(text == null) return NONE;
+
+		Integer code = this.codes.get(text);
+
+		return code == null ? NOT_FOUND : code;
+	}
+
+
+	/**
+	 * Gets the string of a code.
+	 *
+	 * @param code A code of this dictionary, or {@link #NONE}.
+	 *
+	 * @return The string, or {@code null} for {@link #NONE}.
+	 */
+	public String decode(int code)
+	{
+		return code == NONE ? null : this.strings.get(code);
+	}
+
+
+	/**
+	 * Gets the number of distinct strings.  Codes run from 0 to one less than this.
+	 *
+	 * @return The number of strings in the dictionary.
+	 */
+	public int size()
+	{
+		return this.strings.size();
+	}
+}
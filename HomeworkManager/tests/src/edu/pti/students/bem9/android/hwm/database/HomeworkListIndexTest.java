@@ -0,0 +1,241 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import edu.pti.students.bem9.android.hwm.Homework;
+import edu.pti.students.bem9.android.hwm.HomeworkValue;
+
+/**
+ * Tests keeping the rows of a {@link HomeworkListIndex} in order as homework is inserted and removed.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.1.0
+ */
+public class HomeworkListIndexTest extends TestCase
+{
+	/**
+	 * Listed homework is sorted as the database sorts it: text ignoring the case of ASCII letters, and ties by UID.
+	 */
+	public void testOf()
+	{
+		List<HomeworkValue> values = new ArrayList<HomeworkValue>();
+		values.add(value(4, "beta", 3));
+		values.add(value(2, "Alpha", 1));
+		values.add(value(1, "BETA", 2));
+		values.add(value(3, "alpha", 2));
+
+		HomeworkListIndex byName = HomeworkListIndex.of(values, HomeworkSort.NAME, true);
+
+		assertUIDs(byName, 2, 3, 1, 4);
+		assertEquals("Alpha", byName.getText(0));
+		assertFalse(byName.isComplete());
+
+		assertUIDs(HomeworkListIndex.of(values, HomeworkSort.NAME, false), 4, 1, 3, 2);
+		assertUIDs(HomeworkListIndex.of(values, HomeworkSort.DUE, true), 2, 1, 3, 4);
+		assertEquals(4, values.get(0).getUID());
+	}
+
+
+	/**
+	 * Inserting homework in any order keeps every row at its sorted position, in both directions and every sort.
+	 */
+	public void testInsert()
+	{
+		Random random = new Random(42);
+
+		for(HomeworkSort sort : HomeworkSort.values())
+		{
+			for(boolean ascending : new boolean[] { true, false })
+			{
+				HomeworkListIndex rows = new HomeworkListIndex(sort, ascending, true, 0);
+				List<Homework> expected = new ArrayList<Homework>();
+
+				for(int uid = 1; uid <= 200; uid++)
+				{
+					Homework hw = homework(uid, "n" + random.nextInt(20), random.nextInt(30));
+					int at = rows.insert(hw);
+
+					assertEquals(hw.getUID(), rows.getUID(at));
+					expected.add(hw);
+				}
+
+				assertRows(rows, expected, sort, ascending);
+			}
+		}
+	}
+
+
+	/**
+	 * Homework is found by its sort key, by its saved values once its sort key changed, or by its UID.
+	 */
+	public void testIndexOf()
+	{
+		HomeworkListIndex rows = new HomeworkListIndex(HomeworkSort.DUE, true, true, 0);
+		Homework[] homework = new Homework[50];
+
+		for(int i = 0; i < homework.length; i++)
+		{
+			homework[i] = homework(i + 1, "hw", i % 7);
+			rows.insert(homework[i]);
+		}
+
+		for(Homework hw : homework)
+		{
+			assertEquals(hw.getUID(), rows.getUID(rows.indexOf(hw)));
+			assertEquals(rows.indexOf(hw.getUID()), rows.indexOf(hw));
+		}
+
+		Homework moved = homework[10];
+		int at = rows.indexOf(moved);
+		moved.setDueDay(1000);
+
+		assertEquals(at, rows.indexOf(moved));
+		assertEquals(at, rows.indexOf(moved.getSavedValue()));
+		assertEquals(-1, rows.indexOf(HomeworkValue.of(moved)));
+		assertNull(homework[11].getSavedValue());
+		assertEquals(-1, rows.indexOf(homework(99, "hw", 3)));
+		assertEquals(-1, rows.indexOf(99));
+	}
+
+
+	/**
+	 * Removing rows keeps the others in order, and the list grows again past its first capacity.
+	 */
+	public void testRemove()
+	{
+		HomeworkListIndex rows = new HomeworkListIndex(HomeworkSort.NAME, true, true, 0);
+		List<Homework> expected = new ArrayList<Homework>();
+
+		for(int uid = 1; uid <= 40; uid++)
+		{
+			Homework hw = homework(uid, "name " + (uid * 7 % 13), uid);
+			rows.insert(hw);
+			expected.add(hw);
+		}
+
+		for(int uid = 1; uid <= 40; uid += 3)
+		{
+			Homework hw = expected.get(uid - 1);
+			rows.remove(rows.indexOf(hw));
+		}
+
+		for(int uid = 40; uid >= 1; uid--)
+		{
+			if(uid % 3 == 1) expected.remove(uid - 1);
+		}
+
+		assertRows(rows, expected, HomeworkSort.NAME, true);
+
+		while(rows.size() > 0)
+		{
+			rows.remove(rows.size() - 1);
+		}
+
+		assertEquals(0, rows.insert(homework(1, "again", 1)));
+		assertEquals(1, rows.size());
+	}
+
+
+	/**
+	 * Lists have the same rows only if they have the same UIDs in the same order and the same sort.
+	 */
+	public void testHasSameRows()
+	{
+		List<HomeworkValue> values = new ArrayList<HomeworkValue>();
+		values.add(value(1, "b", 2));
+		values.add(value(2, "a", 1));
+
+		HomeworkListIndex byName = HomeworkListIndex.of(values, HomeworkSort.NAME, true);
+
+		assertTrue(byName.hasSameRows(HomeworkListIndex.of(values, HomeworkSort.NAME, true)));
+		assertFalse(byName.hasSameRows(HomeworkListIndex.of(values, HomeworkSort.NAME, false)));
+		assertFalse(byName.hasSameRows(HomeworkListIndex.of(values, HomeworkSort.DUE, true)));
+
+		values.add(value(3, "c", 3));
+		assertFalse(byName.hasSameRows(HomeworkListIndex.of(values, HomeworkSort.NAME, true)));
+	}
+
+
+	/**
+	 * Asserts that the rows of a list are exactly the given homework, sorted.
+	 *
+	 * @param rows The list.
+	 * @param homework The homework the list should hold, in any order.  The list is sorted.
+	 * @param sort The sort of the list.
+	 * @param ascending True if the list is ascending.
+	 */
+	private static void assertRows(HomeworkListIndex rows, List<Homework> homework, final HomeworkSort sort, final boolean ascending)
+	{
+		Collections.sort(homework, new Comparator<Homework>()
+		{
+			@Override
+			public int compare(Homework lhs, Homework rhs)
+			{
+				return sort.compare(lhs, rhs, ascending);
+			}
+		});
+
+		assertEquals(homework.size(), rows.size());
+
+		for(int i = 0; i < homework.size(); i++)
+		{
+			assertEquals("Row " + i, homework.get(i).getUID(), rows.getUID(i));
+		}
+	}
+
+
+	/**
+	 * Asserts that the rows of a list hold the given UIDs, in order.
+	 *
+	 * @param rows The list.
+	 * @param uids The expected UIDs.
+	 */
+	private static void assertUIDs(HomeworkListIndex rows, long ... uids)
+	{
+		assertEquals(uids.length, rows.size());
+
+		for(int i = 0; i < uids.length; i++)
+		{
+			assertEquals("Row " + i, uids[i], rows.getUID(i));
+		}
+	}
+
+
+	/**
+	 * Creates a saved homework.
+	 *
+	 * @param uid The UID.
+	 * @param name The name, which is also its class.
+	 * @param day The epoch day it is due on, and the day before it was assigned on.
+	 *
+	 * @return The homework.
+	 */
+	private static Homework homework(long uid, String name, int day)
+	{
+		Homework hw = new Homework(name, day, day - 1, name, (CharSequence) null);
+		hw.setUID(uid);
+
+		return hw;
+	}
+
+
+	/**
+	 * Creates a saved homework value.
+	 *
+	 * @param uid The UID.
+	 * @param name The name.
+	 * @param due The epoch day it is due on.
+	 *
+	 * @return The homework value.
+	 */
+	private static HomeworkValue value(long uid, String name, int due)
+	{
+		return new HomeworkValue.Builder(name, due, 0).setUID(uid).build();
+	}
+}
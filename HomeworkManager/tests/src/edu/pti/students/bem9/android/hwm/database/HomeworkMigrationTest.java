@@ -0,0 +1,164 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.test.AndroidTestCase;
+import android.test.RenamingDelegatingContext;
+import edu.pti.students.bem9.android.hwm.util.EpochDay;
+
+/**
+ * Tests that the {@linkplain HomeworkMigration migrations} of {@link HomeworkSQLiteHelper} upgrade a version 1
+ * database to the current schema without losing any homework.  The tests run on a separate database, so the
+ * app's own homework is never touched.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.0.0
+ */
+public class HomeworkMigrationTest extends AndroidTestCase
+{
+	/**
+	 * The context the test databases are opened in, which prefixes the names of the databases.
+	 */
+	private Context context;
+
+
+	/**
+	 * The helper under test.
+	 */
+	private HomeworkSQLiteHelper helper;
+
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+
+		this.context = new RenamingDelegatingContext(this.getContext(), "test.");
+		this.helper = new HomeworkSQLiteHelper(this.context);
+		this.context.deleteDatabase(this.helper.getDatabaseName());
+	}
+
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		this.helper.close();
+		this.context.deleteDatabase(this.helper.getDatabaseName());
+
+		super.tearDown();
+	}
+
+
+	/**
+	 * Upgrading a version 1 database converts the dates into epoch days, moves the keywords into the keyword
+	 * table, and indexes every homework for full-text search.
+	 */
+	public void testUpgradeFromVersion1()
+	{
+		SQLiteDatabase old = this.context.openOrCreateDatabase(this.helper.getDatabaseName(), Context.MODE_PRIVATE, null);
+
+		try
+		{
+			old.execSQL(HomeworkSQLiteHelper._DATABASE_CREATE);
+			old.execSQL("INSERT INTO " + HomeworkSQLiteHelper._TABLE_NAME + " VALUES (?, ?, ?, ?, ?, ?, ?)",
+					new Object[] { 7, "2014-03-05", "2012-02-29", "English", "Literature", "Essay on Hamlet",
+					"Reading\f writing \fREADING\f" });
+			old.execSQL("INSERT INTO " + HomeworkSQLiteHelper._TABLE_NAME + " VALUES (?, ?, ?, ?, ?, ?, ?)",
+					new Object[] { 9, "1969-12-31", "1969-12-30", null, null, "Old homework", null });
+			old.setVersion(1);
+		} finally
+		{
+			old.close();
+		}
+
+		SQLiteDatabase database = this.helper.getWritableDatabase();
+
+		assertEquals(5, database.getVersion());
+
+		Cursor cursor = database.query(HomeworkSQLiteHelper._VIEW_NAME, new String[] { HomeworkSQLiteHelper._COL_ID,
+				HomeworkSQLiteHelper._COL_DUE, HomeworkSQLiteHelper._COL_ASSIGNED, HomeworkSQLiteHelper._COL_NAME,
+				HomeworkSQLiteHelper._COL_KEYWORDS }, null, null, null, null, HomeworkSQLiteHelper._COL_ID);
+
+		try
+		{
+			assertEquals(2, cursor.getCount());
+
+			cursor.moveToFirst();
+			assertEquals(7, cursor.getLong(0));
+			assertEquals(EpochDay.fromCivil(2014, 3, 5), cursor.getInt(1));
+			assertEquals(EpochDay.fromCivil(2012, 2, 29), cursor.getInt(2));
+			assertEquals("Essay on Hamlet", cursor.getString(3));
+			assertEquals("reading" + HomeworkSQLiteHelper._DELIM + "writing", cursor.getString(4));
+
+			cursor.moveToNext();
+			assertEquals(9, cursor.getLong(0));
+			assertEquals(-1, cursor.getInt(1));
+			assertEquals(-2, cursor.getInt(2));
+			assertTrue(cursor.isNull(4));
+		} finally
+		{
+			cursor.close();
+		}
+
+		assertSearch(database, "hamlet", 7);
+		assertSearch(database, "writing", 7);
+		assertSearch(database, "2014", 7);
+		assertSearch(database, "old", 9);
+	}
+
+
+	/**
+	 * A new database is created at the current version, and its triggers keep the search table up to date.
+	 */
+	public void testCreate()
+	{
+		SQLiteDatabase database = this.helper.getWritableDatabase();
+
+		assertEquals(5, database.getVersion());
+
+		database.execSQL("INSERT INTO " + HomeworkSQLiteHelper._TABLE_NAME + "(" + HomeworkSQLiteHelper._COL_ID + ", " +
+				HomeworkSQLiteHelper._COL_DUE + ", " + HomeworkSQLiteHelper._COL_ASSIGNED + ", " +
+				HomeworkSQLiteHelper._COL_NAME + ") VALUES (3, ?, ?, 'Lab report')",
+				new Object[] { EpochDay.fromCivil(2014, 3, 5), EpochDay.fromCivil(2014, 3, 1) });
+		database.execSQL("INSERT INTO " + HomeworkSQLiteHelper._KEYWORD_TABLE_NAME + "(" +
+				HomeworkSQLiteHelper._COL_KEYWORD_HOMEWORK + ", " + HomeworkSQLiteHelper._COL_KEYWORD + ") VALUES (3, 'chemistry')");
+
+		assertSearch(database, "lab", 3);
+		assertSearch(database, "chemistry", 3);
+		assertSearch(database, "\"2014-03-05\"", 3);
+
+		database.execSQL("DELETE FROM " + HomeworkSQLiteHelper._TABLE_NAME + " WHERE " + HomeworkSQLiteHelper._COL_ID + " = 3");
+
+		assertSearch(database, "lab");
+	}
+
+
+	/**
+	 * Asserts that a full-text search finds exactly the given homework.
+	 *
+	 * @param database The database.
+	 * @param query The full-text query.
+	 * @param ids The IDs of the homework the search should find, in ascending order.
+	 */
+	private static void assertSearch(SQLiteDatabase database, String query, long ... ids)
+	{
+		Cursor cursor = database.rawQuery("SELECT docid FROM " + HomeworkSQLiteHelper._SEARCH_TABLE_NAME + " WHERE " +
+				HomeworkSQLiteHelper._SEARCH_TABLE_NAME + " MATCH ? ORDER BY docid", new String[] { query });
+
+		try
+		{
+			assertEquals(query, ids.length, cursor.getCount());
+
+			for(long id : ids)
+			{
+				cursor.moveToNext();
+				assertEquals(query, id, cursor.getLong(0));
+			}
+		} finally
+		{
+			cursor.close();
+		}
+	}
+}
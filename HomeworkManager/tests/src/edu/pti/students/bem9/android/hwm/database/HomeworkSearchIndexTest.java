@@ -0,0 +1,227 @@
+package edu.pti.students.bem9.android.hwm.database;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import edu.pti.students.bem9.android.hwm.HomeworkValue;
+import edu.pti.students.bem9.android.hwm.util.EpochDay;
+
+/**
+ * Tests building, updating, searching and filtering a {@link HomeworkSearchIndex}.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.1.0
+ */
+public class HomeworkSearchIndexTest extends TestCase
+{
+	/**
+	 * The day every test homework was assigned on.
+	 */
+	private static final int _assigned = EpochDay.fromCivil(2014, 3, 3);
+
+
+	/**
+	 * The index under test.
+	 */
+	private HomeworkSearchIndex index;
+
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+
+		List<HomeworkValue> values = new ArrayList<HomeworkValue>();
+		values.add(value(3, "Essay on Hamlet", "English", 10, "reading"));
+		values.add(value(1, "History essay", "History", 12, "writing"));
+		values.add(value(2, "Math worksheet", "Algebra", 11, "homework"));
+		values.add(value(4, "Lab report", "Chemistry", 14, "writing", "lab"));
+
+		this.index = HomeworkSearchIndex.build(values);
+	}
+
+
+	/**
+	 * A built index holds every homework, and finds each one by the words of any of its fields.
+	 */
+	public void testBuild()
+	{
+		assertEquals(4, this.index.size());
+		assertSearch("hamlet", 3);
+		assertSearch("english", 3);
+		assertSearch("homework", 2);
+		assertSearch("writing", 1, 4);
+		assertSearch("2014", 1, 2, 3, 4);
+	}
+
+
+	/**
+	 * A term matches every word it starts, and the results of all terms are intersected.
+	 */
+	public void testPrefixIntersection()
+	{
+		assertSearch("ess", 1, 3);
+		assertSearch("h", 1, 2, 3);
+		assertSearch("h ess", 1, 3);
+		assertSearch("his ess", 1);
+		assertSearch("wri lab", 4);
+		assertSearch("essay, history!", 1);
+		assertSearch("ess lab");
+		assertSearch("nothing");
+		assertNull(this.index.search(" ,;- "));
+	}
+
+
+	/**
+	 * Only ASCII letters are folded, as the database's full-text search folds them.
+	 */
+	public void testCaseFolding()
+	{
+		assertSearch("ESSAY", 1, 3);
+		assertSearch("HiStOrY", 1);
+
+		this.index.put(value(5, "\u00c9tude in \u00c9", "Music", 15));
+
+		assertSearch("\u00c9tude", 5);
+		assertSearch("\u00e9tude");
+
+		assertEquals("abc\u00c9 \u00e9", HomeworkTokens.foldCase("AbC\u00c9 \u00e9"));
+		assertEquals("plain", HomeworkTokens.foldCase("plain"));
+	}
+
+
+	/**
+	 * Putting a homework indexes a new one, or replaces the tokens of one already indexed.
+	 */
+	public void testPut()
+	{
+		this.index.put(value(5, "Poetry essay", "English", 15));
+
+		assertEquals(5, this.index.size());
+		assertSearch("essay", 1, 3, 5);
+		assertSearch("english", 3, 5);
+
+		int tokens = this.index.getTokenCount();
+		this.index.put(value(2, "Geometry worksheet", "Algebra", 11, "homework"));
+
+		assertEquals(5, this.index.size());
+		assertSearch("math");
+		assertSearch("geo", 2);
+		assertEquals(tokens, this.index.getTokenCount());
+	}
+
+
+	/**
+	 * Removing a homework takes it out of every result, and drops the tokens no other homework holds.
+	 */
+	public void testRemove()
+	{
+		int tokens = this.index.getTokenCount();
+
+		this.index.remove(4);
+
+		assertEquals(3, this.index.size());
+		assertSearch("writing", 1);
+		assertSearch("lab");
+		assertSearch("chemistry");
+		assertEquals(tokens - 4, this.index.getTokenCount());
+
+		this.index.remove(4);
+		assertEquals(3, this.index.size());
+	}
+
+
+	/**
+	 * The results of a search are listed in the sort asked for.
+	 */
+	public void testSortedSearch()
+	{
+		HomeworkListIndex byName = this.index.search("ess", HomeworkSort.NAME, true);
+
+		assertEquals(2, byName.size());
+		assertEquals(3, byName.getUID(0));
+		assertEquals(1, byName.getUID(1));
+
+		HomeworkListIndex byDue = this.index.search("2014", HomeworkSort.DUE, false);
+
+		assertEquals(4, byDue.size());
+		assertEquals(4, byDue.getUID(0));
+		assertEquals(1, byDue.getUID(1));
+		assertEquals(2, byDue.getUID(2));
+		assertEquals(3, byDue.getUID(3));
+		assertEquals(EpochDay.fromCivil(2014, 3, 14), byDue.getDay(0));
+
+		assertNull(this.index.search("", HomeworkSort.NAME, true));
+	}
+
+
+	/**
+	 * Filtering by due date lists the homework due within the range, and sees homework put or removed since the
+	 * last filter.
+	 */
+	public void testListDue()
+	{
+		HomeworkListIndex due = this.index.listDue(EpochDay.fromCivil(2014, 3, 11), EpochDay.fromCivil(2014, 3, 13),
+				HomeworkSort.DUE, true);
+
+		assertEquals(2, due.size());
+		assertEquals(2, due.getUID(0));
+		assertEquals(1, due.getUID(1));
+
+		this.index.put(value(5, "Quiz", "Algebra", 11));
+		this.index.remove(1);
+
+		HomeworkListIndex byName = this.index.listDue(Integer.MIN_VALUE, EpochDay.fromCivil(2014, 3, 12),
+				HomeworkSort.NAME, true);
+
+		assertEquals(3, byName.size());
+		assertEquals(3, byName.getUID(0));
+		assertEquals(2, byName.getUID(1));
+		assertEquals(5, byName.getUID(2));
+		assertEquals(0, this.index.listDue(0, 0, HomeworkSort.DUE, true).size());
+	}
+
+
+	/**
+	 * Asserts that a search finds exactly the given homework.
+	 *
+	 * @param query The search terms.
+	 * @param uids The sorted UIDs of the homework the search should find.
+	 */
+	private void assertSearch(String query, long ... uids)
+	{
+		long[] found = this.index.search(query);
+
+		assertNotNull(query, found);
+		assertEquals(query, Arrays.toString(uids), Arrays.toString(found));
+	}
+
+
+	/**
+	 * Creates a saved homework assigned on 2014-03-03 and due in March 2014.
+	 *
+	 * @param uid The UID.
+	 * @param name The name.
+	 * @param assigningClass The class.
+	 * @param due The day of March 2014 the homework is due.
+	 * @param keywords The keywords.
+	 *
+	 * @return The homework.
+	 */
+	private static HomeworkValue value(long uid, String name, String assigningClass, int due, String ... keywords)
+	{
+		HomeworkValue.Builder builder = new HomeworkValue.Builder(name, EpochDay.fromCivil(2014, 3, due), _assigned)
+				.setUID(uid)
+				.setAssigningClass(assigningClass);
+
+		for(String keyword : keywords)
+		{
+			builder.addKeyword(keyword);
+		}
+
+		return builder.build();
+	}
+}
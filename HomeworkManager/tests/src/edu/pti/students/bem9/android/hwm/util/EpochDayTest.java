@@ -0,0 +1,141 @@
+package edu.pti.students.bem9.android.hwm.util;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the date math of {@link EpochDay}.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.0.0
+ */
+public class EpochDayTest extends TestCase
+{
+	/**
+	 * 1970-01-01 is epoch day 0, and the days around it are counted from there.
+	 */
+	public void testEpoch()
+	{
+		assertEquals(0, EpochDay.fromCivil(1970, 1, 1));
+		assertEquals(-1, EpochDay.fromCivil(1969, 12, 31));
+		assertEquals(365, EpochDay.fromCivil(1971, 1, 1));
+		assertCivil(1970, 1, 1, 0);
+		assertCivil(1969, 12, 31, -1);
+	}
+
+
+	/**
+	 * Every day from 1600 to 2400 converts to the same date a proleptic Gregorian calendar gives, and back.
+	 */
+	public void testRoundTrip()
+	{
+		GregorianCalendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+		cal.setGregorianChange(new Date(Long.MIN_VALUE));
+		cal.clear();
+		cal.set(1600, Calendar.JANUARY, 1);
+
+		int first = EpochDay.fromCivil(1600, 1, 1);
+		int last = EpochDay.fromCivil(2400, 12, 31);
+
+		for(int day = first; day <= last; day++)
+		{
+			int year = cal.get(Calendar.YEAR);
+			int month = cal.get(Calendar.MONTH) + 1;
+			int dayOfMonth = cal.get(Calendar.DAY_OF_MONTH);
+
+			assertCivil(year, month, dayOfMonth, day);
+			assertEquals(day, EpochDay.fromCivil(year, month, dayOfMonth));
+
+			cal.add(Calendar.DAY_OF_MONTH, 1);
+		}
+	}
+
+
+	/**
+	 * Leap years are every fourth year, except for centuries not divisible by 400.
+	 */
+	public void testLeapYears()
+	{
+		assertEquals(2, EpochDay.fromCivil(2000, 3, 1) - EpochDay.fromCivil(2000, 2, 28));
+		assertEquals(2, EpochDay.fromCivil(2012, 3, 1) - EpochDay.fromCivil(2012, 2, 28));
+		assertEquals(1, EpochDay.fromCivil(1900, 3, 1) - EpochDay.fromCivil(1900, 2, 28));
+		assertEquals(1, EpochDay.fromCivil(2014, 3, 1) - EpochDay.fromCivil(2014, 2, 28));
+		assertEquals(1, EpochDay.fromCivil(2100, 3, 1) - EpochDay.fromCivil(2100, 2, 28));
+
+		assertEquals(366, EpochDay.fromCivil(2001, 1, 1) - EpochDay.fromCivil(2000, 1, 1));
+		assertEquals(365, EpochDay.fromCivil(2101, 1, 1) - EpochDay.fromCivil(2100, 1, 1));
+		assertEquals(146097, EpochDay.fromCivil(2400, 1, 1) - EpochDay.fromCivil(2000, 1, 1));
+
+		assertCivil(2016, 2, 29, EpochDay.fromCivil(2016, 2, 29));
+		assertCivil(2016, 3, 1, EpochDay.fromCivil(2016, 2, 29) + 1);
+	}
+
+
+	/**
+	 * Dates are parsed from and formatted as SQL dates.
+	 */
+	public void testParseAndFormat()
+	{
+		int day = EpochDay.fromCivil(2014, 3, 5);
+
+		assertEquals(day, EpochDay.parse("2014-03-05"));
+		assertEquals(day, EpochDay.parse(" 2014-3-5 "));
+		assertEquals("2014-03-05", EpochDay.toString(day));
+		assertEquals("1969-12-31", EpochDay.toString(-1));
+		assertEquals(day, EpochDay.parse(EpochDay.toString(day)));
+	}
+
+
+	/**
+	 * Text that is not an SQL date is rejected.
+	 */
+	public void testParseInvalid()
+	{
+		for(String text : new String[] { "", "2014-03", "2014-13-01", "2014-00-01", "2014-01-32", "2014-ab-01" })
+		{
+			try
+			{
+				EpochDay.parse(text);
+				fail("Parsed " + text);
+			} catch(IllegalArgumentException exc)
+			{
+				//Expected.
+			}
+		}
+	}
+
+
+	/**
+	 * Conversions through {@link java.util.Date} keep the local calendar date.
+	 */
+	public void testDateRoundTrip()
+	{
+		for(int day = EpochDay.fromCivil(2014, 1, 1); day < EpochDay.fromCivil(2015, 1, 1); day++)
+		{
+			assertEquals(day, EpochDay.fromDate(EpochDay.toDate(day)));
+		}
+	}
+
+
+	/**
+	 * Asserts that an epoch day converts to a calendar date.
+	 *
+	 * @param year The expected year.
+	 * @param month The expected month, starting at 1.
+	 * @param day The expected day of the month.
+	 * @param epochDay The epoch day to convert.
+	 */
+	private static void assertCivil(int year, int month, int day, int epochDay)
+	{
+		int[] civil = EpochDay.toCivil(epochDay);
+
+		assertEquals("Year of " + epochDay, year, civil[0]);
+		assertEquals("Month of " + epochDay, month, civil[1]);
+		assertEquals("Day of " + epochDay, day, civil[2]);
+	}
+}
@@ -0,0 +1,217 @@
+package edu.pti.students.bem9.android.hwm.util;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+
+import junit.framework.TestCase;
+import edu.pti.students.bem9.android.hwm.HomeworkValue;
+import edu.pti.students.bem9.android.hwm.database.HomeworkListIndex;
+import edu.pti.students.bem9.android.hwm.database.HomeworkSort;
+
+/**
+ * Tests the sections {@link HomeworkSectionIndex} finds in sorted homework lists.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.0.0
+ */
+public class HomeworkSectionIndexTest extends TestCase
+{
+	/**
+	 * The labels of the named sections.
+	 */
+	private static final HomeworkSectionIndex.Labels _labels = new HomeworkSectionIndex.Labels("Overdue", "Today", "This week");
+
+
+	/**
+	 * Lists sorted by text have one section per initial, with every other initial in the "#" section.
+	 */
+	public void testInitials()
+	{
+		HomeworkListIndex rows = list(HomeworkSort.NAME, true, "42 questions", "apple", "Avocado", "banana", "zebra");
+		HomeworkSectionIndex sections = HomeworkSectionIndex.build(rows, 0, _labels);
+
+		assertSections(sections, "#", "A", "B", "Z");
+		assertPositions(sections, 0, 1, 3, 4);
+		assertEquals(1, sections.getSectionForPosition(2));
+		assertEquals(3, sections.getSectionForPosition(4));
+
+		HomeworkListIndex descending = list(HomeworkSort.NAME, false, "42 questions", "apple", "Avocado", "banana", "zebra");
+
+		assertSections(HomeworkSectionIndex.build(descending, 0, _labels), "Z", "B", "A", "#");
+	}
+
+
+	/**
+	 * Lists sorted by due date are split into overdue, today, this week, and then one section per month.
+	 */
+	public void testDueDays()
+	{
+		int today = firstDayOfWeek(EpochDay.fromCivil(2014, 3, 1));
+		int[] civil = EpochDay.toCivil(today);
+		int nextMonth = EpochDay.fromCivil(civil[1] == 12 ? civil[0] + 1 : civil[0], civil[1] % 12 + 1, 15);
+
+		HomeworkListIndex rows = list(HomeworkSort.DUE, true, today - 30, today - 1, today, today, today + 3, today + 6,
+				today + 7, nextMonth);
+		HomeworkSectionIndex sections = HomeworkSectionIndex.build(rows, today, _labels);
+
+		assertSections(sections, "Overdue", "Today", "This week", month(today + 7), month(nextMonth));
+		assertPositions(sections, 0, 2, 4, 6, 7);
+
+		HomeworkListIndex descending = list(HomeworkSort.DUE, false, today - 30, today - 1, today, today + 3, nextMonth);
+
+		assertSections(HomeworkSectionIndex.build(descending, today, _labels), month(nextMonth), "This week", "Today", "Overdue");
+	}
+
+
+	/**
+	 * Lists sorted by assigned date only have month sections.
+	 */
+	public void testAssignedDays()
+	{
+		int march = EpochDay.fromCivil(2014, 3, 31);
+		int april = EpochDay.fromCivil(2014, 4, 1);
+
+		HomeworkListIndex rows = list(HomeworkSort.ASSIGNED, true, march - 1, march, april, april + 29);
+		HomeworkSectionIndex sections = HomeworkSectionIndex.build(rows, march, _labels);
+
+		assertSections(sections, month(march), month(april));
+		assertPositions(sections, 0, 2);
+	}
+
+
+	/**
+	 * A list without rows has no sections, and every position maps to the first section.
+	 */
+	public void testEmpty()
+	{
+		HomeworkSectionIndex sections = HomeworkSectionIndex.build(list(HomeworkSort.NAME, true, new String[0]), 0, _labels);
+
+		assertEquals(0, sections.getSections().length);
+		assertEquals(0, sections.getPositionForSection(3));
+		assertEquals(0, sections.getSectionForPosition(3));
+		assertEquals(0, HomeworkSectionIndex.EMPTY.getSections().length);
+	}
+
+
+	/**
+	 * Section indexes past either end select the first or last section.
+	 */
+	public void testClamping()
+	{
+		HomeworkSectionIndex sections = HomeworkSectionIndex.build(list(HomeworkSort.NAME, true, "a", "b", "c"), 0, _labels);
+
+		assertEquals(0, sections.getPositionForSection(-1));
+		assertEquals(2, sections.getPositionForSection(10));
+	}
+
+
+	/**
+	 * Asserts the labels of the sections.
+	 *
+	 * @param sections The sections.
+	 * @param labels The expected labels, in order.
+	 */
+	private static void assertSections(HomeworkSectionIndex sections, String ... labels)
+	{
+		assertEquals(Arrays.toString(labels), Arrays.toString(sections.getSections()));
+	}
+
+
+	/**
+	 * Asserts the position of the first row of every section, and that each first row maps back to its section.
+	 *
+	 * @param sections The sections.
+	 * @param positions The expected positions, in order.
+	 */
+	private static void assertPositions(HomeworkSectionIndex sections, int ... positions)
+	{
+		for(int i = 0; i < positions.length; i++)
+		{
+			assertEquals("Section " + i, positions[i], sections.getPositionForSection(i));
+			assertEquals("Position " + positions[i], i, sections.getSectionForPosition(positions[i]));
+		}
+	}
+
+
+	/**
+	 * Lists homework with the given names, due on the same day.
+	 *
+	 * @param sort The sort, which must be by text.
+	 * @param ascending True to sort in ascending order.
+	 * @param names The names.
+	 *
+	 * @return The sorted list.
+	 */
+	private static HomeworkListIndex list(HomeworkSort sort, boolean ascending, String ... names)
+	{
+		List<HomeworkValue> values = new ArrayList<HomeworkValue>();
+
+		for(int i = 0; i < names.length; i++)
+		{
+			values.add(new HomeworkValue.Builder(names[i], 0, 0).setUID(i + 1).setAssigningClass(names[i]).build());
+		}
+
+		return HomeworkListIndex.of(values, sort, ascending);
+	}
+
+
+	/**
+	 * Lists homework due and assigned on the given days.
+	 *
+	 * @param sort The sort, which must be by day.
+	 * @param ascending True to sort in ascending order.
+	 * @param days The epoch days.
+	 *
+	 * @return The sorted list.
+	 */
+	private static HomeworkListIndex list(HomeworkSort sort, boolean ascending, int ... days)
+	{
+		List<HomeworkValue> values = new ArrayList<HomeworkValue>();
+
+		for(int i = 0; i < days.length; i++)
+		{
+			values.add(new HomeworkValue.Builder("hw", days[i], days[i]).setUID(i + 1).build());
+		}
+
+		return HomeworkListIndex.of(values, sort, ascending);
+	}
+
+
+	/**
+	 * Finds the first day of the first week starting on or after a day, by the default locale's calendar.
+	 *
+	 * @param day The epoch day.
+	 *
+	 * @return The epoch day a week starts on.
+	 */
+	private static int firstDayOfWeek(int day)
+	{
+		Calendar cal = Calendar.getInstance();
+		cal.setTime(EpochDay.toDate(day));
+
+		while(cal.get(Calendar.DAY_OF_WEEK) != cal.getFirstDayOfWeek())
+		{
+			cal.add(Calendar.DAY_OF_MONTH, 1);
+		}
+
+		return EpochDay.fromCalendar(cal);
+	}
+
+
+	/**
+	 * Formats the label of the month section of a day.
+	 *
+	 * @param day The epoch day.
+	 *
+	 * @return The label.
+	 */
+	private static String month(int day)
+	{
+		return new SimpleDateFormat("MMMM yyyy", Locale.getDefault()).format(EpochDay.toDate(day));
+	}
+}
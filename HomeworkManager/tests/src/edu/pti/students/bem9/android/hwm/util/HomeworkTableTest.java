@@ -0,0 +1,119 @@
+package edu.pti.students.bem9.android.hwm.util;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests scanning and counting the columns of a {@link HomeworkTable}.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.1.0
+ */
+public class HomeworkTableTest extends TestCase
+{
+	/**
+	 * The table under test.
+	 */
+	private HomeworkTable table;
+
+
+	/**
+	 * The array every scan writes its rows into.
+	 */
+	private int[] rows;
+
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+
+		this.table = new HomeworkTable.Builder(0)
+				.add(10, 5, 1, "English", "Literature")
+				.add(11, -3, -4, "History", null)
+				.add(12, 7, 2, "English", "Grammar")
+				.add(13, 5, 5, null, null)
+				.add(14, Integer.MAX_VALUE, Integer.MIN_VALUE, "Algebra", "Grammar")
+				.build();
+		this.rows = this.table.newSelection();
+	}
+
+
+	/**
+	 * Every row keeps the values it was added with, in the order it was added.
+	 */
+	public void testRows()
+	{
+		assertEquals(5, this.table.size());
+		assertEquals(5, this.rows.length);
+		assertEquals(12, this.table.getUID(2));
+		assertEquals(7, this.table.getDueDay(2));
+		assertEquals(2, this.table.getAssignedDay(2));
+		assertEquals("English", this.table.getAssigningClass(2));
+		assertEquals("Grammar", this.table.getSubject(2));
+		assertNull(this.table.getAssigningClass(3));
+		assertNull(this.table.getSubject(1));
+	}
+
+
+	/**
+	 * Scanning a range of days finds the rows within it, including ranges open toward either end.
+	 */
+	public void testScanDue()
+	{
+		assertRows(this.table.scanDue(5, 6, this.rows), 0, 3);
+		assertRows(this.table.scanDue(Integer.MIN_VALUE, 6, this.rows), 0, 1, 3);
+		assertRows(this.table.scanDue(0, Integer.MAX_VALUE, this.rows), 0, 2, 3);
+		assertRows(this.table.scanDue(Integer.MIN_VALUE, Integer.MAX_VALUE, this.rows), 0, 1, 2, 3);
+		assertRows(this.table.scanDue(6, 5, this.rows));
+		assertRows(this.table.scanAssigned(Integer.MIN_VALUE, 0, this.rows), 1, 4);
+	}
+
+
+	/**
+	 * Scanning a class or subject compares codes, and text no row holds matches nothing.
+	 */
+	public void testScanText()
+	{
+		assertRows(this.table.scanClass(this.table.codeOf("English"), this.rows), 0, 2);
+		assertRows(this.table.scanClass(this.table.codeOf(null), this.rows), 3);
+		assertRows(this.table.scanClass(this.table.codeOf("english"), this.rows));
+		assertRows(this.table.scanSubject(this.table.codeOf("Grammar"), this.rows), 2, 4);
+		assertEquals(StringDictionary.NOT_FOUND, this.table.codeOf("english"));
+		assertEquals(StringDictionary.NONE, this.table.codeOf(null));
+	}
+
+
+	/**
+	 * Facets count the rows of every code, and decode to the texts counted, most common first.
+	 */
+	public void testFacets()
+	{
+		int[] classes = this.table.countByClass();
+
+		assertEquals(this.table.getDictionary().size(), classes.length);
+		assertEquals(2, classes[this.table.codeOf("English")]);
+		assertEquals(0, classes[this.table.codeOf("Grammar")]);
+		assertEquals("[English, History, Algebra]", Arrays.toString(this.table.decodeByCount(classes)));
+		assertEquals("[Grammar, Literature]", Arrays.toString(this.table.decodeByCount(this.table.countBySubject())));
+	}
+
+
+	/**
+	 * Asserts the rows found by a scan.
+	 *
+	 * @param count The number of rows the scan found.
+	 * @param expected The expected rows, in order.
+	 */
+	private void assertRows(int count, int ... expected)
+	{
+		assertEquals(expected.length, count);
+
+		for(int i = 0; i < expected.length; i++)
+		{
+			assertEquals("Row " + i, expected[i], this.rows[i]);
+		}
+	}
+}
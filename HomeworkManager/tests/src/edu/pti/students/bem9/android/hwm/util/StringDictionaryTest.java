@@ -0,0 +1,48 @@
+package edu.pti.students.bem9.android.hwm.util;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests coding and interning strings with a {@link StringDictionary}.
+ *
+ * @author Bridger Maskrey (bem9@students.pti.edu)
+ *
+ * @version 1.0.0
+ */
+public class StringDictionaryTest extends TestCase
+{
+	/**
+	 * Distinct strings are numbered from 0 in the order they are first seen, and decode back to themselves.
+	 */
+	public void testEncode()
+	{
+		StringDictionary dictionary = new StringDictionary();
+
+		assertEquals(0, dictionary.encode("English"));
+		assertEquals(1, dictionary.encode("History"));
+		assertEquals(0, dictionary.encode(new String("English")));
+		assertEquals(StringDictionary.NONE, dictionary.encode(null));
+		assertEquals(2, dictionary.size());
+
+		assertEquals("History", dictionary.decode(1));
+		assertNull(dictionary.decode(StringDictionary.NONE));
+		assertEquals(1, dictionary.codeOf("History"));
+		assertEquals(StringDictionary.NOT_FOUND, dictionary.codeOf("Algebra"));
+		assertEquals(2, dictionary.size());
+	}
+
+
+	/**
+	 * Interning hands back the first instance of each distinct string.
+	 */
+	public void testIntern()
+	{
+		StringDictionary dictionary = new StringDictionary();
+		String first = new String("lab");
+
+		assertSame(first, dictionary.intern(first));
+		assertSame(first, dictionary.intern(new String("lab")));
+		assertNull(dictionary.intern(null));
+		assertEquals(1, dictionary.size());
+	}
+}